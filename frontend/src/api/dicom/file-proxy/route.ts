@@ -20,15 +20,26 @@ export async function GET(req: NextRequest) {
     target = `${BACKEND}${raw.startsWith('/') ? '' : '/'}${raw}`;
   }
 
-  const resp = await fetch(target, { cache: 'no-store' });
-  const body = await resp.arrayBuffer();
-  return new Response(body, {
+  // 조건부/Range 요청 헤더 패스스루 → 백엔드가 304/206 으로 응답할 수 있게
+  const headers: Record<string, string> = {};
+  for (const h of ['if-none-match', 'if-modified-since', 'range', 'if-range']) {
+    const v = req.headers.get(h);
+    if (v) headers[h] = v;
+  }
+
+  const resp = await fetch(target, { headers, cache: 'no-store' });
+
+  // SOP 인스턴스는 불변 → 백엔드의 ETag/Cache-Control 을 그대로 전달하고 바디는 스트리밍
+  const out = new Headers({
+    'content-type': resp.headers.get('content-type') || 'application/dicom',
+    'cache-control': resp.headers.get('cache-control') || 'no-store',
+  });
+  for (const h of ['etag', 'last-modified', 'content-length', 'content-range', 'accept-ranges']) {
+    const v = resp.headers.get(h);
+    if (v) out.set(h, v);
+  }
+  return new Response(resp.status === 304 ? null : resp.body, {
     status: resp.status,
-    headers: {
-      'content-type': resp.headers.get('content-type') || 'application/dicom',
-      'cache-control': 'no-store',
-    },
+    headers: out,
   });
 }
-
-
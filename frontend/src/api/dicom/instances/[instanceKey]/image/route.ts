@@ -5,7 +5,9 @@
 
 import { NextRequest, NextResponse } from 'next/server';
 
-// Mock DICOM 이미지 데이터 (실제로는 DICOM 파일에서 이미지 추출)
+const BACKEND = process.env.BACKEND_API_BASE;
+
+// 백엔드가 설정되어 있으면 서버 렌더링(/rendered) 결과를 그대로 전달, 아니면 Mock 이미지
 export async function GET(
   request: NextRequest,
   { params }: { params: Promise<{ instanceKey: string }> }
@@ -20,7 +22,23 @@ export async function GET(
       );
     }
 
-    // Mock 이미지 생성 (실제로는 DICOM 파일에서 픽셀 데이터 추출)
+    if (BACKEND) {
+      // instanceKey = SOP Instance UID, window/viewport/quality 쿼리는 그대로 전달
+      const { search } = new URL(request.url);
+      const resp = await fetch(
+        `${BACKEND}/api/dicom/instances/${encodeURIComponent(instanceKey)}/rendered${search}`,
+        { headers: { accept: request.headers.get('accept')?.includes('image/png') ? 'image/png' : 'image/jpeg' } }
+      );
+      return new NextResponse(resp.body, {
+        status: resp.status,
+        headers: {
+          'Content-Type': resp.headers.get('content-type') || 'image/jpeg',
+          'Cache-Control': resp.headers.get('cache-control') || 'public, max-age=3600',
+        },
+      });
+    }
+
+    // Mock 이미지 생성 (BACKEND_API_BASE 미설정 시)
     const imageBuffer = await generateMockDicomImage(instanceKey);
 
     return new NextResponse(imageBuffer, {
@@ -56,6 +56,9 @@ export async function GET(
     if (auth) headers["Authorization"] = auth;
     const cookie = req.headers.get("cookie");
     if (cookie) headers["Cookie"] = cookie;
+    // 조건부 요청 패스스루 (백엔드가 ETag 로 304 응답)
+    const ifNoneMatch = req.headers.get("if-none-match");
+    if (ifNoneMatch) headers["If-None-Match"] = ifNoneMatch;
 
     // (선택) 포워드 관련 헤더
     const xfwdFor = req.headers.get("x-forwarded-for");
@@ -72,7 +75,7 @@ export async function GET(
     });
 
     // 바디/헤더/상태 그대로 전달
-    const body = await backendResp.arrayBuffer();
+    const body = backendResp.status === 304 ? null : await backendResp.arrayBuffer();
     const out = new NextResponse(body, { status: backendResp.status });
 
     // 원본 헤더 전달(불필요/문제되는 헤더는 제외)
@@ -82,8 +85,10 @@ export async function GET(
         out.headers.set(key, value);
     });
 
-    // 개발 편의를 위한 캐시 방지
-    out.headers.set("Cache-Control", "no-store");
+    // 백엔드 Cache-Control(no-cache + ETag 재검증) 유지, 없을 때만 캐시 방지
+    if (!backendResp.headers.has("cache-control")) {
+        out.headers.set("Cache-Control", "no-store");
+    }
 
     return out;
 }
@@ -5,7 +5,7 @@
 import { NextRequest } from 'next/server';
 
 const BACKEND = process.env.BACKEND_API_BASE;
-const DICOMWEB_PATH = process.env.DICOMWEB_PATH ?? '/dicomweb';
+const DICOMWEB_PATH = process.env.DICOMWEB_PATH ?? '/api/dicom';
 
 function buildBackendUrl(req: NextRequest) {
   if (!BACKEND) throw new Error('BACKEND_API_BASE env missing');
@@ -27,15 +27,16 @@ async function forward(req: NextRequest) {
   };
 
   const resp = await fetch(target, init);
-  const body = await resp.arrayBuffer();
-
-  return new Response(body, {
-    status: resp.status,
-    headers: {
-      'content-type': resp.headers.get('content-type') || 'application/octet-stream',
-      'cache-control': 'no-store',
-    },
+
+  // 프레임은 수백 KB~수 MB - 버퍼링하지 않고 그대로 흘려보냄
+  const headers = new Headers({
+    'content-type': resp.headers.get('content-type') || 'application/octet-stream',
+    'cache-control': resp.headers.get('cache-control') || 'no-store',
   });
+  const length = resp.headers.get('content-length');
+  if (length) headers.set('content-length', length);
+
+  return new Response(resp.body, { status: resp.status, headers });
 }
 
 export async function GET(req: NextRequest) {
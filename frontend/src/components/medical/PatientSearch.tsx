@@ -1,7 +1,7 @@
 "use client"
 
 import type React from "react"
-import { useState, useEffect } from "react"
+import { useState, useEffect, useRef } from "react"
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card"
 import { Input } from "@/components/ui/input"
 import { Button } from "@/components/ui/button"
@@ -9,7 +9,7 @@ import { Badge } from "@/components/ui/badge"
 import { PatientCard } from "./PatientCard"
 import { Search, Filter, X, Code } from "lucide-react"
 import type { ModalityType, Patient, StudySummaryDto } from "@/types/medical.types"
-import { useDicomStudySearch } from "@/hooks/useDicomStudySearch"
+import { useDicomStudyScroll } from "@/hooks/useDicomStudyScroll"
 
 const modalityOptions: ModalityType[] = ["CT", "MRI", "X-Ray", "US", "PET", "SPECT"]
 
@@ -27,13 +27,25 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
         searchCondition,
         setCondition,
         setModalityCondition,
-        searchResults,
+        items,
+        hasMore,
         isLoading,
         error,
-        currentPage,
-        handlePageChange,
+        loadMore,
         refetch, // ← 이걸 명시적으로 호출해야 실제 요청이 나감
-    } = useDicomStudySearch({ debounceTime: 400, initialSize: 5 })
+    } = useDicomStudyScroll({ debounceTime: 400, pageSize: 20 })
+
+    // 목록 끝 감시 → 다음 커서 페이지 (무한 스크롤)
+    const sentinelRef = useRef<HTMLDivElement | null>(null)
+    useEffect(() => {
+        const el = sentinelRef.current
+        if (!el || !hasMore) return
+        const observer = new IntersectionObserver((entries) => {
+            if (entries.some((e) => e.isIntersecting)) loadMore()
+        }, { rootMargin: "200px" })
+        observer.observe(el)
+        return () => observer.disconnect()
+    }, [hasMore, loadMore])
 
     // UI 상태
     const [localPid, setLocalPid] = useState(searchCondition.pid || "")
@@ -149,8 +161,8 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
         localAccession.trim() !== "" ||
         selectedModalities.length > 0
 
-    const totalPages = searchResults?.page?.totalPages ?? 0
-    const totalElements = searchResults?.page?.totalElements ?? 0
+    const loadedCount = items.length
+    const isFirstLoad = isLoading && loadedCount === 0
 
     return (
         <div className="space-y-6">
@@ -177,7 +189,7 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                                 필터
                             </Button>
 
-                            {searchResults && (
+                            {loadedCount > 0 && (
                                 <Button
                                     variant="outline"
                                     size="sm"
@@ -258,14 +270,14 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                     {/* 요약 */}
                     {hasActiveFilters && (
                         <div className="text-sm text-gray-400">
-                            {totalElements}개의 검색 결과
+                            {loadedCount}개{hasMore ? "+" : ""}의 검색 결과
                             {selectedModalities.length > 0 && ` (${selectedModalities.join(", ")} 모달리티)`}
                         </div>
                     )}
                 </CardContent>
             </Card>
 
-            {showJsonData && searchResults && (
+            {showJsonData && loadedCount > 0 && (
                 <Card className="bg-gray-900 border-gray-600">
                     <CardHeader>
                         <CardTitle className="text-sm text-gray-300 flex items-center gap-2">
@@ -275,10 +287,10 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                     </CardHeader>
                     <CardContent>
             <pre className="text-xs text-gray-300 bg-black p-4 rounded-lg overflow-auto max-h-96 whitespace-pre-wrap">
-              {JSON.stringify(searchResults, null, 2)}
+              {JSON.stringify(items, null, 2)}
             </pre>
                         <div className="mt-2 text-xs text-gray-500">
-                            총 {searchResults.content?.length || 0}개 항목 표시 중 (전체: {totalElements}개)
+                            총 {loadedCount}개 항목 표시 중{hasMore ? " (스크롤하면 더 불러옴)" : ""}
                         </div>
                     </CardContent>
                 </Card>
@@ -286,7 +298,7 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
 
             {/* 결과 영역 */}
             <div>
-                {isLoading && (
+                {isFirstLoad && (
                     <div className="text-center py-12 text-gray-400">
                         <Search className="h-12 w-12 text-gray-600 mx-auto mb-4 animate-bounce" />
                         <h3 className="text-lg font-medium">검색 중...</h3>
@@ -302,15 +314,15 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                     </div>
                 )}
 
-                {!isLoading && !error && (
+                {!isFirstLoad && !error && (
                     <>
-                        {(!searchResults || totalElements === 0) && !hasActiveFilters ? (
+                        {loadedCount === 0 && !hasActiveFilters ? (
                             <div className="text-center py-12">
                                 <Search className="h-12 w-12 text-gray-600 mx-auto mb-4" />
                                 <h3 className="text-lg font-medium text-gray-400 mb-2">환자 및 검사 검색</h3>
                                 <p className="text-gray-500">조건 입력 후 Enter 또는 ‘검색’을 누르세요.</p>
                             </div>
-                        ) : (!searchResults || totalElements === 0) && hasActiveFilters ? (
+                        ) : loadedCount === 0 && hasActiveFilters ? (
                             <div className="text-center py-12">
                                 <Search className="h-12 w-12 text-gray-600 mx-auto mb-4" />
                                 <h3 className="text-lg font-medium text-gray-400 mb-2">검색 결과 없음</h3>
@@ -319,7 +331,7 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                         ) : (
                             <>
                                 <div className="grid gap-4">
-                                    {searchResults?.content.map((study) => (
+                                    {items.map((study) => (
                                         <PatientCard
                                             key={study.studyKey}
                                             patient={createPatientFromStudy(study)}
@@ -329,27 +341,9 @@ export const PatientSearch: React.FC<PatientSearchProps> = ({ onPatientSelect })
                                     ))}
                                 </div>
 
-                                {totalPages > 1 && (
-                                    <div className="flex justify-center items-center mt-6 space-x-2">
-                                        <Button
-                                            onClick={() => handlePageChange(currentPage - 1)}
-                                            disabled={currentPage === 0 || isLoading}
-                                            variant="outline"
-                                            className="bg-gray-600 text-white hover:bg-gray-500 disabled:opacity-50"
-                                        >
-                                            이전
-                                        </Button>
-                                        <span className="text-white">
-                      {currentPage + 1} / {totalPages}
-                    </span>
-                                        <Button
-                                            onClick={() => handlePageChange(currentPage + 1)}
-                                            disabled={currentPage >= totalPages - 1 || isLoading}
-                                            variant="outline"
-                                            className="bg-gray-600 text-white hover:bg-gray-500 disabled:opacity-50"
-                                        >
-                                            다음
-                                        </Button>
+                                {hasMore && (
+                                    <div ref={sentinelRef} className="text-center py-6 text-gray-500 text-sm">
+                                        {isLoading ? "불러오는 중..." : ""}
                                     </div>
                                 )}
                             </>
@@ -0,0 +1,140 @@
+// src/hooks/useDicomStudyScroll.ts
+"use client"
+import { useState, useEffect, useCallback, useRef } from "react"
+import { apiClient } from "@/lib/api"
+import type { StudySummaryDto, ModalityType } from "@/types/medical.types"
+
+interface StudySearchCondition {
+    pid?: string
+    pname?: string
+    accession?: string
+    studyDesc?: string
+    modality?: string // "CT,MRI"
+    bodyPart?: string
+    fromDate?: string
+    toDate?: string
+}
+
+// 한글(완성형 또는 자모)이 섞인 이름 검색은 서버의 초성/자모 색인(mode=name)으로 - 일치도 순 한 페이지
+const HANGUL = /[\u3131-\u318E\uAC00-\uD7A3]/
+const NAME_MODE_SIZE = 50
+
+interface DicomScrollOptions {
+    initialCondition?: StudySearchCondition
+    pageSize?: number
+    debounceTime?: number
+}
+
+/**
+ * 커서 기반 스터디 검색 (무한 스크롤).
+ * 조건이 바뀌면 처음부터 다시, loadMore() 는 마지막 응답의 nextCursor 로 다음 페이지를 이어 붙인다.
+ * 서버는 count/OFFSET 없이 keyset 으로 읽으므로 몇 페이지를 내려가도 페이지당 비용이 같다.
+ */
+export const useDicomStudyScroll = (options?: DicomScrollOptions) => {
+    const { initialCondition = {}, pageSize = 20, debounceTime = 400 } = options || {}
+
+    const [searchCondition, setSearchCondition] = useState<StudySearchCondition>(initialCondition)
+    const [items, setItems] = useState<StudySummaryDto[]>([])
+    const [nextCursor, setNextCursor] = useState<string | null>(null)
+    const [hasMore, setHasMore] = useState<boolean>(false)
+    const [isLoading, setIsLoading] = useState<boolean>(false)
+    const [error, setError] = useState<string | null>(null)
+    const [triggerSearch, setTriggerSearch] = useState<number>(0) // 수동 트리거 카운터
+
+    // 조건이 바뀐 뒤 도착한 이전 검색 응답은 버림
+    const generation = useRef(0)
+    const loadingMore = useRef(false)
+
+    const hasValidSearchCondition = useCallback((condition: StudySearchCondition) => {
+        return Object.values(condition).some((v) => typeof v === "string" && v.trim() !== "")
+    }, [])
+
+    const fetchFirst = useCallback(
+        async (condition: StudySearchCondition) => {
+            const gen = ++generation.current
+            if (!hasValidSearchCondition(condition)) {
+                setItems([])
+                setNextCursor(null)
+                setHasMore(false)
+                return
+            }
+            setIsLoading(true)
+            setError(null)
+            try {
+                if (condition.pname && HANGUL.test(condition.pname)) {
+                    const page = await apiClient.searchDicomStudiesByName(condition, 0, NAME_MODE_SIZE)
+                    if (gen !== generation.current) return
+                    setItems(page.content)
+                    setNextCursor(null)
+                    setHasMore(false)
+                    return
+                }
+                const slice = await apiClient.scrollDicomStudies(condition, null, pageSize)
+                if (gen !== generation.current) return
+                setItems(slice.content)
+                setNextCursor(slice.nextCursor)
+                setHasMore(slice.hasNext)
+            } catch (err) {
+                console.error("[Hook] scroll fetch error", err)
+                if (gen === generation.current) setError("DICOM 스터디 검색 결과를 불러오는 데 실패했습니다.")
+            } finally {
+                if (gen === generation.current) setIsLoading(false)
+            }
+        },
+        [hasValidSearchCondition, pageSize],
+    )
+
+    useEffect(() => {
+        const handler = setTimeout(() => {
+            fetchFirst(searchCondition)
+        }, debounceTime)
+        return () => clearTimeout(handler)
+    }, [searchCondition, debounceTime, fetchFirst, triggerSearch])
+
+    const loadMore = useCallback(async () => {
+        if (!hasMore || !nextCursor || loadingMore.current) return
+        loadingMore.current = true
+        const gen = generation.current
+        setIsLoading(true)
+        try {
+            const slice = await apiClient.scrollDicomStudies(searchCondition, nextCursor, pageSize)
+            if (gen !== generation.current) return
+            setItems((prev) => [...prev, ...slice.content])
+            setNextCursor(slice.nextCursor)
+            setHasMore(slice.hasNext)
+        } catch (err) {
+            console.error("[Hook] scroll loadMore error", err)
+            if (gen === generation.current) setError("다음 검색 결과를 불러오는 데 실패했습니다.")
+        } finally {
+            loadingMore.current = false
+            if (gen === generation.current) setIsLoading(false)
+        }
+    }, [hasMore, nextCursor, searchCondition, pageSize])
+
+    const setCondition = useCallback((key: keyof StudySearchCondition, value: string | undefined) => {
+        setSearchCondition((prev) => ({ ...prev, [key]: value ? value : undefined }))
+    }, [])
+
+    const setModalityCondition = useCallback(
+        (modalities: ModalityType[]) => {
+            setCondition("modality", modalities.length > 0 ? modalities.join(",") : undefined)
+        },
+        [setCondition],
+    )
+
+    const refetch = useCallback(() => {
+        setTriggerSearch((prev) => prev + 1)
+    }, [])
+
+    return {
+        searchCondition,
+        setCondition,
+        setModalityCondition,
+        items,
+        hasMore,
+        isLoading,
+        error,
+        loadMore,
+        refetch,
+    }
+}
@@ -1,7 +1,7 @@
 // src/lib/api.ts
 "use client"
 import axios, { type AxiosError, type AxiosRequestConfig } from "axios"
-import type { PagedResponse, StudySummaryDto, AuthResponse } from "@/types/medical.types"
+import type { PagedResponse, StudySlice, StudySummaryDto, AuthResponse } from "@/types/medical.types"
 
 const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080"
 
@@ -197,6 +197,47 @@ class ApiClient {
         })
         return res.data
     }
+
+    // 커서 기반 검색 (무한 스크롤용) - cursor 없으면 첫 페이지
+    public async scrollDicomStudies(
+        params: {
+            pid?: string
+            pname?: string
+            accession?: string
+            studyDesc?: string
+            modality?: string
+            bodyPart?: string
+            fromDate?: string
+            toDate?: string
+        },
+        cursor?: string | null,
+        size = 20,
+    ): Promise<StudySlice<StudySummaryDto>> {
+        const res = await this.axiosInstance.get<StudySlice<StudySummaryDto>>("/api/dicom/query", {
+            params: { ...params, mode: "cursor", size, ...(cursor ? { cursor } : {}) },
+        })
+        return res.data
+    }
+    // 환자명 초성/자모 검색 ("ㅎㄱㄷ", "홍기") - 일치도 순
+    public async searchDicomStudiesByName(
+        params: {
+            pid?: string
+            pname?: string
+            accession?: string
+            studyDesc?: string
+            modality?: string
+            bodyPart?: string
+            fromDate?: string
+            toDate?: string
+        },
+        page = 0,
+        size = 50,
+    ): Promise<PagedResponse<StudySummaryDto>> {
+        const res = await this.axiosInstance.get<PagedResponse<StudySummaryDto>>("/api/dicom/query", {
+            params: { ...params, mode: "name", page, size },
+        })
+        return res.data
+    }
     // ✅ studyKey로 manifest 조회 (백엔드 엔드포인트에 맞게 경로 조정)
     async getStudyManifest(studyKey: number, onProgress?: (p: number) => void) {
         const res = await this.axiosInstance.get(`/api/studies/${studyKey}/manifest`, {
@@ -224,6 +224,14 @@ export interface PagedResponse<T> {
     // 기타 페이징 정보 (필요시 추가)
 }
 
+// 커서 기반 검색 응답 (/api/dicom/query?mode=cursor) - 전체 건수 없음
+export interface StudySlice<T> {
+    content: T[];
+    size: number;
+    hasNext: boolean;
+    nextCursor: string | null; // 다음 요청에 그대로 전달 (내용은 해석하지 않음)
+}
+
 export interface AuthResponse {
     accessToken: string
     refreshToken: string
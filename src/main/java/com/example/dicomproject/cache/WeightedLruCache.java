@@ -0,0 +1,70 @@
+package com.example.dicomproject.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 무게(보통 바이트 수) 합계로 크기를 제한하는 LRU 캐시.
+ * 한 항목이 한도를 넘으면 저장하지 않는다. 모든 연산은 인스턴스 락으로 직렬화된다.
+ */
+public class WeightedLruCache<K, V> {
+
+    public record Stats(String name, long entries, long weight, long maxWeight,
+                        long hits, long misses, long evictions) {
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public WeightedLruCache(String name, long maxWeight, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        V v = map.get(key);
+        if (v == null) misses++;
+        else hits++;
+        return v;
+    }
+
+    public synchronized void put(K key, V value) {
+        long w = weigher.applyAsLong(value);
+        if (w > maxWeight) return;
+        V old = map.put(key, value);
+        if (old != null) weight -= weigher.applyAsLong(old);
+        weight += w;
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            weight -= weigher.applyAsLong(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        V old = map.remove(key);
+        if (old != null) weight -= weigher.applyAsLong(old);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, map.size(), weight, maxWeight, hits, misses, evictions);
+    }
+}
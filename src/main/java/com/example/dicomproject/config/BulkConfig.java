@@ -0,0 +1,16 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.bulk")
+public class BulkConfig {
+    private int ioThreads = 8;                              // 선읽기용 전역 스레드 수
+    private int readAhead = 4;                              // 현재 파일 뒤로 미리 열어 둘 파일 수
+    private long readAheadBytes = 64L * 1024 * 1024;        // 선읽기 버퍼 전체 한도
+    private long maxBufferedFileBytes = 16L * 1024 * 1024;  // 이보다 큰 파일은 버퍼링 없이 스트리밍
+    private int zipLevel = 0;                               // 0 = 무압축(DICOM은 압축 이득이 적고 CPU만 씀)
+}
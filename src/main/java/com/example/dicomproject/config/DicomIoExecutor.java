@@ -0,0 +1,157 @@
+package com.example.dicomproject.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMB 에 묶이는 요청(파일/프레임/메타데이터/렌더링)을 처리하는 전용 실행기.
+ * Tomcat 워커는 요청을 넘기고 바로 반환되므로 NAS 지연이 검색/인증 요청의 스레드를 잡아먹지 않는다.
+ * 한도를 넘는 요청은 RejectedExecutionException → 503.
+ *
+ * 갈래 두 개:
+ * - io: 컨트롤러 Callable (메타 조회, stat, 헤더/프레임 인덱스). task(...) 로 감싸서 이 풀을 지정한다.
+ * - body: StreamingResponseBody 전송 (WebAsyncConfig 기본 실행기).
+ * Callable 이 돌려준 바디는 두 번째 작업으로 제출되므로, 한 풀을 같이 쓰면 요청 하나가 두 칸을 차지한다.
+ * 바디 제출이 거절되면 바디는 실행되지 않으므로 파일 핸들은 Callable 이 아니라 바디 안에서 연다.
+ *
+ * Executor 타입 빈으로 등록하지 않는 이유: Boot 기본 applicationTaskExecutor 를 대체하지 않기 위해.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DicomIoExecutor {
+
+    public record LaneStats(String mode, int threads, int active, int queued, int queueCapacity,
+                            long submitted, long completed, long rejected) {
+    }
+
+    public record Stats(LaneStats io, LaneStats body) {
+    }
+
+    private final IoExecutorConfig config;
+
+    private ExecutorService virtual;     // 가상 스레드 모드 (두 갈래 공용, 한도는 갈래별 세마포어)
+    private Lane io;
+    private Lane body;
+
+    @PostConstruct
+    void init() {
+        virtual = config.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+        io = new Lane("dicom-io", config.getThreads(), config.getQueueCapacity(), config.getMaxConcurrent());
+        body = new Lane("dicom-body", config.getBodyThreads(), config.getBodyQueueCapacity(),
+                config.getBodyMaxConcurrent());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (virtual != null) virtual.shutdownNow();
+        io.shutdown();
+        body.shutdown();
+    }
+
+    /** Callable 을 io 갈래에서 실행 (Spring 기본 실행기는 body 갈래) */
+    public <T> WebAsyncTask<T> task(Callable<T> callable) {
+        return new WebAsyncTask<>(config.getAsyncTimeoutMs(), io.taskExecutor, callable);
+    }
+
+    /** StreamingResponseBody 기본 실행기 */
+    public AsyncTaskExecutor bodyExecutor() {
+        return body.taskExecutor;
+    }
+
+    public long asyncTimeoutMs() {
+        return config.getAsyncTimeoutMs();
+    }
+
+    public Stats stats() {
+        return new Stats(io.stats(), body.stats());
+    }
+
+    /** 풀(또는 가상 스레드 세마포어) 하나와 카운터 */
+    private final class Lane {
+        final ThreadPoolExecutor pool;   // 플랫폼 스레드 모드
+        final Semaphore permits;         // 가상 스레드 모드
+        final int queueCapacity;
+        final AsyncTaskExecutor taskExecutor = new TaskExecutorAdapter(this::execute);
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+
+        Lane(String name, int threads, int queueCapacity, int maxConcurrent) {
+            this.queueCapacity = queueCapacity;
+            if (virtual != null) {
+                pool = null;
+                permits = new Semaphore(maxConcurrent);
+            } else {
+                AtomicInteger seq = new AtomicInteger();
+                pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+                pool.allowCoreThreadTimeOut(true);
+                permits = null;
+            }
+        }
+
+        void shutdown() {
+            if (pool != null) pool.shutdownNow();
+        }
+
+        LaneStats stats() {
+            return pool != null
+                    ? new LaneStats("platform", pool.getPoolSize(), active.get(), pool.getQueue().size(),
+                    queueCapacity, submitted.get(), completed.get(), rejected.get())
+                    : new LaneStats("virtual", active.get(), active.get(), 0,
+                    0, submitted.get(), completed.get(), rejected.get());
+        }
+
+        void execute(Runnable task) {
+            if (permits != null && !permits.tryAcquire()) {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("dicom-io 동시 실행 한도 초과");
+            }
+            Runnable wrapped = () -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                    if (permits != null) permits.release();
+                }
+            };
+            try {
+                (pool != null ? pool : virtual).execute(wrapped);
+                submitted.incrementAndGet();
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                if (permits != null) permits.release();
+                throw e;
+            }
+        }
+    }
+
+    /** Java 21+ 이면 가상 스레드 실행기, 아니면 null (툴체인이 17이라 리플렉션으로 조회) */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("가상 스레드를 지원하지 않는 런타임 ({}), 플랫폼 스레드 풀 사용", Runtime.version());
+            return null;
+        }
+    }
+}
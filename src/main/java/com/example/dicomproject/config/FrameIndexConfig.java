@@ -0,0 +1,14 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.frame-index")
+public class FrameIndexConfig {
+    private boolean persist = true;          // 디스크에 인덱스 파일 저장 (재시작 후 재파싱 생략)
+    private String dir = System.getProperty("java.io.tmpdir") + "/dicom-frame-index";
+    private int memoryEntries = 20000;       // 메모리 LRU 인스턴스 수
+}
@@ -0,0 +1,19 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.io")
+public class IoExecutorConfig {
+    private int threads = 32;                // SMB 읽기/스트리밍 전용 스레드 수 (Tomcat 워커와 별도)
+    private int queueCapacity = 200;         // 대기 한도, 넘치면 503
+    private boolean virtualThreads = false;  // Java 21+ 런타임에서만 적용 (아니면 플랫폼 스레드로 대체)
+    private int maxConcurrent = 256;         // 가상 스레드 모드의 동시 실행 한도
+    private long asyncTimeoutMs = 600_000;   // 비동기 요청 타임아웃 (대용량 전송 고려)
+    private int bodyThreads = 32;            // 응답 바디(StreamingResponseBody) 전송 스레드 수 - Callable 풀과 별도
+    private int bodyQueueCapacity = 200;     // 바디 대기 한도, 넘치면 503
+    private int bodyMaxConcurrent = 256;     // 가상 스레드 모드의 바디 동시 전송 한도
+}
@@ -0,0 +1,13 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.location-index")
+public class LocationIndexConfig {
+    private boolean enabled = true;
+    private int maxEntries = 500_000;   // SOP UID → 저장 위치 항목 수 한도 (세대 둘을 합친 값)
+}
@@ -0,0 +1,16 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.manifest")
+public class ManifestConfig {
+    private boolean enabled = true;
+    private long cacheMaxBytes = 64L * 1024 * 1024;  // 스터디별 매니페스트 JSON 캐시 한도
+    private long revalidateMs = 1000;                 // 캐시 적중 시 STUDYTAB 건수 재확인 간격 (0 = 매 요청)
+    private int streamMinInstances = 5000;            // IMAGECNT 가 이 이상이면 캐시 없이 바로 스트리밍
+    private int fetchSize = 1000;                     // study⟕series⟕image 조회 fetch 크기
+}
@@ -0,0 +1,13 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.metadata")
+public class MetadataConfig {
+    private long cacheMaxBytes = 64L * 1024 * 1024;  // 인스턴스별 DICOM JSON 캐시 한도
+    private int ioThreads = 8;                        // 시리즈 헤더 병렬 읽기 스레드 수
+}
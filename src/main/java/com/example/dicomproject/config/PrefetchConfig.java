@@ -0,0 +1,15 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.prefetch")
+public class PrefetchConfig {
+    private boolean enabled = true;
+    private int globalConcurrency = 8;    // 전체 동시 SMB 읽기 수 (스레드 풀 크기)
+    private int perStudyConcurrency = 4;  // 한 스터디가 동시에 쓸 수 있는 워커 수
+    private int queueCapacity = 256;      // 대기 워커 한도 (넘치면 해당 워커는 버림)
+}
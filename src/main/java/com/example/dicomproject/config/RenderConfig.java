@@ -0,0 +1,14 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.render")
+public class RenderConfig {
+    private long cacheMaxBytes = 128L * 1024 * 1024;  // 인코딩된 PNG/JPEG 캐시 한도
+    private int maxViewport = 2048;                    // 요청 가능한 최대 가로/세로
+    private int defaultJpegQuality = 90;
+}
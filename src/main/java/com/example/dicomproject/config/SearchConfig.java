@@ -0,0 +1,67 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.search")
+public class SearchConfig {
+
+    private Count count = new Count();
+    private Index index = new Index();
+    private Name name = new Name();
+    private Cache cache = new Cache();
+
+    /** Page 모드 전체 건수 전략 */
+    @Data
+    public static class Count {
+        private long cacheTtlMs = 60_000;       // 검색 조건별 건수 캐시 유지 시간
+        private int cacheEntries = 10_000;
+        private int exactMaxDays = 92;          // 환자/접수번호 조건 없이 이 기간 이하면 정확한 count
+        private double samplePercent = 1.0;     // 넓은 조건은 STUDYTAB SAMPLE BLOCK(%) 로 추정
+        private long minSampleRows = 50;        // 표본 일치 행이 이보다 적으면 추정이 부정확 → 정확한 count
+    }
+
+    /** 검색어(pid/이름, 접수번호, 검사 설명) 메모리 trigram 색인 */
+    @Data
+    public static class Index {
+        private boolean enabled = true;
+        private long refreshMs = 30_000;                  // 최근 검사 색인을 다시 만드는 주기
+        private long rescanKeys = 20_000;                 // 전체 재구성 시점 최대 STUDYKEY 아래로 다시 읽는 구간 (늦은 커밋 반영)
+        private long rebuildIntervalMs = 6 * 3_600_000L;  // 전체 재구성 주기 (base 에 남은 수정 전 값 정리)
+        /**
+         * rescan 구간보다 오래된 검사의 수정(환자 개명/병합, 접수번호/설명 정정) 추적.
+         * (STUDYKEY, CHANGE_SEQ) 중 CHANGE_SEQ > ? 인 행 - CHANGE_SEQ 는 커밋 순으로 커지는 값.
+         * 기본은 ORA_ROWSCN (블록 단위 SCN 상한이라 실제 변경보다 넓게 잡힌다).
+         * 비우면 추적하지 않고, q(pid/이름)는 색인으로 좁히지 않는다.
+         */
+        private String changesSql = "select s.STUDYKEY, greatest(s.ORA_ROWSCN, nvl(p.ORA_ROWSCN, 0)) CHANGE_SEQ"
+                + " from STUDYTAB s left join PATIENTTAB p on p.PID = s.PID"
+                + " where greatest(s.ORA_ROWSCN, nvl(p.ORA_ROWSCN, 0)) > ?";
+        private long changesMs = 300_000;                 // 변경 추적 주기 (두 테이블 전체를 읽으므로 refresh 보다 길게)
+        private int maxCandidates = 5_000;                // 후보가 이보다 많으면 색인을 쓰지 않고 DB 검색
+        private int fetchSize = 5_000;
+    }
+
+    /** 환자명 초성/자모 검색 (갱신 주기는 index 설정을 따름) */
+    @Data
+    public static class Name {
+        private boolean enabled = true;
+        private int maxPatients = 200;      // 점수 상위 몇 명의 검사까지 가져올지
+    }
+
+    /** 검색 결과 캐시 - 로컬 L1 + Redis L2, 변경 마커 poll 로 무효화 */
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private long l1MaxBytes = 32L * 1024 * 1024;
+        private long l1TtlMs = 15_000;
+        private boolean l2Enabled = true;
+        private long l2TtlMs = 60_000;
+        private long pollMs = 5_000;
+        private String markerSql = "select max(STUDYKEY) from STUDYTAB";  // 값이 바뀌면 캐시 세대 교체
+        private long maxStaleMs = 60_000;   // 마커를 이 시간 넘게 못 읽으면 캐시 우회
+    }
+}
@@ -12,4 +12,14 @@ public class SmbConfig {
     private String username;
     private String password;
     private String basePath; // e.g. smb://210.94.241.9/sts/
-}
\ No newline at end of file
+
+    // --- 연결/세션 재사용 관련 (공유 CIFSContext 설정) ---
+    private int maxOpenFilesPerServer = 64;     // 서버당 동시에 열 수 있는 파일 핸들 수
+    private long acquireTimeoutMs = 30_000;     // 핸들 슬롯 대기 한도
+    private int maxMpxCount = 50;               // 한 커넥션에서 동시에 진행할 요청 수
+    private int connectTimeoutMs = 10_000;
+    private int responseTimeoutMs = 30_000;
+    private int soTimeoutMs = 35_000;
+    private int sessionTimeoutMs = 600_000;     // 유휴 세션/트리 유지 시간
+    private int attrCacheMs = 5_000;            // 파일 속성(크기/수정시각) 캐시 시간
+}
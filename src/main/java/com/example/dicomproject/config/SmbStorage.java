@@ -1,38 +1,201 @@
 package com.example.dicomproject.config;
 
+import com.example.dicomproject.storage.FileStat;
+import com.example.dicomproject.storage.RandomReadable;
+import com.example.dicomproject.storage.StorageBackend;
+import com.example.dicomproject.storage.StoredFile;
+import jakarta.annotation.PreDestroy;
 import jcifs.CIFSContext;
-import jcifs.context.SingletonContext;
+import jcifs.CIFSException;
+import jcifs.config.PropertyConfiguration;
+import jcifs.context.BaseContext;
+import jcifs.smb.NtStatus;
 import jcifs.smb.NtlmPasswordAuthenticator;
+import jcifs.smb.SmbException;
 import jcifs.smb.SmbFile;
-import jcifs.smb.SmbFileInputStream;
+import jcifs.smb.SmbRandomAccessFile;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 
+/**
+ * SMB 접근 계층 (StorageBackend 기본 구현).
+ * - 인증된 CIFSContext 하나를 애플리케이션 전체에서 공유 → 커넥션/세션/트리(share) 연결이 재사용됨
+ * - 서버별 동시 오픈 핸들 수 제한
+ * - openFile(): 한 번의 SmbFile 조회로 스트림 + 크기를 함께 반환
+ * - openRandomAccess(): Range 요청용 seek 가능한 핸들
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
-public class SmbStorage {
+public class SmbStorage implements StorageBackend {
 
     private final SmbConfig config;
 
-    private CIFSContext ctx() {
+    private volatile CIFSContext context;
+    private final Map<String, Semaphore> serverSlots = new ConcurrentHashMap<>();
+
+    private CIFSContext ctx() throws CIFSException {
+        CIFSContext c = context;
+        if (c == null) {
+            synchronized (this) {
+                c = context;
+                if (c == null) {
+                    c = context = createContext();
+                }
+            }
+        }
+        return c;
+    }
+
+    private CIFSContext createContext() throws CIFSException {
+        Properties p = new Properties();
+        p.setProperty("jcifs.smb.client.maxMpxCount", String.valueOf(config.getMaxMpxCount()));
+        p.setProperty("jcifs.smb.client.connTimeout", String.valueOf(config.getConnectTimeoutMs()));
+        p.setProperty("jcifs.smb.client.responseTimeout", String.valueOf(config.getResponseTimeoutMs()));
+        p.setProperty("jcifs.smb.client.soTimeout", String.valueOf(config.getSoTimeoutMs()));
+        p.setProperty("jcifs.smb.client.sessionTimeout", String.valueOf(config.getSessionTimeoutMs()));
+        p.setProperty("jcifs.smb.client.attrExpirationPeriod", String.valueOf(config.getAttrCacheMs()));
+
         var domain = config.getDomain() == null ? "" : config.getDomain();
-        return SingletonContext.getInstance()
+        return new BaseContext(new PropertyConfiguration(p))
                 .withCredentials(new NtlmPasswordAuthenticator(domain, config.getUsername(), config.getPassword()));
     }
 
-    public InputStream open(String relativePath) throws IOException {
+    @PreDestroy
+    public void shutdown() {
+        CIFSContext c = context;
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (CIFSException e) {
+            log.warn("CIFSContext close 실패", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "smb:" + config.getBasePath();
+    }
+
+    /**
+     * stat + open 을 한 번의 조회로 처리.
+     * open(Create) 응답에 크기/수정시각이 포함되어 SmbFile에 캐시되므로 length() 추가 왕복이 없다.
+     */
+    @Override
+    public StoredFile openFile(String relativePath) throws IOException {
         String url = normalize(config.getBasePath(), relativePath);
-        SmbFile file = new SmbFile(url, ctx());
-        return new SmbFileInputStream(file);
+        Semaphore slot = acquireSlot(url);
+        SmbFile file = null;
+        try {
+            file = new SmbFile(url, ctx());
+            InputStream in = file.getInputStream();
+            long length = file.length();
+            long lastModified = file.lastModified();
+            return new StoredFile(new SlotReleasingInputStream(in, file, slot), length, lastModified, null);
+        } catch (IOException | RuntimeException e) {
+            if (file != null) file.close();
+            slot.release();
+            if (e instanceof SmbException se) throw translate(se, url);
+            throw e;
+        }
     }
 
+    /** Range 요청용 임의 접근 핸들 - 요청 오프셋으로 바로 seek 해서 읽음 */
+    @Override
+    public RandomReadable openRandomAccess(String relativePath) throws IOException {
+        String url = normalize(config.getBasePath(), relativePath);
+        Semaphore slot = acquireSlot(url);
+        SmbFile file = null;
+        try {
+            file = new SmbFile(url, ctx());
+            SmbRandomAccessFile raf = new SmbRandomAccessFile(file, "r");
+            return new SmbRandomReadable(file, raf, slot, raf.length(), file.lastModified());
+        } catch (IOException | RuntimeException e) {
+            if (file != null) file.close();
+            slot.release();
+            if (e instanceof SmbException se) throw translate(se, url);
+            throw e;
+        }
+    }
+
+    /** 핸들을 열지 않고 크기/수정시각만 조회 (한 번의 SMB 조회) */
+    @Override
+    public FileStat stat(String relativePath) throws IOException {
+        String url = normalize(config.getBasePath(), relativePath);
+        try (SmbFile file = new SmbFile(url, ctx())) {
+            return new FileStat(file.length(), file.lastModified());
+        } catch (SmbException e) {
+            throw translate(e, url);
+        }
+    }
+
+    @Override
     public long length(String relativePath) throws IOException {
-        SmbFile file = new SmbFile(normalize(config.getBasePath(), relativePath), ctx());
-        return file.length();
+        String url = normalize(config.getBasePath(), relativePath);
+        try (SmbFile file = new SmbFile(url, ctx())) {
+            return file.length();
+        } catch (SmbException e) {
+            throw translate(e, url);
+        }
+    }
+
+    /**
+     * 파일/경로 없음은 NoSuchFileException 으로 - 로컬 저장소와 같은 예외라야
+     * 위치 색인이 옮겨진 파일을 알아보고 DB 위치로 다시 시도한다 (InstanceLocationIndex).
+     */
+    private static IOException translate(SmbException e, String url) {
+        if (e.getNtStatus() == NtStatus.NT_STATUS_OBJECT_NAME_NOT_FOUND
+                || e.getNtStatus() == NtStatus.NT_STATUS_OBJECT_PATH_NOT_FOUND) {
+            NoSuchFileException nf = new NoSuchFileException(url);
+            nf.initCause(e);
+            return nf;
+        }
+        return e;
+    }
+
+    /** basePath 디렉터리 존재 확인 (한 번의 SMB 조회, 핸들 슬롯 불필요) */
+    @Override
+    public void probe() throws IOException {
+        String url = normalize(config.getBasePath(), "");
+        try (SmbFile dir = new SmbFile(url, ctx())) {
+            if (!dir.exists()) throw new NoSuchFileException(url);
+        }
+    }
+
+    private Semaphore acquireSlot(String url) throws IOException {
+        String host = hostOf(url);
+        Semaphore slot = serverSlots.computeIfAbsent(host,
+                h -> new Semaphore(config.getMaxOpenFilesPerServer(), true));
+        try {
+            if (!slot.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("SMB 핸들 슬롯 대기 시간 초과: " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("SMB 핸들 슬롯 대기 중 인터럽트");
+        }
+        return slot;
+    }
+
+    private static String hostOf(String url) {
+        // smb://host[:port]/share/... → host[:port]
+        int s = url.indexOf("://");
+        int from = s < 0 ? 0 : s + 3;
+        int to = url.indexOf('/', from);
+        return to < 0 ? url.substring(from) : url.substring(from, to);
     }
 
     private String normalize(String base, String rel) {
@@ -41,4 +204,78 @@ public class SmbStorage {
         if (!base.endsWith("/")) base = base + "/";
         return base + r;
     }
-}
\ No newline at end of file
+
+    private static final class SmbRandomReadable implements RandomReadable {
+        private final SmbFile file;
+        private final SmbRandomAccessFile raf;
+        private final Semaphore slot;
+        private final long length;
+        private final long lastModified;
+        private long pointer;
+        private boolean closed;
+
+        SmbRandomReadable(SmbFile file, SmbRandomAccessFile raf, Semaphore slot, long length, long lastModified) {
+            this.file = file;
+            this.raf = raf;
+            this.slot = slot;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public synchronized int read(long position, byte[] buf, int off, int len) throws IOException {
+            if (position >= length) return -1;
+            if (position != pointer) raf.seek(position);
+            int n = raf.read(buf, off, len);
+            pointer = n > 0 ? position + n : position;
+            return n;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                raf.close();
+            } finally {
+                file.close();
+                slot.release();
+            }
+        }
+    }
+
+    /** 스트림을 닫을 때 SmbFile(트리 참조)과 서버 슬롯을 함께 반납 */
+    private static final class SlotReleasingInputStream extends FilterInputStream {
+        private final SmbFile file;
+        private final Semaphore slot;
+        private boolean closed;
+
+        SlotReleasingInputStream(InputStream in, SmbFile file, Semaphore slot) {
+            super(in);
+            this.file = file;
+            this.slot = slot;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                file.close();
+                slot.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.dicomproject.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.stack")
+public class StackConfig {
+    private int ioThreads = 8;   // 인덱스/프레임 병렬 읽기 스레드 수
+    private int readAhead = 8;   // 현재 슬라이스 뒤로 미리 읽어 둘 프레임 수
+}
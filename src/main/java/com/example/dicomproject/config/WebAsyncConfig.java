@@ -0,0 +1,23 @@
+package com.example.dicomproject.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * StreamingResponseBody 는 dicom-body 갈래에서 처리.
+ * SMB 를 읽는 컨트롤러 Callable 은 DicomIoExecutor.task(...) 로 dicom-io 갈래를 직접 지정한다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final DicomIoExecutor io;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(io.bodyExecutor());
+        configurer.setDefaultTimeout(io.asyncTimeoutMs());
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.dicomproject.dicomrepo.controller;
 
 
-import com.example.dicomproject.config.SmbStorage;
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.DicomIoExecutor;
 import com.example.dicomproject.dicomrepo.repository.StudyRepository;
+import com.example.dicomproject.dicomrepo.search.PatientNameIndex;
+import com.example.dicomproject.dicomrepo.search.StudySearchCache;
+import com.example.dicomproject.dicomrepo.search.StudyTextIndex;
+import com.example.dicomproject.dicomrepo.service.InstanceLocationIndex;
+import com.example.dicomproject.dicomrepo.service.MetadataService;
+import com.example.dicomproject.dicomrepo.service.RenderService;
+import com.example.dicomproject.dicomrepo.service.StudyCountService;
+import com.example.dicomproject.dicomrepo.service.StudyManifestService;
+import com.example.dicomproject.dicomrepo.service.StudyPrefetchService;
+import com.example.dicomproject.storage.DiskCache;
+import com.example.dicomproject.storage.MeteredStorageBackend;
+import com.example.dicomproject.storage.ReplicatedStorageBackend;
+import com.example.dicomproject.storage.StorageBackend;
+import com.example.dicomproject.storage.StorageRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/dicom")
@@ -17,16 +32,28 @@ import java.io.InputStream;
 public class DicomAdminController {
 
     private final StudyRepository studyRepo;
-    private final SmbStorage smb;
+    private final StorageBackend storage;
+    private final StorageRegistry storages;
+    private final DiskCache diskCache;
+    private final StudyPrefetchService prefetch;
+    private final MetadataService metadata;
+    private final StudyManifestService manifests;
+    private final InstanceLocationIndex locations;
+    private final RenderService render;
+    private final DicomIoExecutor io;
+    private final StudyCountService counts;
+    private final StudyTextIndex textIndex;
+    private final PatientNameIndex nameIndex;
+    private final StudySearchCache searchCache;
 
     @GetMapping("/health")
     public ResponseEntity<?> health() {
         try {
             long studyCount = studyRepo.count(); // Oracle 연결 확인
-            // SMB는 basePath 루트 파일 하나 시도 (권한만 확인)
-            try (InputStream ignored = smb.open("")) { /* 일부 NAS는 디렉터리 open 불가 → 무시 */ }
+            // 저장소는 루트 존재/권한만 확인 (파일을 열지 않음)
+            storage.probe();
             return ResponseEntity.ok().body(
-                    java.util.Map.of("oracle","ok","smb","ok","studyCount",studyCount)
+                    java.util.Map.of("oracle","ok","storage",storage.name(),"studyCount",studyCount)
             );
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(
@@ -34,4 +61,112 @@ public class DicomAdminController {
             );
         }
     }
-}
\ No newline at end of file
+
+    // 로컬 디스크 캐시 상태 (hit/miss/eviction 카운터 포함)
+    @GetMapping("/admin/cache")
+    public DiskCache.Stats cacheStats() {
+        return diskCache.stats();
+    }
+
+    // 로컬 디스크 캐시 전체 비우기
+    @DeleteMapping("/admin/cache")
+    public ResponseEntity<?> purgeCache() {
+        int removed = diskCache.purge();
+        return ResponseEntity.ok(java.util.Map.of("removed", removed));
+    }
+
+    // 매니페스트 기반 프리페치 상태
+    @GetMapping("/admin/prefetch")
+    public StudyPrefetchService.Stats prefetchStats() {
+        return prefetch.stats();
+    }
+
+    // 스터디 매니페스트 JSON 캐시 상태
+    @GetMapping("/admin/manifest")
+    public StudyManifestService.Stats manifestStats() {
+        return manifests.stats();
+    }
+
+    @DeleteMapping("/admin/manifest")
+    public ResponseEntity<Void> clearManifests() {
+        manifests.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // SOP UID → 저장 위치 색인 (파일 요청의 DB 조회 생략)
+    @GetMapping("/admin/locations")
+    public InstanceLocationIndex.Stats locationStats() {
+        return locations.stats();
+    }
+
+    @DeleteMapping("/admin/locations")
+    public ResponseEntity<Void> clearLocations() {
+        locations.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // 헤더 메타데이터(DICOM JSON) 메모리 캐시 상태
+    @GetMapping("/admin/metadata")
+    public WeightedLruCache.Stats metadataStats() {
+        return metadata.stats();
+    }
+
+    // 서버 렌더링(PNG/JPEG) 캐시 상태
+    @GetMapping("/admin/render")
+    public WeightedLruCache.Stats renderStats() {
+        return render.stats();
+    }
+
+    // dicom-io 실행기 상태 (active = SMB 대기 중인 작업 수)
+    @GetMapping("/admin/io")
+    public DicomIoExecutor.Stats ioStats() {
+        return io.stats();
+    }
+
+    // 검색 전체 건수 캐시 (필터별 exact/estimated 총계)
+    @GetMapping("/admin/search/count")
+    public StudyCountService.Stats countStats() {
+        return counts.stats();
+    }
+
+    @DeleteMapping("/admin/search/count")
+    public ResponseEntity<Void> clearCounts() {
+        counts.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // 검색어 trigram 색인 (pid/이름, 접수번호, 검사 설명)
+    @GetMapping("/admin/search/index")
+    public StudyTextIndex.Stats indexStats() {
+        return textIndex.stats();
+    }
+
+    // 환자명 초성/자모 검색 색인
+    @GetMapping("/admin/search/names")
+    public PatientNameIndex.Stats nameIndexStats() {
+        return nameIndex.stats();
+    }
+
+    // 스터디 검색 결과 캐시 (L1 로컬 + L2 Redis)
+    @GetMapping("/admin/search/cache")
+    public StudySearchCache.Stats searchCacheStats() {
+        return searchCache.stats();
+    }
+
+    @DeleteMapping("/admin/search/cache")
+    public ResponseEntity<Void> clearSearchCache() {
+        searchCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // STSTORAGEID 별 저장소 처리량/지연/동시 핸들
+    @GetMapping("/admin/storage")
+    public java.util.List<MeteredStorageBackend.Stats> storageStats() {
+        return storages.stats();
+    }
+
+    @GetMapping("/admin/storage/replicas")
+    public java.util.List<ReplicatedStorageBackend.Stats> replicaStats() {
+        return storages.replicaStats();
+    }
+}
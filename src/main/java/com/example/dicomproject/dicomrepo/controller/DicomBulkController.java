@@ -0,0 +1,139 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import com.example.dicomproject.config.DicomIoExecutor;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.repository.ImageRepository;
+import com.example.dicomproject.dicomrepo.service.BulkRetrieveService;
+import com.example.dicomproject.dicomrepo.service.StackBundleService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 스터디/시리즈 전체를 한 번의 HTTP 응답으로 내려주는 bulk 조회.
+ * Accept: multipart/related; type="application/dicom" (기본, WADO-RS 스타일) 또는 application/zip (?format=zip 도 가능)
+ * /stack 은 시리즈 픽셀 버퍼만 묶은 바이너리 번들 (형식은 StackBundleService 참고)
+ */
+@RestController
+@RequestMapping("/api/dicom")
+@RequiredArgsConstructor
+public class DicomBulkController {
+
+    private final ImageRepository imageRepository;
+    private final BulkRetrieveService bulk;
+    private final StackBundleService stack;
+    private final DicomIoExecutor io;
+
+    @GetMapping("/studies/{studyKey}/bulk")
+    public ResponseEntity<StreamingResponseBody> studyBulk(
+            @PathVariable long studyKey,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        var rows = imageRepository.findAllByStudyKey(studyKey); // 시리즈 → 이미지 순
+        return respond(rows, "study-" + studyKey, wantsZip(format, accept));
+    }
+
+    @GetMapping("/studies/{studyKey}/series/{seriesUid}/bulk")
+    public ResponseEntity<StreamingResponseBody> seriesBulk(
+            @PathVariable long studyKey,
+            @PathVariable String seriesUid,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        var rows = imageRepository.findAllByStudyKeyAndSeriesUid(studyKey, seriesUid);
+        return respond(rows, "series-" + seriesUid, wantsZip(format, accept));
+    }
+
+    @GetMapping("/studies/{studyUid}/series/{seriesUid}/stack")
+    public WebAsyncTask<ResponseEntity<StreamingResponseBody>> seriesStack(
+            @PathVariable String studyUid,
+            @PathVariable String seriesUid,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletRequest request
+    ) {
+        return io.task(() -> serveStack(studyUid, seriesUid, range, request));
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveStack(String studyUid, String seriesUid, String range,
+                                                             HttpServletRequest request) throws IOException {
+        var images = imageRepository.findBySeries_SeriesInstanceUid(seriesUid).stream()
+                .filter(i -> studyUid.equals(i.getStudyInstanceUid()))
+                .toList();
+        if (images.isEmpty()) return ResponseEntity.notFound().build();
+
+        var bundle = stack.prepare(images);
+        long total = bundle.totalLength();
+        // 헤더가 레이아웃 전체(오프셋/길이/missing/UID)를 담으므로 헤더 해시 = 강한 검증자
+        String etag = HttpCaching.strongEtag(bundle.header());
+        if (HttpCaching.hasConditional(request) && HttpCaching.notModified(request, etag, 0)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                    .build();
+        }
+        var builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // 단일 Range 만 지원 (슬라이스 단위 부분 로딩용), 그 외는 전체.
+        // If-Range 가 이전 레이아웃이면 Range 를 무시하고 전체를 보낸다 (다른 레이아웃의 조각을 잇지 않도록)
+        List<long[]> ranges = range == null || !HttpCaching.ifRangeMatches(request, etag, 0)
+                ? null : DicomStreamController.parseRanges(range, total);
+        if (ranges != null && ranges.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + total)
+                    .build();
+        }
+        if (ranges != null && ranges.size() == 1) {
+            long start = ranges.get(0)[0], end = ranges.get(0)[1]; // inclusive
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total)
+                    .contentLength(end - start + 1)
+                    .body(out -> stack.write(bundle, start, end + 1, out));
+        }
+        return builder
+                .contentLength(total)
+                .body(out -> stack.write(bundle, 0, total, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> respond(List<ImageMetaDto> rows, String name, boolean zip) {
+        if (rows.isEmpty()) return ResponseEntity.notFound().build();
+
+        if (zip) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(name + ".zip").build().toString())
+                    .body(out -> bulk.writeZip(rows, out));
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(
+                        "multipart/related; type=\"application/dicom\"; boundary=" + boundary))
+                .body(out -> bulk.writeMultipart(rows, boundary, out));
+    }
+
+    private static boolean wantsZip(String format, String accept) {
+        if (format != null) return "zip".equalsIgnoreCase(format);
+        return accept != null && accept.toLowerCase().contains("application/zip");
+    }
+}
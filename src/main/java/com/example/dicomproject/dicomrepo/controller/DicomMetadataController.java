@@ -0,0 +1,58 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import com.example.dicomproject.config.DicomIoExecutor;
+import com.example.dicomproject.dicomrepo.service.InstanceLocationIndex;
+import com.example.dicomproject.dicomrepo.service.MetadataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * WADO-RS 메타데이터 조회 - 헤더만 읽어 DICOM JSON 으로 응답.
+ * 뷰어가 geometry/windowing 태그를 얻으려고 파일 전체를 받지 않아도 된다.
+ * 헤더 읽기는 dicom-io 실행기에서 수행 (DicomIoExecutor.task).
+ */
+@RestController
+@RequestMapping("/api/dicom")
+@RequiredArgsConstructor
+public class DicomMetadataController {
+
+    private static final MediaType DICOM_JSON = MediaType.parseMediaType("application/dicom+json");
+
+    private final InstanceLocationIndex locations;
+    private final MetadataService metadata;
+    private final DicomIoExecutor io;
+
+    @GetMapping("/studies/{studyUid}/series/{seriesUid}/metadata")
+    public WebAsyncTask<ResponseEntity<byte[]>> seriesMetadata(@PathVariable String studyUid,
+                                                           @PathVariable String seriesUid) {
+        return io.task(() -> {
+            byte[] json = metadata.seriesMetadata(studyUid, seriesUid);
+            if (json == null) return ResponseEntity.notFound().build();
+            return respond(json);
+        });
+    }
+
+    @GetMapping({
+            "/instances/{sopUid:.+}/metadata",
+            "/studies/{studyUid}/series/{seriesUid}/instances/{sopUid:.+}/metadata"
+    })
+    public WebAsyncTask<ResponseEntity<byte[]>> instanceMetadata(@PathVariable String sopUid) {
+        return io.task(() -> respond(locations.locate(sopUid, metadata::instanceMetadata).value()));
+    }
+
+    // 내용 기반 ETag - If-None-Match 가 같으면 Spring이 304로 응답
+    private static ResponseEntity<byte[]> respond(byte[] json) {
+        return ResponseEntity.ok()
+                .contentType(DICOM_JSON)
+                .eTag(HttpCaching.strongEtag(json))
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                .body(json);
+    }
+}
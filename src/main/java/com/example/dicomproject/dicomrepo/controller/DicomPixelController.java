@@ -0,0 +1,234 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import com.example.dicomproject.config.DicomIoExecutor;
+import com.example.dicomproject.dicomrepo.dto.DicomUid;
+import com.example.dicomproject.dicomrepo.parser.FrameIndex;
+import com.example.dicomproject.dicomrepo.service.FrameIndexService;
+import com.example.dicomproject.dicomrepo.service.InstanceFileService;
+import com.example.dicomproject.dicomrepo.service.InstanceLocationIndex;
+import com.example.dicomproject.dicomrepo.service.RenderService;
+import com.example.dicomproject.storage.RandomReadable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 프레임 단위 픽셀 데이터 조회 (WADO-RS Retrieve Frames).
+ * 파일 전체가 아니라 FrameIndex 가 가리키는 바이트 구간만 읽어 내려준다.
+ *
+ * 프레임 번호는 1부터, 쉼표로 여러 개 (예: /frames/1,5,9).
+ * 프레임 하나 + Accept 에 multipart 없음 → 해당 바이트 그대로, 그 외 → multipart/related.
+ * /rendered 는 서버에서 window/level 을 적용한 JPEG(기본) 또는 PNG.
+ * 메타/인덱스 조회와 렌더링은 dicom-io, 프레임 바이트 전송은 dicom-body 실행기에서 수행.
+ */
+@RestController
+@RequestMapping("/api/dicom")
+@RequiredArgsConstructor
+public class DicomPixelController {
+
+    private final InstanceLocationIndex locations;
+    private final InstanceFileService files;
+    private final FrameIndexService frameIndex;
+    private final RenderService render;
+    private final DicomIoExecutor io;
+
+    /** 전송 구문 → 프레임 미디어 타입 (비압축/미등록은 octet-stream) */
+    private static final Map<String, String> FRAME_MEDIA_TYPES = Map.ofEntries(
+            Map.entry("1.2.840.10008.1.2.4.50", "image/jpeg"),
+            Map.entry("1.2.840.10008.1.2.4.51", "image/jpeg"),
+            Map.entry("1.2.840.10008.1.2.4.57", "image/jpeg"),
+            Map.entry("1.2.840.10008.1.2.4.70", "image/jpeg"),
+            Map.entry("1.2.840.10008.1.2.4.80", "image/jls"),
+            Map.entry("1.2.840.10008.1.2.4.81", "image/jls"),
+            Map.entry("1.2.840.10008.1.2.4.90", "image/jp2"),
+            Map.entry("1.2.840.10008.1.2.4.91", "image/jp2"),
+            Map.entry("1.2.840.10008.1.2.4.201", "image/jphc"),
+            Map.entry("1.2.840.10008.1.2.4.202", "image/jphc"),
+            Map.entry("1.2.840.10008.1.2.4.203", "image/jphc"),
+            Map.entry("1.2.840.10008.1.2.5", "image/x-dicom-rle")
+    );
+
+    @GetMapping({
+            "/instances/{sopUid:.+}/frames/{frameList}",
+            "/studies/{studyUid}/series/{seriesUid}/instances/{sopUid:.+}/frames/{frameList}"
+    })
+    public WebAsyncTask<ResponseEntity<StreamingResponseBody>> frames(
+            @PathVariable String sopUid,
+            @PathVariable String frameList,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return io.task(() -> serveFrames(sopUid, frameList, accept));
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveFrames(String sopUid, String frameList, String accept) throws IOException {
+        var located = locations.locate(sopUid, files::stat);
+        var meta = located.meta();
+        // 인덱스는 여기서 확정 (없으면 열어서 만들고 바로 닫음), 프레임 바이트는 바디 안에서 다시 연다
+        FrameIndex cached = frameIndex.find(sopUid, located.value().length());
+        FrameIndex idx;
+        if (cached != null) {
+            idx = cached;
+        } else {
+            try (RandomReadable file = files.openRandomAccess(meta, false)) {
+                idx = frameIndex.indexOf(sopUid, file);
+            }
+        }
+        int[] frames = parseFrames(frameList, idx.frameCount());
+        if (frames == null) return ResponseEntity.notFound().build();
+
+        String type = mediaType(idx);
+        if (frames.length == 1 && (accept == null || !accept.contains("multipart/"))) {
+            int frame = frames[0];
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(type))
+                    .contentLength(idx.frameLength(frame))
+                    .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE)
+                    .body(out -> {
+                        try (RandomReadable file = files.openRandomAccess(meta, true)) {
+                            writeFrame(file, idx, frame, out);
+                        }
+                    });
+        }
+
+        // multipart/related - 파트 헤더를 미리 만들어 Content-Length 계산
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        byte[][] partHeaders = new byte[frames.length][];
+        long contentLength = 0;
+        for (int i = 0; i < frames.length; i++) {
+            partHeaders[i] = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + type + "\r\n"
+                    + "Content-Location: frames/" + (frames[i] + 1) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + idx.frameLength(frames[i]);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(
+                        "multipart/related; type=\"" + type + "\"; boundary=" + boundary))
+                .contentLength(contentLength)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE)
+                .body(out -> {
+                    try (RandomReadable file = files.openRandomAccess(meta, true)) {
+                        for (int i = 0; i < frames.length; i++) {
+                            out.write(partHeaders[i]);
+                            writeFrame(file, idx, frames[i], out);
+                        }
+                        out.write(closing);
+                    }
+                });
+    }
+
+    /**
+     * 서버 렌더링. window=center,width[,function] viewport=w,h quality=1..100
+     * Accept 에 image/png 가 있으면 PNG, 아니면 JPEG.
+     */
+    @GetMapping({
+            "/instances/{sopUid:.+}/rendered",
+            "/instances/{sopUid:.+}/frames/{frame}/rendered",
+            "/studies/{studyUid}/series/{seriesUid}/instances/{sopUid:.+}/rendered",
+            "/studies/{studyUid}/series/{seriesUid}/instances/{sopUid:.+}/frames/{frame}/rendered"
+    })
+    public WebAsyncTask<ResponseEntity<byte[]>> rendered(
+            @PathVariable String sopUid,
+            @PathVariable(required = false) Integer frame,
+            @RequestParam(required = false) String window,
+            @RequestParam(required = false) String viewport,
+            @RequestParam(required = false) Integer quality,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        return io.task(() -> serveRendered(sopUid, frame, window, viewport, quality, accept));
+    }
+
+    private ResponseEntity<byte[]> serveRendered(String sopUid, Integer frame, String window, String viewport,
+                                                 Integer quality, String accept) throws IOException {
+        double[] win = parseNumbers(window, 2);
+        double[] view = parseNumbers(viewport, 2);
+        if ((window != null && win == null) || (viewport != null && view == null) || (frame != null && frame < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int max = render.maxViewport();
+        int vw = view == null ? max : (int) Math.min(max, Math.max(1, view[0]));
+        int vh = view == null ? max : (int) Math.min(max, Math.max(1, view[1]));
+        boolean png = accept != null && accept.contains(MediaType.IMAGE_PNG_VALUE);
+
+        var key = new RenderService.RenderKey(DicomUid.of(sopUid), frame == null ? 0 : frame - 1,
+                win == null ? Double.NaN : win[0], win == null ? Double.NaN : win[1],
+                vw, vh, png ? "png" : "jpeg",
+                png ? 0 : (quality != null ? quality : render.defaultJpegQuality()));
+
+        byte[] image;
+        try {
+            image = locations.locate(sopUid, m -> render.render(m, key)).value();
+        } catch (IndexOutOfBoundsException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (image == null) {
+            // 렌더링할 수 없는 전송 구문/픽셀 형식 - 원본은 /frames 로 받는다
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(png ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG)
+                .contentLength(image.length)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE)
+                .body(image);
+    }
+
+    /** "40,400" / "40,400,LINEAR" → 앞의 n 개 숫자. 형식 오류면 null */
+    private static double[] parseNumbers(String s, int n) {
+        if (s == null) return null;
+        String[] parts = s.split(",");
+        if (parts.length < n) return null;
+        double[] out = new double[n];
+        try {
+            for (int i = 0; i < n; i++) out[i] = Double.parseDouble(parts[i].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return out;
+    }
+
+    /** 프레임을 이루는 조각들을 순서대로 복사 */
+    private static void writeFrame(RandomReadable file, FrameIndex idx, int frame, OutputStream out) throws IOException {
+        int[] starts = idx.frameStarts();
+        for (int f = starts[frame]; f < starts[frame + 1]; f++) {
+            file.transferTo(idx.fragmentOffsets()[f], idx.fragmentLengths()[f], out);
+        }
+    }
+
+    /** "1,3,5" → 0-based 배열. 범위를 벗어나거나 형식 오류면 null */
+    static int[] parseFrames(String frameList, int frameCount) {
+        List<Integer> out = new ArrayList<>();
+        for (String s : frameList.split(",")) {
+            try {
+                int n = Integer.parseInt(s.trim());
+                if (n < 1 || n > frameCount) return null;
+                out.add(n - 1);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return out.isEmpty() ? null : out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String mediaType(FrameIndex idx) {
+        String type = idx.encapsulated()
+                ? FRAME_MEDIA_TYPES.getOrDefault(idx.transferSyntaxUid(), MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        return type + "; transfer-syntax=" + idx.transferSyntaxUid();
+    }
+}
@@ -2,10 +2,12 @@ package com.example.dicomproject.dicomrepo.controller;
 
 
 import com.example.dicomproject.dicomrepo.dto.*;
+import com.example.dicomproject.dicomrepo.search.StudySearchCache;
 import com.example.dicomproject.dicomrepo.service.DicomService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,11 +17,24 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DicomQueryController {
 
+    private static final int MAX_CURSOR_SIZE = 200;
+
     private final DicomService dicom;
+    private final StudySearchCache searchCache;
 
+    /**
+     * 스터디 검색.
+     * 기본은 Page 모드(page/size, 전체 건수 포함). mode=cursor 또는 cursor 파라미터가 있으면
+     * keyset 모드로 count/OFFSET 없이 다음 페이지 커서(nextCursor)를 돌려준다.
+     * Page 모드 전체 건수는 X-Total-Count-Mode(exact|cached|estimated) 헤더로 정확도를 알려주고,
+     * count=exact 면 추정 대신 정확한 count 를 쓴다.
+     * mode=name 은 환자명 초성/자모 검색("ㅎㄱㄷ", "홍기") - 검색어는 pname(없으면 pid), 일치도 순.
+     * 결과는 StudySearchCache(L1/Redis) 를 거치고, X-Search-Cache(l1|l2|db|bypass) 로 출처를 알려준다.
+     */
     @GetMapping("/query")
-    public Page<StudySummaryDto> searchStudies(
+    public ResponseEntity<?> searchStudies(
             @RequestParam(required = false) String pid,
+            @RequestParam(required = false) String pname,
             @RequestParam(required = false) String accession,
             @RequestParam(required = false) String studyDesc,
             @RequestParam(required = false, name = "modality") List<String> modalityParams, // 반복 파라미터
@@ -28,16 +43,56 @@ public class DicomQueryController {
             @RequestParam(required = false) String fromDate,
             @RequestParam(required = false) String toDate,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "page") String mode,   // page | cursor | name
+            @RequestParam(required = false) String cursor,      // 이전 응답의 nextCursor
+            @RequestParam(defaultValue = "auto") String count   // auto | exact
     ) {
         String modalityCsv = (modalityParams != null && !modalityParams.isEmpty())
                 ? String.join(",", modalityParams)
                 : modality;
 
-        return dicom.searchStudies(
-                new StudySearchCondition(pid, accession, studyDesc, modalityCsv, bodyPart, fromDate, toDate),
-                PageRequest.of(page, size)
-        );
+        StudySearchCondition condition =
+                new StudySearchCondition(pid, accession, studyDesc, modalityCsv, bodyPart, fromDate, toDate);
+
+        if (cursor != null || "cursor".equalsIgnoreCase(mode)) {
+            StudyCursor after;
+            try {
+                after = cursor == null || cursor.isBlank() ? null : StudyCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+            }
+            int limit = Math.max(1, Math.min(size, MAX_CURSOR_SIZE));
+            StudySearchCache.Result<StudySliceDto> slice = searchCache.slice(
+                    StudySearchCache.key("cursor", StudyFilter.of(condition), cursor, limit),
+                    () -> dicom.scrollStudies(condition, after, limit));
+            return ResponseEntity.ok()
+                    .header("X-Search-Cache", slice.source().name().toLowerCase())
+                    .body(slice.value());
+        }
+
+        StudySearchCache.Result<StudyPageDto> result;
+        if ("name".equalsIgnoreCase(mode)) {
+            // pname 이 있으면 pid 는 별도 조건, 없으면 pid 값을 이름 검색어로 쓴다
+            boolean hasName = pname != null && !pname.isBlank();
+            String name = hasName ? pname : pid;
+            StudySearchCondition byName = hasName ? condition
+                    : new StudySearchCondition(null, accession, studyDesc, modalityCsv, bodyPart, fromDate, toDate);
+            result = searchCache.page(
+                    StudySearchCache.key("name", StudyFilter.of(byName), name, page, size),
+                    () -> dicom.searchByName(byName, name, PageRequest.of(page, size)));
+        } else {
+            boolean exact = "exact".equalsIgnoreCase(count);
+            result = searchCache.page(
+                    StudySearchCache.key("page", StudyFilter.of(condition), page, size, exact),
+                    () -> dicom.searchStudies(condition, PageRequest.of(page, size), exact));
+        }
+        Page<StudySummaryDto> body = result.value().page();
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(body.getTotalElements()))
+                .header("X-Total-Count-Mode", result.value().countMode().header())
+                .header("X-Search-Cache", result.source().name().toLowerCase())
+                .body(body);
     }
 
     @GetMapping("/query/{studyUid}/series")
@@ -1,222 +1,356 @@
 package com.example.dicomproject.dicomrepo.controller;
 
 
-import com.example.dicomproject.config.SmbStorage;
+import com.example.dicomproject.auth.JwtService;
+import com.example.dicomproject.config.DicomIoExecutor;
 import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
-import com.example.dicomproject.dicomrepo.dto.ImageSummaryDto;
-import com.example.dicomproject.dicomrepo.dto.SeriesSummaryDto;
-import com.example.dicomproject.dicomrepo.repository.ImageRepository;
-import com.example.dicomproject.dicomrepo.repository.SeriesRepository;
-import com.example.dicomproject.dicomrepo.service.DicomService;
+import com.example.dicomproject.dicomrepo.service.InstanceFileService;
+import com.example.dicomproject.dicomrepo.service.InstanceLocationIndex;
+import com.example.dicomproject.dicomrepo.service.StudyManifestService;
+import com.example.dicomproject.dicomrepo.service.StudyManifestWriter;
+import com.example.dicomproject.storage.FileStat;
+import com.example.dicomproject.storage.LocalRandomReadable;
+import com.example.dicomproject.storage.RandomReadable;
+import com.example.dicomproject.storage.StoredFile;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/dicom")
 @RequiredArgsConstructor
 public class DicomStreamController {
 
-    private final DicomService dicom;
-    private final SmbStorage smb;
-    private final ImageRepository imageRepository;
-    private final SeriesRepository seriesRepository;
-    public record StudyManifestDto(
-            StudyInfo study,
-            List<SeriesEntry> series
-    ){}
-
-    public record StudyInfo(
-            String patientName,
-            String studyDescription,
-            String studyDate,        // YYYYMMDD 그대로
-            String modality,         // 대표 모달리티(없으면 null)
-            Integer numberOfSeries,
-            Integer numberOfInstances,
-            String studyInstanceUID
-    ){}
-
-    public record SeriesEntry(
-            String seriesInstanceUID,
-            String modality,
-            Integer seriesNumber,        // 있으면 채우기
-            String seriesDescription,    // 있으면 채우기
-            Integer numberOfInstances,
-            List<InstanceEntry> instances
-    ){}
-
-    public record InstanceEntry(
-            String sopInstanceUid,
-            String seriesInstanceUID,
-            String modality,
-            String fileUrl
-    ){}
-
-    @GetMapping(value = "/studies/{studyKey}/manifest", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> studyManifestTree(@PathVariable long studyKey) {
-        // 0) 존재 검증(선택) - 존재하지 않으면 404
-        // Optional<Study> studyEntity = studyRepository.findByStudyKey(studyKey); // 있으면 사용
-        // if (studyEntity.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message","유효하지 않은 studyKey"));
-
-        // 1) 모든 이미지 로우 (studyKey 기준)
-        var rows = imageRepository.findAllByStudyKey(studyKey); // List<ImageMetaDto>
-        // ImageMetaDto: sopInstanceUid(), seriesInstanceUid(), modality(), studyInstanceUid()
-
-        // 2) 시리즈 목록 (빈 시리즈 포함)
-        var seriesList = seriesRepository.findByStudyKeyOrderBySeriesKeyAsc(studyKey); // List<Series>
-        // Series: getSeriesInstanceUid(), getModality(), getSeriesNumber(), getSeriesDescription() 등
-
-        // 3) series UID별 그룹핑
-        Map<String, List<ImageMetaDto>> bySeries = rows.stream()
-                .collect(Collectors.groupingBy(ImageMetaDto::seriesInstanceUid, LinkedHashMap::new, Collectors.toList()));
-
-        // 4) 시리즈 엔트리 변환
-        List<SeriesEntry> seriesEntries = seriesList.stream().map(s -> {
-            var list = bySeries.getOrDefault(s.getSeriesInstanceUid(), List.of());
-
-            var instances = list.stream()
-                    .map(r -> new InstanceEntry(
-                            r.sopInstanceUid(),
-                            r.seriesInstanceUid(),
-                            r.modality(),
-                            "http://localhost:8080/api/dicom/instances/" + r.sopInstanceUid() + "/file"
-                    ))
-                    .toList();
-
-            Integer numberOfInstances = instances.size();
-
-            return new SeriesEntry(
-                    s.getSeriesInstanceUid(),
-                    // 시리즈 모달리티(없으면 첫 인스턴스에서 가져오기)
-                    firstNonNull(s.getModality(), list.stream().map(ImageMetaDto::modality).filter(Objects::nonNull).findFirst().orElse(null)),
-                    s.getSeriesNum(),                   // 엔티티에 있으면 세팅
-                    s.getSeriesDesc(),              // 엔티티에 있으면 세팅
-                    numberOfInstances,
-                    instances
-            );
-        }).toList();
-
-        // 5) study 레벨 값 계산
-        String studyInstanceUid = rows.isEmpty() ? null : rows.get(0).studyInstanceUid();
-
-        // 대표 모달리티: series → image 순으로 탐색
-        String representativeModality =
-                seriesEntries.stream().map(SeriesEntry::modality).filter(Objects::nonNull).findFirst()
-                        .orElseGet(() -> rows.stream().map(ImageMetaDto::modality).filter(Objects::nonNull).findFirst().orElse(null));
-
-        int numberOfSeries    = seriesEntries.size();
-        int numberOfInstances = seriesEntries.stream().mapToInt(se -> se.numberOfInstances() != null ? se.numberOfInstances() : 0).sum();
-
-        // 6) study 엔티티에서 메타 끌어오거나 기본값
-        // String patientName = studyEntity.map(Study::getPatientName).orElse("Anonymous");
-        // String studyDesc   = studyEntity.map(Study::getStudyDescription).orElse("");
-        // String studyDate   = studyEntity.map(Study::getStudyDate).orElse(null);
-
-        String patientName = "Anonymous";     // TODO: 가능하면 DB에서 조회
-        String studyDesc   = "";              // TODO: 가능하면 DB에서 조회
-        String studyDate   = null;            // TODO: 가능하면 DB에서 조회(YYYYMMDD)
-
-        StudyInfo studyInfo = new StudyInfo(
-                patientName,
-                studyDesc,
-                studyDate,
-                representativeModality,
-                numberOfSeries,
-                numberOfInstances,
-                studyInstanceUid
-        );
-
-        StudyManifestDto body = new StudyManifestDto(studyInfo, seriesEntries);
-
-        return ResponseEntity.ok(body);
+    private final InstanceFileService files;
+    private final StudyManifestService manifests;
+    private final InstanceLocationIndex locations;
+    private final DicomIoExecutor io;
+    private final JwtService jwt;
+
+    private static final String CBOR_VALUE = "application/cbor";
+    private static final MediaType CBOR = MediaType.parseMediaType(CBOR_VALUE);
+
+    /**
+     * 스터디 매니페스트. v=2 면 URL 템플릿 + 시리즈 공통 필드로 줄인 스키마,
+     * Accept: application/cbor 면 v2 를 CBOR 로 (StudyManifestWriter 참고).
+     */
+    @GetMapping(value = "/studies/{studyKey}/manifest", produces = {MediaType.APPLICATION_JSON_VALUE, CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> studyManifestTree(@PathVariable long studyKey,
+                                                                   @RequestParam(defaultValue = "1") int v,
+                                                                   HttpServletRequest request) {
+        StudyManifestWriter.Format format = prefersCbor(request.getHeader(HttpHeaders.ACCEPT))
+                ? StudyManifestWriter.Format.V2_CBOR
+                : v >= 2 ? StudyManifestWriter.Format.V2 : StudyManifestWriter.Format.V1;
+        MediaType contentType = format == StudyManifestWriter.Format.V2_CBOR ? CBOR : MediaType.APPLICATION_JSON;
+
+        // 직렬화된 바이트 캐시 (STUDYTAB 건수가 바뀌면 다시 만듦) - 프리페치도 서비스가 시작
+        String client = clientKey(request);
+        StudyManifestService.Manifest m = manifests.manifest(studyKey, format, client);
+
+        var builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .header("X-Manifest-Cache", m.source().name().toLowerCase());
+        if (m.json() == null) {
+            // 큰 스터디 / 캐시 꺼짐: 쿼리 커서에서 읽는 대로 응답에 씀 (ETag 없음)
+            return builder.body(out -> manifests.stream(studyKey, format, client, out));
+        }
+
+        // 내용 기반 ETag - If-None-Match 가 같으면 304
+        if (HttpCaching.notModified(request, m.etag(), 0)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(m.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, HttpCaching.REVALIDATE)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .build();
+        }
+        byte[] body = m.json();
+        return builder.eTag(m.etag()).body(out -> out.write(body));
+    }
+
+    /** Accept 에서 CBOR 가 JSON(또는 와일드카드)보다 앞서면 true - 품질값 높은 순, 같으면 나열 순 */
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        try {
+            List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType t : types) {
+                if (t.getQualityValue() <= 0) break;
+                if (t.equalsTypeAndSubtype(CBOR)) return true;
+                if (t.isCompatibleWith(MediaType.APPLICATION_JSON)) return false;
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * 프리페치 취소 단위 = 로그인 사용자 (Bearer 토큰 subject, 서명 검증).
+     * 매니페스트 경로는 공개라 JwtAuthFilter 를 타지 않으므로 여기서 토큰을 본다 (Next 프록시가 Authorization 전달).
+     * X-Forwarded-For/원격 주소는 프록시 뒤에서 모두 같고 위조도 되므로 쓰지 않는다 -
+     * 토큰이 없으면 요청마다 다른 키 (다른 사용자의 작업을 취소하지 않음).
+     */
+    private String clientKey(HttpServletRequest req) {
+        String auth = req.getHeader(HttpHeaders.AUTHORIZATION);
+        if (auth != null && auth.startsWith("Bearer ")) {
+            String token = auth.substring(7);
+            if (jwt.isValid(token)) {
+                String subject = jwt.getSubject(token);
+                if (subject != null) return "user:" + subject;
+            }
+        }
+        return "anon:" + UUID.randomUUID();
     }
 
-    // 유틸
-    private static <T> T firstNonNull(T a, T b) { return a != null ? a : b; }
+    private static final MediaType DICOM = MediaType.parseMediaType("application/dicom");
+    private static final int MAX_RANGES = 16; // 그 이상이면 Range 무시하고 전체 응답
+
+    /** 스트리밍 복사 버퍼 크기 - 요청당 힙 사용량은 파일 크기와 무관하게 이 값으로 고정 */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    // Tomcat sendfile 요청 속성 (DefaultServlet과 동일한 방식)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
     @GetMapping(value = "/instances/{sopUid:.+}/file", produces = "application/dicom")
-    public ResponseEntity<byte[]> streamDicom(
+    public WebAsyncTask<ResponseEntity<StreamingResponseBody>> streamDicom(
             @PathVariable String sopUid,
             HttpServletRequest request
-    ) throws IOException {
-
-        // 1) 메타에서 경로 구성
-        var meta = dicom.getInstanceMeta(sopUid);
-        String relativePath = meta.path() + meta.fname();
-
-        // 2) 파일 크기
-        long fileLength = smb.length(relativePath);
-
-        // 3) Range 파싱
-        String range = request.getHeader("Range"); // e.g. "bytes=0-1023"
-        if (range == null) {
-            // 전체 파일
-            byte[] data = readAll(smb.open(relativePath), fileLength);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("application/dicom"))
-                    .contentLength(fileLength)
-                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
-                    .body(data);
+    ) {
+        // 메타 조회/stat 은 dicom-io, 전송 바디는 dicom-body 실행기 → Tomcat 워커는 즉시 반환
+        return io.task(() -> serveDicom(sopUid, request));
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveDicom(String sopUid, HttpServletRequest request) throws IOException {
+
+        // 1) 메타 (경로 + 저장소 ID) - 매니페스트로 채워진 위치 색인 우선, 없으면 DB
+        // 2) 크기/수정시각만 조회 - 파일은 바디 안에서 연다 (바디 제출이 거절돼도 열린 핸들이 남지 않음)
+        //    색인 위치에 파일이 없으면 DB 위치로 다시 stat
+        var located = locations.locate(sopUid, files::stat);
+        var meta = located.meta();
+        FileStat st = located.value();
+        String etag = HttpCaching.instanceEtag(meta.sopInstanceUid(), st.length(), st.lastModified());
+
+        // 3) 조건부 요청이면 검증자만 비교 → 304
+        if (HttpCaching.hasConditional(request) && HttpCaching.notModified(request, etag, st.lastModified())) {
+            var notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE);
+            if (st.lastModified() > 0) notModified.lastModified(st.lastModified());
+            return notModified.build();
         }
 
-        // Partial
-        long[] se = parseRange(range, fileLength);
-        long start = se[0], end = se[1]; // inclusive
-        long len = end - start + 1;
+        // 4) Range 요청 - 임의 접근 핸들로 오프셋에 바로 seek
+        String range = request.getHeader(HttpHeaders.RANGE); // e.g. "bytes=0-1023", "bytes=-500", "bytes=0-99,1000-"
+        if (range != null) {
+            var partial = partialResponse(request, range, meta, st, etag);
+            if (partial != null) return partial; // null: If-Range 불일치/문법 오류 → Range 무시하고 전체 응답
+        }
 
-        try (InputStream in = smb.open(relativePath)) {
-            in.skip(start);
-            byte[] buf = readN(in, len);
-            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
-                    .contentType(MediaType.parseMediaType("application/dicom"))
-                    .contentLength(len)
+        // 5) 전체 파일 - SMB 입력을 읽는 즉시 소켓으로 흘려보냄 (캐시 히트는 zero-copy)
+        var builder = ResponseEntity.ok()
+                .contentType(DICOM)
+                .contentLength(st.length())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE);
+        if (st.lastModified() > 0) builder.lastModified(st.lastModified());
+        return builder.body(fullBody(request, meta, st.length()));
+    }
+
+    /**
+     * Range 응답 생성 (단일 → 206, 다중 → multipart/byteranges, 만족 불가 → 416).
+     * Range를 무시하고 전체 파일로 응답해야 하면 null.
+     */
+    private ResponseEntity<StreamingResponseBody> partialResponse(
+            HttpServletRequest request, String rangeHeader, ImageMetaDto meta, FileStat st, String etag)
+            throws IOException {
+        long fileLength = st.length();
+        if (!HttpCaching.ifRangeMatches(request, etag, st.lastModified())) return null;
+
+        List<long[]> ranges = parseRanges(rangeHeader, fileLength);
+        if (ranges == null) return null; // 문법 오류는 무시 (RFC 9110)
+
+        if (ranges.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
                     .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength)
+                    .build();
+        }
+
+        var builder = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, HttpCaching.IMMUTABLE);
+        if (st.lastModified() > 0) builder.lastModified(st.lastModified());
+
+        if (ranges.size() == 1) {
+            long start = ranges.get(0)[0], end = ranges.get(0)[1]; // inclusive
+            long len = end - start + 1;
+            return builder
+                    .contentType(DICOM)
+                    .contentLength(len)
                     .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileLength)
-                    .body(buf);
+                    .body(rangeBody(request, meta, start, len));
+        }
+
+        // 다중 Range → multipart/byteranges (파트 헤더를 미리 만들어 Content-Length 계산)
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        byte[][] partHeaders = new byte[ranges.size()][];
+        long contentLength = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            long start = ranges.get(i)[0], end = ranges.get(i)[1];
+            partHeaders[i] = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: application/dicom\r\n"
+                    + "Content-Range: bytes " + start + "-" + end + "/" + fileLength + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + (end - start + 1);
         }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        return builder
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .contentLength(contentLength)
+                .body(out -> {
+                    try (RandomReadable file = files.openRandomAccess(meta, true)) {
+                        for (int i = 0; i < ranges.size(); i++) {
+                            long start = ranges.get(i)[0], end = ranges.get(i)[1];
+                            out.write(partHeaders[i]);
+                            file.transferTo(start, end - start + 1, out);
+                        }
+                        out.write(closing);
+                    }
+                });
+    }
+
+    /** 전체 파일 바디 - 로컬이면 zero-copy, 원격이면 고정 버퍼 스트리밍. 파일은 바디 실행 시 연다 */
+    private StreamingResponseBody fullBody(HttpServletRequest request, ImageMetaDto meta, long length)
+            throws IOException {
+        Path onDisk = sendfileSupported(request) ? files.localPath(meta) : null;
+        if (onDisk != null) {
+            sendfile(request, onDisk, 0, length);
+            return null;
+        }
+        return out -> {
+            try (StoredFile file = files.open(meta)) {
+                if (file.isLocal()) {
+                    // 이미 연 스트림을 쥔 채로 채널을 연다 - 그 사이 축출됐으면 열린 스트림으로 보낸다
+                    RandomReadable local;
+                    try {
+                        local = new LocalRandomReadable(file.localPath());
+                    } catch (NoSuchFileException e) {
+                        copyN(file.stream(), out, file.length());
+                        return;
+                    }
+                    try (local) {
+                        local.transferTo(0, file.length(), out);
+                    }
+                    return;
+                }
+                copyN(file.stream(), out, file.length());
+            }
+        };
+    }
+
+    /** 단일 구간 바디 - 로컬이면 sendfile/transferTo, 원격이면 seek 후 해당 구간만 읽음 */
+    private StreamingResponseBody rangeBody(HttpServletRequest request, ImageMetaDto meta, long start, long len)
+            throws IOException {
+        Path onDisk = sendfileSupported(request) ? files.localPath(meta) : null;
+        if (onDisk != null) {
+            sendfile(request, onDisk, start, len);
+            return null;
+        }
+        return out -> {
+            try (RandomReadable file = files.openRandomAccess(meta, true)) {
+                file.transferTo(start, len, out);
+            }
+        };
+    }
+
+    /** Tomcat sendfile 을 쓸 수 있는 요청인지 - 아니면 캐시 항목을 고정(pin)할 필요도 없다 */
+    private static boolean sendfileSupported(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED));
     }
 
-    private static long[] parseRange(String header, long fileLen) {
-        // "bytes=start-end" (end optional)
-        String v = header.trim().toLowerCase().replace("bytes=", "");
-        String[] p = v.split("-", 2);
-        long start = Long.parseLong(p[0]);
-        long end = (p.length > 1 && !p[1].isEmpty()) ? Long.parseLong(p[1]) : (fileLen - 1);
-        if (end >= fileLen) end = fileLen - 1;
-        if (start < 0 || start > end) throw new IllegalArgumentException("Invalid Range");
-        return new long[]{start, end};
+    /** 파일명을 요청 속성으로 넘김 → 바디 없이 반환하면 커널이 직접 전송 */
+    private static void sendfile(HttpServletRequest request, Path path, long start, long len) {
+        request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, start + len); // exclusive
     }
 
-    private static byte[] readAll(InputStream in, long size) throws IOException {
-        try (in) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream((int) size);
-            in.transferTo(out);
-            return out.toByteArray();
+    /**
+     * "bytes=0-99,200-,-500" 파싱 (inclusive 구간 목록).
+     * 문법 오류면 null, 만족 가능한 구간이 하나도 없으면 빈 리스트.
+     */
+    static List<long[]> parseRanges(String header, long fileLen) {
+        String h = header.trim();
+        if (!h.regionMatches(true, 0, "bytes=", 0, 6)) return null;
+        String[] specs = h.substring(6).split(",");
+        if (specs.length > MAX_RANGES) return null;
+
+        List<long[]> ranges = new ArrayList<>(specs.length);
+        for (String raw : specs) {
+            String spec = raw.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) return null;
+            String a = spec.substring(0, dash).trim();
+            String b = spec.substring(dash + 1).trim();
+            try {
+                if (a.isEmpty()) {
+                    // suffix: 마지막 N 바이트
+                    if (b.isEmpty()) return null;
+                    long suffix = Long.parseLong(b);
+                    if (suffix < 0) return null;
+                    if (suffix == 0 || fileLen == 0) continue;
+                    ranges.add(new long[]{Math.max(0, fileLen - suffix), fileLen - 1});
+                } else {
+                    long start = Long.parseLong(a);
+                    long end = b.isEmpty() ? fileLen - 1 : Long.parseLong(b);
+                    if (start < 0 || end < start) return null;
+                    if (start >= fileLen) continue; // 만족 불가 구간
+                    ranges.add(new long[]{start, Math.min(end, fileLen - 1)});
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
         }
+        return ranges;
     }
 
-    private static byte[] readN(InputStream in, long len) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream((int) len);
-        byte[] buf = new byte[8192];
+    /** 고정 크기 버퍼로 len 바이트를 in → out 복사 (전체를 메모리에 올리지 않음) */
+    private static void copyN(InputStream in, OutputStream out, long len) throws IOException {
+        byte[] buf = new byte[STREAM_BUFFER_SIZE];
         long remaining = len;
         while (remaining > 0) {
             int toRead = (int) Math.min(buf.length, remaining);
             int r = in.read(buf, 0, toRead);
-            if (r == -1) break;
+            if (r == -1) throw new EOFException("예상보다 파일이 짧음: " + remaining + " bytes 부족");
             out.write(buf, 0, r);
             remaining -= r;
         }
-        return out.toByteArray();
+        out.flush();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 조건부 요청(ETag / Last-Modified) 처리 유틸.
+ * SOP 인스턴스는 보관 후 바뀌지 않으므로 강한 ETag + immutable 캐시를 쓴다.
+ */
+final class HttpCaching {
+
+    /** 인스턴스 파일: 1년 + immutable (브라우저/프록시/CDN 재검증 없이 재사용) */
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    /** 매니페스트: 저장은 하되 매번 재검증 (304로 끝나도록) */
+    static final String REVALIDATE = "no-cache";
+
+    private HttpCaching() {}
+
+    /** SOP UID + 크기 + 수정시각 기반 강한 ETag */
+    static String instanceEtag(String sopUid, long length, long lastModified) {
+        return strongEtag((sopUid + "|" + length + "|" + lastModified).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 바이트 내용 기반 강한 ETag */
+    static String strongEtag(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    static boolean hasConditional(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * If-None-Match(우선) / If-Modified-Since 기준으로 304를 보내도 되면 true.
+     * If-None-Match 는 약한 비교(W/ 무시).
+     */
+    static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String inm = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (inm != null) {
+            return etagListContains(inm, etag, false);
+        }
+        if (lastModified <= 0) return false;
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return since >= 0 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * If-Range 검증자가 현재 표현과 같으면 true (헤더 없으면 true).
+     * ETag 는 강한 비교, 날짜는 초 단위 일치.
+     */
+    static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        String v = ifRange.trim();
+        if (v.startsWith("\"") || v.startsWith("W/")) {
+            return etag != null && etagListContains(v, etag, true);
+        }
+        if (lastModified <= 0) return false;
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date / 1000 == lastModified / 1000; // HTTP-date 는 초 단위
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean etagListContains(String header, String etag, boolean strong) {
+        String h = header.trim();
+        if (h.equals("*")) return !strong;
+        for (String raw : h.split(",")) {
+            String t = raw.trim();
+            if (t.startsWith("W/")) {
+                if (strong) continue;
+                t = t.substring(2);
+            }
+            if (t.equals(etag)) return true;
+        }
+        return false;
+    }
+}
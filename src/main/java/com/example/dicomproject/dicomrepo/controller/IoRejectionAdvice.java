@@ -0,0 +1,24 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * dicom-io 실행기 포화 → 500 대신 503 + Retry-After (뷰어 프리페치는 재시도하면 됨)
+ */
+@RestControllerAdvice
+public class IoRejectionAdvice {
+
+    @ExceptionHandler({TaskRejectedException.class, RejectedExecutionException.class})
+    public ResponseEntity<Void> rejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import java.util.Objects;
+
+/**
+ * 메모리 캐시/색인 키용 DICOM UID - 숫자와 '.' 만 쓰므로 글자당 4비트로 long 4개(최대 64자, UI VR 한도)에 담는다.
+ * 배열도 문자열도 없이 필드에 바로 넣어 String(헤더 + byte[]) 대비 절반 이하 크기이고 (of() 도 임시 배열 없이 지역 변수로 채운다),
+ * 해시는 만들 때 한 번 계산, equals 는 long 4개 비교. 문자열은 toString() 때마다 만든다 (보관하지 않음).
+ * 규격 밖 값(다른 문자, 64자 초과)은 원래 문자열을 그대로 들고 있다.
+ *
+ * 니블: 0 = 끝, '0'–'9' = 1–10, '.' = 11. i 번째 글자는 w[i / 16] 의 (i % 16) * 4 비트.
+ */
+public final class DicomUid {
+
+    private static final int MAX_PACKED = 64;
+
+    private final long w0, w1, w2, w3;
+    private final String raw;   // 규격 밖 값일 때만
+    private final int hash;
+
+    private DicomUid(long w0, long w1, long w2, long w3, String raw, int hash) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        this.raw = raw;
+        this.hash = hash;
+    }
+
+    public static DicomUid of(String uid) {
+        Objects.requireNonNull(uid, "uid");
+        int n = uid.length();
+        if (n > MAX_PACKED) return new DicomUid(0, 0, 0, 0, uid, uid.hashCode());
+        long w0 = 0, w1 = 0, w2 = 0, w3 = 0;
+        for (int i = 0; i < n; i++) {
+            char c = uid.charAt(i);
+            long nibble;
+            if (c >= '0' && c <= '9') nibble = c - '0' + 1;
+            else if (c == '.') nibble = 11;
+            else return new DicomUid(0, 0, 0, 0, uid, uid.hashCode());
+            long bits = nibble << ((i & 15) << 2);
+            switch (i >>> 4) {
+                case 0 -> w0 |= bits;
+                case 1 -> w1 |= bits;
+                case 2 -> w2 |= bits;
+                default -> w3 |= bits;
+            }
+        }
+        return new DicomUid(w0, w1, w2, w3, null, mix(w0, w1, w2, w3));
+    }
+
+    public int length() {
+        if (raw != null) return raw.length();
+        int n = 0;
+        while (n < MAX_PACKED && nibble(n) != 0) n++;
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        if (raw != null) return raw;
+        char[] out = new char[MAX_PACKED];
+        int n = 0;
+        for (; n < MAX_PACKED; n++) {
+            int v = nibble(n);
+            if (v == 0) break;
+            out[n] = v == 11 ? '.' : (char) ('0' + v - 1);
+        }
+        return new String(out, 0, n);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DicomUid u) || hash != u.hash) return false;
+        if (raw != null || u.raw != null) return Objects.equals(raw, u.raw);
+        return w0 == u.w0 && w1 == u.w1 && w2 == u.w2 && w3 == u.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private int nibble(int i) {
+        long word = switch (i >>> 4) {
+            case 0 -> w0;
+            case 1 -> w1;
+            case 2 -> w2;
+            default -> w3;
+        };
+        return (int) (word >>> ((i & 15) << 2)) & 0xF;
+    }
+
+    /** UID 는 앞부분(조직 root)이 같고 뒤만 다르므로 모든 워드를 섞는다 */
+    private static int mix(long w0, long w1, long w2, long w3) {
+        long h = w0 * 0x9E3779B97F4A7C15L;
+        h = (h ^ w1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ w2) * 0x9E3779B97F4A7C15L;
+        h = (h ^ w3) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
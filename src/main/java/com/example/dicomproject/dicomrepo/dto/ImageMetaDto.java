@@ -10,5 +10,6 @@ public record ImageMetaDto(
         String sopInstanceUid,
         String path,   // 폴더
         String fname,  // 파일명
-        String modality
+        String modality,
+        Long storageId // IMAGETAB.STSTORAGEID - 읽을 저장소
 ) {}
\ No newline at end of file
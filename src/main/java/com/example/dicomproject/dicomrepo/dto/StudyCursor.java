@@ -0,0 +1,39 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 스터디 검색 keyset 커서 - 마지막으로 내려준 행의 정렬 키 (studyDate desc, studyTime desc, studyKey desc).
+ * 클라이언트에는 base64url 문자열로만 보내고 내용은 해석하지 않게 한다.
+ * 날짜/시각이 null 인 행은 정렬과 같은 기본값(NULL_DATE/NULL_TIME)으로 비교한다.
+ */
+public record StudyCursor(String studyDate, String studyTime, long studyKey) {
+
+    public static final String NULL_DATE = "00000000";
+    public static final String NULL_TIME = "000000";
+
+    public static StudyCursor after(StudySummaryDto last) {
+        return new StudyCursor(
+                last.studyDate() != null ? last.studyDate() : NULL_DATE,
+                last.studyTime() != null ? last.studyTime() : NULL_TIME,
+                last.studyKey());
+    }
+
+    public String encode() {
+        String raw = studyDate + "|" + studyTime + "|" + studyKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException 형식이 맞지 않는 커서 */
+    public static StudyCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) throw new IllegalArgumentException("잘못된 커서");
+            return new StudyCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) { // Base64 오류, NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서: " + token, e);
+        }
+    }
+}
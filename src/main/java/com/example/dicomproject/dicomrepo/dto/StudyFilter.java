@@ -0,0 +1,36 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 정규화된 스터디 검색 조건 - 빈 문자열은 null, 모달리티 CSV 는 목록으로.
+ * 같은 의미의 조건이 같은 값이 되므로 건수/결과 캐시 키로 쓴다 (모달리티는 중복 제거 + 정렬).
+ */
+public record StudyFilter(
+        String q, String accession, String studyDesc,
+        List<String> modalities, String bodyPart, String fromDate, String toDate
+) {
+
+    public static StudyFilter of(StudySearchCondition c) {
+        return new StudyFilter(
+                emptyToNull(c.q()),
+                emptyToNull(c.accession()),
+                emptyToNull(c.studyDesc()),
+                parseModalities(emptyToNull(c.modality())),
+                emptyToNull(c.bodyPart()),
+                emptyToNull(c.fromDate()),
+                emptyToNull(c.toDate()));
+    }
+
+    private static String emptyToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+
+    private static List<String> parseModalities(String csv) {
+        if (csv == null || csv.isBlank()) return null; // 빈은 null
+        List<String> list = Arrays.stream(csv.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).distinct().sorted().toList();
+        return list.isEmpty() ? null : list;
+    }
+}
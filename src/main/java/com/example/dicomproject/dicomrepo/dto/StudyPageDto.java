@@ -0,0 +1,9 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import org.springframework.data.domain.Page;
+
+/** Page 모드 검색 결과 - 전체 건수가 추정치인지 컨트롤러가 헤더로 알려줄 수 있게 함께 전달 */
+public record StudyPageDto(
+        Page<StudySummaryDto> page,
+        TotalCount.Mode countMode
+) {}
@@ -0,0 +1,11 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import java.util.List;
+
+/** 커서 기반 검색 결과 - 전체 건수 없이 다음 커서만 (hasNext=false 면 nextCursor=null) */
+public record StudySliceDto(
+        List<StudySummaryDto> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -0,0 +1,15 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+/** Page 모드 전체 건수 + 어떻게 얻었는지 (X-Total-Count-Mode 헤더) */
+public record TotalCount(long total, Mode mode) {
+
+    public enum Mode {
+        EXACT,      // 이번 요청에서 count 또는 마지막 페이지로 확정
+        CACHED,     // TTL 안의 캐시된 정확한 값 (그 사이 추가된 검사는 빠질 수 있음)
+        ESTIMATED;  // 옵티마이저 통계/표본 추정
+
+        public String header() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implicit VR 전송 구문에서 VR을 알아내기 위한 최소 사전.
+ * 뷰어가 쓰는 식별/기하/표시 관련 태그 위주이며, 모르는 태그는 UN 으로 취급한다.
+ */
+public final class DicomDictionary {
+
+    private static final Map<Integer, String> VR = new HashMap<>(256);
+
+    static {
+        // File Meta
+        put("UL", 0x00020000);
+        put("OB", 0x00020001);
+        put("UI", 0x00020002, 0x00020003, 0x00020010, 0x00020012);
+        put("SH", 0x00020013);
+        put("AE", 0x00020016);
+
+        // SOP Common / General Study / Series / Equipment
+        put("CS", 0x00080005, 0x00080008, 0x00080060, 0x00080064, 0x00100040, 0x00180015, 0x00185100,
+                0x00200020, 0x00180022, 0x00180071);
+        put("UI", 0x00080016, 0x00080018, 0x0020000D, 0x0020000E, 0x00200052, 0x00081150, 0x00081155,
+                0x00200200);
+        put("DA", 0x00080020, 0x00080021, 0x00080022, 0x00080023, 0x00100030);
+        put("TM", 0x00080030, 0x00080031, 0x00080032, 0x00080033);
+        put("DT", 0x0008002A);
+        put("SH", 0x00080050, 0x00200010, 0x00181210);
+        put("PN", 0x00080090, 0x00081050, 0x00081060, 0x00100010);
+        put("LO", 0x00080070, 0x00080080, 0x00081030, 0x0008103E, 0x00081090, 0x00100020, 0x00101000,
+                0x00181030, 0x00321060, 0x00400254, 0x00282114);
+        put("AS", 0x00101010);
+        put("LT", 0x00204000);
+
+        // 기하/획득
+        put("DS", 0x00101020, 0x00101030, 0x00180050, 0x00180060, 0x00180080, 0x00180081, 0x00180087,
+                0x00180088, 0x00181100, 0x00181164, 0x00181314, 0x00200032, 0x00200037, 0x00201041,
+                0x00280030);
+        put("IS", 0x00180086, 0x00181150, 0x00181152, 0x00200011, 0x00200012, 0x00200013, 0x00201206,
+                0x00201208, 0x00201209, 0x00280008, 0x00280034);
+
+        // 이미지 픽셀 / VOI / Modality LUT
+        put("US", 0x00280002, 0x00280006, 0x00280010, 0x00280011, 0x00280100, 0x00280101, 0x00280102,
+                0x00280103, 0x00281101, 0x00281102, 0x00281103);
+        put("CS", 0x00280004, 0x00281041, 0x00280300, 0x00282110);
+        put("AT", 0x00280009);
+        put("SS", 0x00280106, 0x00280107, 0x00280108);
+        put("DS", 0x00281050, 0x00281051, 0x00281052, 0x00281053);
+        put("LO", 0x00281054, 0x00281055);
+
+        // 시퀀스
+        put("SQ", 0x00081032, 0x00081115, 0x00081140, 0x00082112, 0x00082218, 0x00089215, 0x00186011,
+                0x00209113, 0x00209116, 0x00283010, 0x00289110, 0x00289132, 0x00289145, 0x00400275,
+                0x00540016, 0x00540220, 0x52009229, 0x52009230);
+
+        // 픽셀 데이터 / 오프셋 테이블
+        put("OW", 0x7FE00010);
+        put("OV", 0x7FE00001);
+        put("OL", 0x7FE00002);
+    }
+
+    private DicomDictionary() {}
+
+    private static void put(String vr, int... tags) {
+        for (int t : tags) VR.put(t, vr);
+    }
+
+    public static String vrOf(int tag) {
+        if ((tag & 0xFFFF) == 0) return "UL";               // 그룹 길이
+        if (((tag >>> 16) & 1) == 1) return "UN";           // 사설 태그
+        String vr = VR.get(tag);
+        return vr != null ? vr : "UN";
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import java.util.List;
+
+/**
+ * 헤더의 데이터 요소 하나.
+ * - value: 인라인으로 읽은 값 (큰 값/시퀀스는 null)
+ * - items: SQ 아이템 목록 (SQ가 아니면 null)
+ * - valueOffset/length: 파일 내 값 위치 (큰 값은 BulkData 로 참조)
+ */
+public record DicomElement(
+        int tag,
+        String vr,
+        byte[] value,
+        long valueOffset,
+        long length,
+        List<List<DicomElement>> items
+) {
+    public int group() {
+        return tag >>> 16;
+    }
+
+    public boolean isSequence() {
+        return items != null;
+    }
+
+    public boolean isBulk() {
+        return value == null && items == null;
+    }
+}
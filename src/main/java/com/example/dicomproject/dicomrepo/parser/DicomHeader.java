@@ -0,0 +1,116 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 픽셀 데이터 직전까지 읽은 헤더.
+ * pixelDataOffset 은 (7FE0,0010) 값의 시작 위치, pixelDataLength 가 -1 이면 encapsulated(정의되지 않은 길이).
+ */
+public record DicomHeader(
+        String transferSyntaxUid,
+        boolean explicitVr,
+        boolean bigEndian,
+        List<DicomElement> fileMeta,
+        List<DicomElement> elements,
+        long pixelDataOffset,   // 없으면 -1
+        long pixelDataLength,   // encapsulated 면 -1
+        long fileLength
+) {
+    public static final String IMPLICIT_LE = "1.2.840.10008.1.2";
+    public static final String EXPLICIT_LE = "1.2.840.10008.1.2.1";
+    public static final String DEFLATED_LE = "1.2.840.10008.1.2.1.99";
+    public static final String EXPLICIT_BE = "1.2.840.10008.1.2.2";
+
+    public boolean hasPixelData() {
+        return pixelDataOffset >= 0;
+    }
+
+    public boolean isEncapsulated() {
+        return hasPixelData() && pixelDataLength < 0;
+    }
+
+    public DicomElement find(int tag) {
+        for (DicomElement e : elements) {
+            if (e.tag() == tag) return e;
+            if (Integer.compareUnsigned(e.tag(), tag) > 0) break; // 태그 오름차순
+        }
+        return null;
+    }
+
+    /** 첫 번째 값 문자열 (앞뒤 공백/NUL 제거), 없으면 null */
+    public String string(int tag) {
+        String[] all = strings(tag);
+        return all.length == 0 ? null : all[0];
+    }
+
+    /** 백슬래시로 구분된 다중 값 */
+    public String[] strings(int tag) {
+        DicomElement e = find(tag);
+        if (e == null || e.value() == null || e.value().length == 0) return new String[0];
+        String s = new String(e.value(), StandardCharsets.ISO_8859_1);
+        String[] parts = s.split("\\\\", -1);
+        for (int i = 0; i < parts.length; i++) parts[i] = trim(parts[i]);
+        return parts;
+    }
+
+    public int intValue(int tag, int def) {
+        DicomElement e = find(tag);
+        if (e == null || e.value() == null || e.value().length == 0) return def;
+        byte[] v = e.value();
+        switch (e.vr()) {
+            case "US": return v.length >= 2 ? u16(v, 0) : def;
+            case "SS": return v.length >= 2 ? (short) u16(v, 0) : def;
+            case "UL", "SL": return v.length >= 4 ? (int) u32(v, 0) : def;
+            default:
+                String s = string(tag);
+                if (s == null || s.isEmpty()) return def;
+                try {
+                    return (int) Double.parseDouble(s);
+                } catch (NumberFormatException ex) {
+                    return def;
+                }
+        }
+    }
+
+    public double doubleValue(int tag, double def) {
+        DicomElement e = find(tag);
+        if (e == null || e.value() == null || e.value().length == 0) return def;
+        byte[] v = e.value();
+        switch (e.vr()) {
+            case "FD": return v.length >= 8 ? Double.longBitsToDouble(u64(v, 0)) : def;
+            case "FL": return v.length >= 4 ? Float.intBitsToFloat((int) u32(v, 0)) : def;
+            case "US", "SS", "UL", "SL": return intValue(tag, (int) def);
+            default:
+                String s = string(tag);
+                if (s == null || s.isEmpty()) return def;
+                try {
+                    return Double.parseDouble(s);
+                } catch (NumberFormatException ex) {
+                    return def;
+                }
+        }
+    }
+
+    int u16(byte[] v, int i) {
+        int a = v[i] & 0xFF, b = v[i + 1] & 0xFF;
+        return bigEndian ? (a << 8) | b : a | (b << 8);
+    }
+
+    long u32(byte[] v, int i) {
+        long a = v[i] & 0xFF, b = v[i + 1] & 0xFF, c = v[i + 2] & 0xFF, d = v[i + 3] & 0xFF;
+        return bigEndian ? (a << 24) | (b << 16) | (c << 8) | d : a | (b << 8) | (c << 16) | (d << 24);
+    }
+
+    long u64(byte[] v, int i) {
+        long lo = u32(v, bigEndian ? i + 4 : i), hi = u32(v, bigEndian ? i : i + 4);
+        return (hi << 32) | lo;
+    }
+
+    private static String trim(String s) {
+        int b = 0, e = s.length();
+        while (b < e && (s.charAt(b) <= ' ')) b++;
+        while (e > b && (s.charAt(e - 1) <= ' ')) e--;
+        return s.substring(b, e);
+    }
+}
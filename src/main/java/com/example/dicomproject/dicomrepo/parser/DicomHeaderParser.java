@@ -0,0 +1,207 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.example.dicomproject.storage.RandomReadable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 스트리밍 DICOM 헤더 파서 - Pixel Data (7FE0,0010) 에서 멈춘다.
+ * 큰 값(기본 64 KiB 초과)은 읽지 않고 위치만 기록하므로, 원격 파일에서도 보통 앞부분 몇 KB만 읽는다.
+ * 지원: Implicit/Explicit VR Little Endian, Explicit VR Big Endian, encapsulated 전송 구문.
+ */
+public final class DicomHeaderParser {
+
+    public static final int PIXEL_DATA = 0x7FE00010;
+    static final int ITEM = 0xFFFEE000;
+    static final int ITEM_DELIMITATION = 0xFFFEE00D;
+    static final int SEQUENCE_DELIMITATION = 0xFFFEE0DD;
+    static final long UNDEFINED_LENGTH = 0xFFFFFFFFL;
+
+    private static final int MAX_INLINE_VALUE = 64 * 1024;
+    private static final int TRANSFER_SYNTAX_UID = 0x00020010;
+
+    /** Explicit VR 에서 4바이트 길이를 쓰는 VR */
+    private static final Set<String> LONG_VRS = Set.of(
+            "OB", "OD", "OF", "OL", "OV", "OW", "SQ", "SV", "UC", "UN", "UR", "UT", "UV");
+
+    private final DicomInput in;
+    private boolean explicitVr;
+    private long pixelDataOffset = -1;
+    private long pixelDataLength = -1;
+
+    private DicomHeaderParser(DicomInput in) {
+        this.in = in;
+    }
+
+    public static DicomHeader parse(RandomReadable file) throws IOException {
+        return new DicomHeaderParser(new DicomInput(file)).parse();
+    }
+
+    /** 파싱 후 같은 입력으로 이어서(픽셀 데이터 구간) 읽어야 할 때 */
+    public static DicomHeader parse(DicomInput in) throws IOException {
+        return new DicomHeaderParser(in).parse();
+    }
+
+    private DicomHeader parse() throws IOException {
+        // 1) 128바이트 프리앰블 + "DICM"
+        List<DicomElement> meta = List.of();
+        String tsuid = DicomHeader.IMPLICIT_LE;
+        if (in.length() >= 132 && hasMagic()) {
+            in.seek(132);
+            meta = readFileMeta();
+            String ts = metaString(meta, TRANSFER_SYNTAX_UID);
+            if (ts != null) tsuid = ts;
+        } else {
+            in.seek(0);
+            explicitVr = looksExplicit(); // 프리앰블 없는 raw 데이터셋
+            tsuid = explicitVr ? DicomHeader.EXPLICIT_LE : DicomHeader.IMPLICIT_LE;
+        }
+
+        if (DicomHeader.DEFLATED_LE.equals(tsuid)) {
+            throw new IOException("지원하지 않는 전송 구문(Deflated): " + tsuid);
+        }
+        if (!meta.isEmpty()) {
+            explicitVr = !DicomHeader.IMPLICIT_LE.equals(tsuid);
+        }
+        in.setBigEndian(DicomHeader.EXPLICIT_BE.equals(tsuid));
+
+        // 2) 본 데이터셋 - 최상위 Pixel Data 에서 멈춤
+        List<DicomElement> elements = readDataset(-1, true);
+        return new DicomHeader(tsuid, explicitVr, in.isBigEndian(), meta, elements,
+                pixelDataOffset, pixelDataOffset >= 0 ? pixelDataLength : -1, in.length());
+    }
+
+    private boolean hasMagic() throws IOException {
+        in.seek(128);
+        return in.u8() == 'D' && in.u8() == 'I' && in.u8() == 'C' && in.u8() == 'M';
+    }
+
+    private boolean looksExplicit() throws IOException {
+        if (in.length() < 6) return false;
+        in.seek(4);
+        int a = in.u8(), b = in.u8();
+        in.seek(0);
+        return a >= 'A' && a <= 'Z' && b >= 'A' && b <= 'Z';
+    }
+
+    /** 그룹 0002 - 항상 Explicit VR Little Endian */
+    private List<DicomElement> readFileMeta() throws IOException {
+        explicitVr = true;
+        in.setBigEndian(false);
+        List<DicomElement> meta = new ArrayList<>();
+        while (in.hasRemaining()) {
+            long mark = in.position();
+            int group = in.u16();
+            in.seek(mark);
+            if (group != 0x0002) break;
+            DicomElement e = readElement(false);
+            if (e == null) break;
+            meta.add(e);
+        }
+        return meta;
+    }
+
+    private static String metaString(List<DicomElement> meta, int tag) {
+        for (DicomElement e : meta) {
+            if (e.tag() == tag && e.value() != null) {
+                return new String(e.value(), StandardCharsets.US_ASCII).replace("\0", "").trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 데이터셋 읽기.
+     * end >= 0 이면 해당 위치까지, -1 이면 Item Delimitation 또는 파일 끝까지.
+     */
+    private List<DicomElement> readDataset(long end, boolean topLevel) throws IOException {
+        List<DicomElement> out = new ArrayList<>();
+        while (in.hasRemaining() && (end < 0 || in.position() < end)) {
+            DicomElement e = readElement(topLevel);
+            if (e == null) break;          // Item Delimitation 또는 Pixel Data
+            out.add(e);
+        }
+        return out;
+    }
+
+    /** 요소 하나 읽기. 아이템 종료 구분자/최상위 Pixel Data 면 null */
+    private DicomElement readElement(boolean topLevel) throws IOException {
+        int tag = in.tag();
+        if (tag == ITEM_DELIMITATION) {
+            in.u32();
+            return null;
+        }
+
+        String vr;
+        long length;
+        if (explicitVr) {
+            vr = in.vr();
+            if (LONG_VRS.contains(vr)) {
+                in.skip(2);
+                length = in.u32();
+            } else if (isVr(vr)) {
+                length = in.u16();
+            } else {
+                // 잘못된 VR → implicit 로 다시 해석
+                in.skip(-2);
+                length = in.u32();
+                vr = DicomDictionary.vrOf(tag);
+            }
+        } else {
+            length = in.u32();
+            vr = DicomDictionary.vrOf(tag);
+        }
+        long valueOffset = in.position();
+
+        if (topLevel && tag == PIXEL_DATA) {
+            pixelDataOffset = valueOffset;
+            pixelDataLength = length == UNDEFINED_LENGTH ? -1 : length;
+            return null;
+        }
+
+        if ("SQ".equals(vr) || length == UNDEFINED_LENGTH) {
+            // explicit 파일 안의 UN + 정의되지 않은 길이 = implicit LE 로 인코딩된 시퀀스
+            boolean switchToImplicit = explicitVr && "UN".equals(vr);
+            if (switchToImplicit) explicitVr = false;
+            try {
+                List<List<DicomElement>> items = readSequence(length);
+                return new DicomElement(tag, "SQ", null, valueOffset, length, items);
+            } finally {
+                if (switchToImplicit) explicitVr = true;
+            }
+        }
+
+        if (length > MAX_INLINE_VALUE) {
+            in.skip(length);
+            return new DicomElement(tag, vr, null, valueOffset, length, null);
+        }
+        return new DicomElement(tag, vr, in.bytes((int) length), valueOffset, length, null);
+    }
+
+    private List<List<DicomElement>> readSequence(long length) throws IOException {
+        long end = length == UNDEFINED_LENGTH ? -1 : in.position() + length;
+        List<List<DicomElement>> items = new ArrayList<>();
+        while (in.hasRemaining() && (end < 0 || in.position() < end)) {
+            int tag = in.tag();
+            long itemLength = in.u32();
+            if (tag == SEQUENCE_DELIMITATION) break;
+            if (tag != ITEM) {
+                throw new IOException(String.format("시퀀스 아이템 태그가 아님: %08X @%d", tag, in.position() - 8));
+            }
+            long itemEnd = itemLength == UNDEFINED_LENGTH ? -1 : in.position() + itemLength;
+            items.add(readDataset(itemEnd, false));
+            if (itemEnd >= 0) in.seek(itemEnd);
+        }
+        if (end >= 0) in.seek(end);
+        return items;
+    }
+
+    private static boolean isVr(String vr) {
+        char a = vr.charAt(0), b = vr.charAt(1);
+        return a >= 'A' && a <= 'Z' && b >= 'A' && b <= 'Z';
+    }
+}
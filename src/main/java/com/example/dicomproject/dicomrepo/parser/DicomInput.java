@@ -0,0 +1,121 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.example.dicomproject.storage.RandomReadable;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * RandomReadable 위의 버퍼드 위치 기반 리더.
+ * 작은 값은 내부 버퍼에서 읽고, 큰 값은 seek 으로 건너뛰므로 원격(SMB)에서도 필요한 구간만 읽는다.
+ */
+public final class DicomInput {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final RandomReadable src;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private long bufStart;
+    private int bufLen;
+    private long pos;
+    private boolean bigEndian;
+
+    public DicomInput(RandomReadable src) {
+        this.src = src;
+    }
+
+    public long length() {
+        return src.length();
+    }
+
+    public long position() {
+        return pos;
+    }
+
+    public void seek(long position) {
+        this.pos = position;
+    }
+
+    public void skip(long n) {
+        this.pos += n;
+    }
+
+    public boolean isBigEndian() {
+        return bigEndian;
+    }
+
+    public void setBigEndian(boolean bigEndian) {
+        this.bigEndian = bigEndian;
+    }
+
+    public boolean hasRemaining() {
+        return pos < src.length();
+    }
+
+    public int u8() throws IOException {
+        ensure(1);
+        return buf[(int) (pos++ - bufStart)] & 0xFF;
+    }
+
+    public int u16() throws IOException {
+        ensure(2);
+        int i = (int) (pos - bufStart);
+        pos += 2;
+        int a = buf[i] & 0xFF, b = buf[i + 1] & 0xFF;
+        return bigEndian ? (a << 8) | b : a | (b << 8);
+    }
+
+    public long u32() throws IOException {
+        ensure(4);
+        int i = (int) (pos - bufStart);
+        pos += 4;
+        long a = buf[i] & 0xFF, b = buf[i + 1] & 0xFF, c = buf[i + 2] & 0xFF, d = buf[i + 3] & 0xFF;
+        return bigEndian ? (a << 24) | (b << 16) | (c << 8) | d : a | (b << 8) | (c << 16) | (d << 24);
+    }
+
+    /** 태그 (group << 16 | element) */
+    public int tag() throws IOException {
+        int group = u16();
+        int element = u16();
+        return (group << 16) | element;
+    }
+
+    /** 2바이트 ASCII (VR) */
+    public String vr() throws IOException {
+        ensure(2);
+        int i = (int) (pos - bufStart);
+        pos += 2;
+        return new String(new char[]{(char) (buf[i] & 0xFF), (char) (buf[i + 1] & 0xFF)});
+    }
+
+    public byte[] bytes(int n) throws IOException {
+        byte[] out = new byte[n];
+        if (n <= BUFFER_SIZE) {
+            ensure(n);
+            System.arraycopy(buf, (int) (pos - bufStart), out, 0, n);
+            pos += n;
+            return out;
+        }
+        int off = 0;
+        while (off < n) {
+            int r = src.read(pos, out, off, n - off);
+            if (r < 0) throw new EOFException("DICOM 값이 파일 끝을 넘음 @" + pos);
+            off += r;
+            pos += r;
+        }
+        return out;
+    }
+
+    /** [pos, pos+n) 이 버퍼에 있도록 채움 */
+    private void ensure(int n) throws IOException {
+        if (pos >= bufStart && pos + n <= bufStart + bufLen) return;
+        bufStart = pos;
+        bufLen = 0;
+        while (bufLen < n) {
+            int r = src.read(bufStart + bufLen, buf, bufLen, buf.length - bufLen);
+            if (r < 0) break;
+            bufLen += r;
+        }
+        if (bufLen < n) throw new EOFException("DICOM 파일이 예상보다 짧음 @" + pos);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DicomHeader → DICOM JSON (PS3.18 F.2).
+ * 헤더 파서가 건너뛴 큰 값(BulkData)은 값 없이 vr 만 쓴다.
+ * 파서는 Pixel Data 앞에서 멈추므로 (7FE0,0010) 은 헤더의 위치 정보로 vr 만 덧붙인다 - 값은 프레임 API 로 받는다.
+ */
+public final class DicomJsonWriter {
+
+    static final int SPECIFIC_CHARACTER_SET = 0x00080005;
+
+    private static final Set<String> STRING_VRS = Set.of(
+            "AE", "AS", "CS", "DA", "DT", "LO", "SH", "TM", "UC", "UI");
+    private static final Set<String> SINGLE_TEXT_VRS = Set.of("LT", "ST", "UT", "UR");
+    private static final Set<String> BINARY_VRS = Set.of("OB", "OD", "OF", "OL", "OV", "OW", "UN");
+
+    private DicomJsonWriter() {
+    }
+
+    public static byte[] toJson(DicomHeader header, JsonFactory factory) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(8 * 1024);
+        try (JsonGenerator g = factory.createGenerator(bos)) {
+            write(g, header);
+        }
+        return bos.toByteArray();
+    }
+
+    public static void write(JsonGenerator g, DicomHeader header) throws IOException {
+        Charset cs = charsetOf(header.strings(SPECIFIC_CHARACTER_SET));
+        ByteOrder order = header.bigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        g.writeStartObject();
+        writeElements(g, header.elements(), cs, order);
+        if (header.hasPixelData()) {
+            g.writeFieldName(String.format("%08X", DicomHeaderParser.PIXEL_DATA));
+            g.writeStartObject();
+            g.writeStringField("vr", pixelDataVr(header));
+            g.writeEndObject();
+        }
+        g.writeEndObject();
+    }
+
+    /** encapsulated 는 OB, native 는 BitsAllocated 가 8 이하면 OB 아니면 OW */
+    static String pixelDataVr(DicomHeader header) {
+        if (header.isEncapsulated()) return "OB";
+        return header.intValue(PixelInfo.BITS_ALLOCATED, 16) > 8 ? "OW" : "OB";
+    }
+
+    private static void writeDataset(JsonGenerator g, List<DicomElement> elements, Charset cs, ByteOrder order)
+            throws IOException {
+        g.writeStartObject();
+        writeElements(g, elements, cs, order);
+        g.writeEndObject();
+    }
+
+    private static void writeElements(JsonGenerator g, List<DicomElement> elements, Charset cs, ByteOrder order)
+            throws IOException {
+        for (DicomElement e : elements) {
+            if (e.group() == 0x0002) continue; // file meta 는 제외
+            g.writeFieldName(String.format("%08X", e.tag()));
+            g.writeStartObject();
+            g.writeStringField("vr", e.vr());
+            writeValue(g, e, cs, order);
+            g.writeEndObject();
+        }
+    }
+
+    private static void writeValue(JsonGenerator g, DicomElement e, Charset cs, ByteOrder order) throws IOException {
+        if (e.isSequence()) {
+            if (e.items().isEmpty()) return;
+            g.writeArrayFieldStart("Value");
+            for (List<DicomElement> item : e.items()) writeDataset(g, item, cs, order);
+            g.writeEndArray();
+            return;
+        }
+        byte[] v = e.value();
+        if (v == null || v.length == 0) return;
+
+        String vr = e.vr();
+        if (BINARY_VRS.contains(vr)) {
+            g.writeFieldName("InlineBinary");
+            g.writeBinary(v);
+            return;
+        }
+
+        g.writeArrayFieldStart("Value");
+        ByteBuffer buf = ByteBuffer.wrap(v).order(order);
+        switch (vr) {
+            case "US" -> { while (buf.remaining() >= 2) g.writeNumber(buf.getShort() & 0xFFFF); }
+            case "SS" -> { while (buf.remaining() >= 2) g.writeNumber(buf.getShort()); }
+            case "UL" -> { while (buf.remaining() >= 4) g.writeNumber(buf.getInt() & 0xFFFFFFFFL); }
+            case "SL" -> { while (buf.remaining() >= 4) g.writeNumber(buf.getInt()); }
+            case "SV" -> { while (buf.remaining() >= 8) g.writeNumber(buf.getLong()); }
+            case "UV" -> { while (buf.remaining() >= 8) g.writeNumber(Long.toUnsignedString(buf.getLong())); }
+            case "FL" -> { while (buf.remaining() >= 4) g.writeNumber(buf.getFloat()); }
+            case "FD" -> { while (buf.remaining() >= 8) g.writeNumber(buf.getDouble()); }
+            case "AT" -> {
+                while (buf.remaining() >= 4) {
+                    int group = buf.getShort() & 0xFFFF, elem = buf.getShort() & 0xFFFF;
+                    g.writeString(String.format("%04X%04X", group, elem));
+                }
+            }
+            case "IS", "DS" -> {
+                for (String s : split(v, StandardCharsets.US_ASCII)) {
+                    if (s.isEmpty()) g.writeNull();
+                    else writeNumber(g, s);
+                }
+            }
+            case "PN" -> {
+                for (String s : split(v, cs)) writePersonName(g, s);
+            }
+            default -> {
+                Charset c = "UI".equals(vr) || "CS".equals(vr) || "AE".equals(vr) ? StandardCharsets.US_ASCII : cs;
+                if (SINGLE_TEXT_VRS.contains(vr)) {
+                    g.writeString(trimEnd(decode(v, c)));
+                } else {
+                    for (String s : split(v, c)) {
+                        if (s.isEmpty()) g.writeNull();
+                        else g.writeString(s);
+                    }
+                }
+            }
+        }
+        g.writeEndArray();
+    }
+
+    private static void writeNumber(JsonGenerator g, String s) throws IOException {
+        try {
+            g.writeNumber(new BigDecimal(s.startsWith("+") ? s.substring(1) : s));
+        } catch (NumberFormatException ex) {
+            g.writeString(s); // 잘못 인코딩된 DS/IS 는 문자열로 보존
+        }
+    }
+
+    /** "가족^이름=한자=음성" → Alphabetic/Ideographic/Phonetic */
+    private static void writePersonName(JsonGenerator g, String s) throws IOException {
+        if (s.isEmpty()) {
+            g.writeNull();
+            return;
+        }
+        String[] groups = s.split("=", -1);
+        String[] names = {"Alphabetic", "Ideographic", "Phonetic"};
+        g.writeStartObject();
+        for (int i = 0; i < groups.length && i < names.length; i++) {
+            if (!groups[i].isEmpty()) g.writeStringField(names[i], groups[i]);
+        }
+        g.writeEndObject();
+    }
+
+    private static String[] split(byte[] v, Charset cs) {
+        String[] parts = decode(v, cs).split("\\\\", -1);
+        for (int i = 0; i < parts.length; i++) parts[i] = parts[i].trim();
+        return parts;
+    }
+
+    /** ISO 2022 이스케이프 시퀀스는 제거하고 디코딩 (IR 149 는 GR 영역 KS X 1001 = EUC-KR) */
+    private static String decode(byte[] v, Charset cs) {
+        int len = v.length;
+        while (len > 0 && v[len - 1] == 0) len--;
+        if (indexOf(v, len, (byte) 0x1B) < 0) return new String(v, 0, len, cs);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len);
+        for (int i = 0; i < len; i++) {
+            if (v[i] == 0x1B) {
+                // ESC $ ) C / ESC ( B / ESC - A ... : 중간 바이트(0x20~0x2F) + 최종 바이트 1개
+                i++;
+                while (i < len && v[i] >= 0x20 && v[i] <= 0x2F) i++;
+                continue;
+            }
+            out.write(v[i]);
+        }
+        return out.toString(cs);
+    }
+
+    private static int indexOf(byte[] v, int len, byte b) {
+        for (int i = 0; i < len; i++) if (v[i] == b) return i;
+        return -1;
+    }
+
+    private static String trimEnd(String s) {
+        int e = s.length();
+        while (e > 0 && s.charAt(e - 1) <= ' ') e--;
+        return s.substring(0, e);
+    }
+
+    /** Specific Character Set → Java Charset (마지막으로 지정된 확장 문자셋 기준) */
+    static Charset charsetOf(String[] terms) {
+        Charset cs = StandardCharsets.ISO_8859_1;
+        for (String t : terms) {
+            String term = t.replace("ISO 2022 ", "ISO_").replace(' ', '_');
+            switch (term) {
+                case "ISO_IR_192" -> cs = StandardCharsets.UTF_8;
+                case "ISO_IR_149" -> cs = Charset.forName("x-windows-949");
+                case "ISO_IR_13" -> cs = Charset.forName("Shift_JIS");
+                case "GB18030", "GBK" -> cs = Charset.forName("GB18030");
+                case "ISO_IR_144" -> cs = Charset.forName("ISO-8859-5");
+                case "ISO_IR_127" -> cs = Charset.forName("ISO-8859-6");
+                case "ISO_IR_126" -> cs = Charset.forName("ISO-8859-7");
+                case "ISO_IR_138" -> cs = Charset.forName("ISO-8859-8");
+                default -> { /* ISO_IR 6 / 100 / 빈 값 → Latin-1 */ }
+            }
+        }
+        return cs;
+    }
+}
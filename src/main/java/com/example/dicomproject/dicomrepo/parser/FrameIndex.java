@@ -0,0 +1,84 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 인스턴스 하나의 프레임 → 파일 내 바이트 구간 인덱스.
+ * 프레임 n(0-based)은 조각 [frameStarts[n], frameStarts[n+1]) 을 이어 붙인 바이트다.
+ * 비압축이면 프레임당 조각 1개, encapsulated 면 조각(fragment) 여러 개일 수 있다.
+ */
+public record FrameIndex(
+        String transferSyntaxUid,
+        boolean encapsulated,
+        long fileLength,
+        PixelInfo pixel,
+        long[] fragmentOffsets,
+        int[] fragmentLengths,
+        int[] frameStarts
+) {
+    private static final int MAGIC = 0x44464958; // "DFIX"
+    private static final int VERSION = 1;
+
+    public int frameCount() {
+        return frameStarts.length - 1;
+    }
+
+    /** 프레임 바이트 수 (0-based) */
+    public long frameLength(int frame) {
+        long sum = 0;
+        for (int f = frameStarts[frame]; f < frameStarts[frame + 1]; f++) sum += fragmentLengths[f];
+        return sum;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(transferSyntaxUid);
+        out.writeBoolean(encapsulated);
+        out.writeLong(fileLength);
+        out.writeInt(pixel.rows());
+        out.writeInt(pixel.columns());
+        out.writeInt(pixel.samplesPerPixel());
+        out.writeInt(pixel.bitsAllocated());
+        out.writeInt(pixel.bitsStored());
+        out.writeInt(pixel.highBit());
+        out.writeInt(pixel.pixelRepresentation());
+        out.writeInt(pixel.planarConfiguration());
+        out.writeUTF(pixel.photometricInterpretation());
+        out.writeInt(pixel.numberOfFrames());
+        out.writeDouble(pixel.rescaleSlope());
+        out.writeDouble(pixel.rescaleIntercept());
+        out.writeDouble(pixel.windowCenter());
+        out.writeDouble(pixel.windowWidth());
+        out.writeInt(pixel.instanceNumber());
+        out.writeInt(fragmentOffsets.length);
+        for (int i = 0; i < fragmentOffsets.length; i++) {
+            out.writeLong(fragmentOffsets[i]);
+            out.writeInt(fragmentLengths[i]);
+        }
+        out.writeInt(frameStarts.length);
+        for (int s : frameStarts) out.writeInt(s);
+    }
+
+    public static FrameIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("frame index 형식 불일치");
+        String ts = in.readUTF();
+        boolean encapsulated = in.readBoolean();
+        long fileLength = in.readLong();
+        PixelInfo pixel = new PixelInfo(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                in.readInt(), in.readInt(), in.readInt(), in.readUTF(), in.readInt(),
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt());
+        int n = in.readInt();
+        long[] offsets = new long[n];
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = in.readLong();
+            lengths[i] = in.readInt();
+        }
+        int[] starts = new int[in.readInt()];
+        for (int i = 0; i < starts.length; i++) starts[i] = in.readInt();
+        return new FrameIndex(ts, encapsulated, fileLength, pixel, offsets, lengths, starts);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.example.dicomproject.storage.RandomReadable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 헤더를 파싱하고 픽셀 데이터 구간을 훑어 FrameIndex 를 만든다.
+ * 조각 값 자체는 읽지 않고 item 헤더(8바이트)만 따라가므로 원격 파일에서도 읽는 양이 작다.
+ *
+ * 프레임 경계 결정 순서 (encapsulated)
+ *  1) Extended Offset Table (7FE0,0001)
+ *  2) Basic Offset Table (첫 item)
+ *  3) BOT 가 비었으면: 프레임 1개 → 전부 / 조각 수 == 프레임 수 → 1:1 / 그 외 JPEG SOI·J2K SOC 로 프레임 시작 판별
+ */
+public final class FrameIndexBuilder {
+
+    static final int EXTENDED_OFFSET_TABLE = 0x7FE00001;
+
+    private FrameIndexBuilder() {
+    }
+
+    public static FrameIndex build(RandomReadable file) throws IOException {
+        DicomInput in = new DicomInput(file);
+        DicomHeader header = DicomHeaderParser.parse(in);
+        if (!header.hasPixelData()) throw new IOException("Pixel Data 없음");
+        PixelInfo pixel = PixelInfo.from(header);
+        return header.isEncapsulated()
+                ? encapsulated(in, header, pixel)
+                : nativeFrames(header, pixel);
+    }
+
+    private static FrameIndex nativeFrames(DicomHeader header, PixelInfo pixel) throws IOException {
+        int frames = pixel.numberOfFrames();
+        long frameBytes = pixel.frameBytes();
+        if (frameBytes <= 0 || frameBytes > Integer.MAX_VALUE) throw new IOException("잘못된 프레임 크기: " + frameBytes);
+        if (header.pixelDataOffset() + frameBytes * frames > header.fileLength()) {
+            throw new IOException("Pixel Data 가 파일 길이를 넘음");
+        }
+        long[] offsets = new long[frames];
+        int[] lengths = new int[frames];
+        int[] starts = new int[frames + 1];
+        for (int i = 0; i < frames; i++) {
+            offsets[i] = header.pixelDataOffset() + frameBytes * i;
+            lengths[i] = (int) frameBytes;
+            starts[i] = i;
+        }
+        starts[frames] = frames;
+        return new FrameIndex(header.transferSyntaxUid(), false, header.fileLength(), pixel, offsets, lengths, starts);
+    }
+
+    private static FrameIndex encapsulated(DicomInput in, DicomHeader header, PixelInfo pixel) throws IOException {
+        in.seek(header.pixelDataOffset());
+
+        // 첫 item = Basic Offset Table
+        if (in.tag() != DicomHeaderParser.ITEM) throw new IOException("Basic Offset Table item 없음");
+        long botLength = in.u32();
+        long[] bot = new long[(int) (botLength / 4)];
+        for (int i = 0; i < bot.length; i++) bot[i] = in.u32();
+        in.skip(botLength - bot.length * 4L);
+
+        // 조각 목록: 오프셋은 첫 조각 item 태그 기준 (BOT/EOT 와 같은 기준)
+        long firstItem = in.position();
+        List<long[]> fragments = new ArrayList<>(); // {itemPos, valueOffset, length}
+        while (in.hasRemaining()) {
+            long itemPos = in.position();
+            int tag = in.tag();
+            long len = in.u32();
+            if (tag == DicomHeaderParser.SEQUENCE_DELIMITATION) break;
+            if (tag != DicomHeaderParser.ITEM || len == DicomHeaderParser.UNDEFINED_LENGTH) {
+                throw new IOException("잘못된 조각 item @" + itemPos);
+            }
+            fragments.add(new long[]{itemPos - firstItem, in.position(), len});
+            in.skip(len);
+        }
+        if (fragments.isEmpty()) throw new IOException("조각 없음");
+
+        int n = fragments.size();
+        long[] offsets = new long[n];
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = fragments.get(i)[1];
+            lengths[i] = (int) fragments.get(i)[2];
+        }
+
+        int frames = pixel.numberOfFrames();
+        long[] frameItemOffsets = extendedOffsets(header);
+        if (frameItemOffsets == null && bot.length > 0) frameItemOffsets = bot;
+
+        int[] starts;
+        if (frameItemOffsets != null) {
+            starts = startsFromOffsets(frameItemOffsets, fragments);
+        } else if (frames == 1) {
+            starts = new int[]{0, n};
+        } else if (n == frames) {
+            starts = new int[frames + 1];
+            for (int i = 0; i <= frames; i++) starts[i] = i;
+        } else {
+            starts = startsFromMarkers(in, offsets, lengths, frames);
+        }
+        return new FrameIndex(header.transferSyntaxUid(), true, header.fileLength(), pixel, offsets, lengths, starts);
+    }
+
+    /** (7FE0,0001) OV - 프레임별 첫 조각 item 오프셋 (64bit) */
+    private static long[] extendedOffsets(DicomHeader header) {
+        DicomElement e = header.find(EXTENDED_OFFSET_TABLE);
+        if (e == null || e.value() == null || e.value().length < 8) return null;
+        long[] out = new long[e.value().length / 8];
+        for (int i = 0; i < out.length; i++) out[i] = header.u64(e.value(), i * 8);
+        return out;
+    }
+
+    private static int[] startsFromOffsets(long[] frameItemOffsets, List<long[]> fragments) throws IOException {
+        int[] starts = new int[frameItemOffsets.length + 1];
+        int f = 0;
+        for (int i = 0; i < frameItemOffsets.length; i++) {
+            while (f < fragments.size() && fragments.get(f)[0] < frameItemOffsets[i]) f++;
+            if (f == fragments.size() || fragments.get(f)[0] != frameItemOffsets[i]) {
+                throw new IOException("오프셋 테이블이 조각 경계와 맞지 않음: frame " + (i + 1));
+            }
+            starts[i] = f;
+        }
+        starts[frameItemOffsets.length] = fragments.size();
+        return starts;
+    }
+
+    /** 조각 첫 바이트가 JPEG SOI(FFD8) 또는 J2K SOC(FF4F) 이면 새 프레임 시작 */
+    private static int[] startsFromMarkers(DicomInput in, long[] offsets, int[] lengths, int frames) throws IOException {
+        List<Integer> starts = new ArrayList<>(frames + 1);
+        for (int i = 0; i < offsets.length; i++) {
+            if (lengths[i] < 2) continue;
+            in.seek(offsets[i]);
+            int a = in.u8(), b = in.u8();
+            if (a == 0xFF && (b == 0xD8 || b == 0x4F)) starts.add(i);
+        }
+        if (starts.size() != frames || starts.get(0) != 0) {
+            throw new IOException("프레임 경계를 알 수 없음: fragments=" + offsets.length + ", frames=" + frames);
+        }
+        int[] out = new int[frames + 1];
+        for (int i = 0; i < frames; i++) out[i] = starts.get(i);
+        out[frames] = offsets.length;
+        return out;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+/**
+ * 픽셀 해석에 필요한 Image Pixel / Modality LUT / VOI 속성.
+ * 없는 실수 값은 NaN, 없는 정수 값은 기본값.
+ */
+public record PixelInfo(
+        int rows,
+        int columns,
+        int samplesPerPixel,
+        int bitsAllocated,
+        int bitsStored,
+        int highBit,
+        int pixelRepresentation,    // 0 = unsigned, 1 = signed
+        int planarConfiguration,
+        String photometricInterpretation,
+        int numberOfFrames,
+        double rescaleSlope,
+        double rescaleIntercept,
+        double windowCenter,
+        double windowWidth,
+        int instanceNumber
+) {
+    static final int ROWS = 0x00280010;
+    static final int COLUMNS = 0x00280011;
+    static final int SAMPLES_PER_PIXEL = 0x00280002;
+    static final int BITS_ALLOCATED = 0x00280100;
+    static final int BITS_STORED = 0x00280101;
+    static final int HIGH_BIT = 0x00280102;
+    static final int PIXEL_REPRESENTATION = 0x00280103;
+    static final int PLANAR_CONFIGURATION = 0x00280006;
+    static final int PHOTOMETRIC_INTERPRETATION = 0x00280004;
+    static final int NUMBER_OF_FRAMES = 0x00280008;
+    static final int RESCALE_INTERCEPT = 0x00281052;
+    static final int RESCALE_SLOPE = 0x00281053;
+    static final int WINDOW_CENTER = 0x00281050;
+    static final int WINDOW_WIDTH = 0x00281051;
+    static final int INSTANCE_NUMBER = 0x00200013;
+
+    public static PixelInfo from(DicomHeader h) {
+        int bitsAllocated = h.intValue(BITS_ALLOCATED, 16);
+        int bitsStored = h.intValue(BITS_STORED, bitsAllocated);
+        return new PixelInfo(
+                h.intValue(ROWS, 0),
+                h.intValue(COLUMNS, 0),
+                h.intValue(SAMPLES_PER_PIXEL, 1),
+                bitsAllocated,
+                bitsStored,
+                h.intValue(HIGH_BIT, bitsStored - 1),
+                h.intValue(PIXEL_REPRESENTATION, 0),
+                h.intValue(PLANAR_CONFIGURATION, 0),
+                h.string(PHOTOMETRIC_INTERPRETATION) == null ? "MONOCHROME2" : h.string(PHOTOMETRIC_INTERPRETATION),
+                Math.max(1, h.intValue(NUMBER_OF_FRAMES, 1)),
+                h.doubleValue(RESCALE_SLOPE, 1.0),
+                h.doubleValue(RESCALE_INTERCEPT, 0.0),
+                h.doubleValue(WINDOW_CENTER, Double.NaN),
+                h.doubleValue(WINDOW_WIDTH, Double.NaN),
+                h.intValue(INSTANCE_NUMBER, 0)
+        );
+    }
+
+    /** 비압축 프레임 하나의 바이트 수 */
+    public long frameBytes() {
+        long bits = (long) rows * columns * samplesPerPixel * bitsAllocated;
+        return (bits + 7) / 8;
+    }
+
+    public boolean isMonochrome() {
+        return photometricInterpretation.startsWith("MONOCHROME");
+    }
+}
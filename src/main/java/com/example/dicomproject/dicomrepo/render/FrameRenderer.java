@@ -0,0 +1,185 @@
+package com.example.dicomproject.dicomrepo.render;
+
+import com.example.dicomproject.dicomrepo.parser.PixelInfo;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+
+/**
+ * 비압축 프레임 → 8bit 표시용 이미지.
+ * 흑백: 저장값 → (Modality LUT + Window/Level + MONOCHROME1 반전)을 한 번에 담은 룩업 테이블로 변환.
+ * 컬러: RGB / YBR_FULL 8bit. 축소는 박스 평균, 확대는 하지 않는다.
+ * 픽셀 루프는 원시 배열만 다루고 출력 버퍼 외에는 할당하지 않는다.
+ */
+public final class FrameRenderer {
+
+    private FrameRenderer() {
+    }
+
+    public static boolean supports(PixelInfo p) {
+        if (p.samplesPerPixel() == 1) {
+            return p.isMonochrome() && (p.bitsAllocated() == 8 || p.bitsAllocated() == 16)
+                    && p.bitsStored() >= 1 && p.bitsStored() <= 16;
+        }
+        return p.samplesPerPixel() == 3 && p.bitsAllocated() == 8
+                && ("RGB".equals(p.photometricInterpretation()) || "YBR_FULL".equals(p.photometricInterpretation()));
+    }
+
+    /**
+     * @param center/width NaN 이면 헤더 값, 그것도 없으면 프레임 최소/최대로 자동 설정
+     */
+    public static BufferedImage render(byte[] data, PixelInfo p, boolean bigEndian,
+                                       double center, double width, int outW, int outH) {
+        return p.samplesPerPixel() == 1
+                ? renderMonochrome(data, p, bigEndian, center, width, outW, outH)
+                : renderColor(data, p, outW, outH);
+    }
+
+    // --- 흑백 -----------------------------------------------------------------
+
+    private static BufferedImage renderMonochrome(byte[] data, PixelInfo p, boolean bigEndian,
+                                                  double center, double width, int outW, int outH) {
+        int srcW = p.columns(), srcH = p.rows();
+        int bytes = p.bitsAllocated() / 8;
+        int shift = p.highBit() + 1 - p.bitsStored();
+        int mask = (1 << p.bitsStored()) - 1;
+
+        if (Double.isNaN(center) || Double.isNaN(width)) {
+            center = p.windowCenter();
+            width = p.windowWidth();
+        }
+        if (Double.isNaN(center) || Double.isNaN(width) || width <= 0) {
+            // 자동 창: 저장값 최소/최대 → modality 값
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            int n = srcW * srcH;
+            for (int i = 0; i < n; i++) {
+                int s = stored(raw(data, i, bytes, bigEndian, shift, mask), p);
+                if (s < min) min = s;
+                if (s > max) max = s;
+            }
+            double lo = min * p.rescaleSlope() + p.rescaleIntercept();
+            double hi = max * p.rescaleSlope() + p.rescaleIntercept();
+            if (lo > hi) { double t = lo; lo = hi; hi = t; }
+            center = (lo + hi) / 2;
+            width = Math.max(1, hi - lo + 1);
+        }
+        byte[] lut = lut(p, center, width);
+
+        BufferedImage img = new BufferedImage(outW, outH, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] out = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        int[] xs = edges(srcW, outW), ys = edges(srcH, outH);
+
+        for (int oy = 0; oy < outH; oy++) {
+            int y0 = ys[oy], y1 = ys[oy + 1];
+            for (int ox = 0; ox < outW; ox++) {
+                int x0 = xs[ox], x1 = xs[ox + 1];
+                int sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    int row = y * srcW;
+                    for (int x = x0; x < x1; x++) {
+                        sum += lut[raw(data, row + x, bytes, bigEndian, shift, mask)] & 0xFF;
+                    }
+                }
+                out[oy * outW + ox] = (byte) (sum / ((y1 - y0) * (x1 - x0)));
+            }
+        }
+        return img;
+    }
+
+    private static int raw(byte[] d, int i, int bytes, boolean bigEndian, int shift, int mask) {
+        int v;
+        if (bytes == 1) {
+            v = d[i] & 0xFF;
+        } else {
+            int j = i << 1;
+            v = bigEndian ? ((d[j] & 0xFF) << 8) | (d[j + 1] & 0xFF) : (d[j] & 0xFF) | ((d[j + 1] & 0xFF) << 8);
+        }
+        return (v >>> shift) & mask;
+    }
+
+    /** 마스크된 비트 → 저장값 (부호 있는 경우 2의 보수) */
+    private static int stored(int bits, PixelInfo p) {
+        if (p.pixelRepresentation() == 1 && (bits & (1 << (p.bitsStored() - 1))) != 0) {
+            return bits - (1 << p.bitsStored());
+        }
+        return bits;
+    }
+
+    /** 저장 비트 패턴 → 표시값 (PS3.3 C.11.2.1.2 linear 함수) */
+    private static byte[] lut(PixelInfo p, double center, double width) {
+        int size = 1 << p.bitsStored();
+        byte[] lut = new byte[size];
+        double c = center - 0.5, w = Math.max(1, width) - 1;
+        double lo = c - w / 2, hi = c + w / 2;
+        boolean invert = "MONOCHROME1".equals(p.photometricInterpretation());
+        for (int bits = 0; bits < size; bits++) {
+            double m = stored(bits, p) * p.rescaleSlope() + p.rescaleIntercept();
+            int y;
+            if (m <= lo) y = 0;
+            else if (m > hi) y = 255;
+            else y = (int) Math.round(((m - c) / Math.max(w, 1e-9) + 0.5) * 255);
+            if (invert) y = 255 - y;
+            lut[bits] = (byte) y;
+        }
+        return lut;
+    }
+
+    // --- 컬러 -----------------------------------------------------------------
+
+    private static BufferedImage renderColor(byte[] data, PixelInfo p, int outW, int outH) {
+        int srcW = p.columns(), srcH = p.rows();
+        int plane = srcW * srcH;
+        boolean planar = p.planarConfiguration() == 1;
+        boolean ybr = "YBR_FULL".equals(p.photometricInterpretation());
+
+        BufferedImage img = new BufferedImage(outW, outH, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        int[] xs = edges(srcW, outW), ys = edges(srcH, outH);
+
+        for (int oy = 0; oy < outH; oy++) {
+            int y0 = ys[oy], y1 = ys[oy + 1];
+            for (int ox = 0; ox < outW; ox++) {
+                int x0 = xs[ox], x1 = xs[ox + 1];
+                int s0 = 0, s1 = 0, s2 = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        int i = y * srcW + x;
+                        if (planar) {
+                            s0 += data[i] & 0xFF;
+                            s1 += data[plane + i] & 0xFF;
+                            s2 += data[2 * plane + i] & 0xFF;
+                        } else {
+                            int j = i * 3;
+                            s0 += data[j] & 0xFF;
+                            s1 += data[j + 1] & 0xFF;
+                            s2 += data[j + 2] & 0xFF;
+                        }
+                    }
+                }
+                int n = (y1 - y0) * (x1 - x0);
+                int a = s0 / n, b = s1 / n, c = s2 / n;
+                if (ybr) {
+                    // YBR_FULL → RGB (PS3.3 C.7.6.3.1.2)
+                    int r = clamp(a + 1.402 * (c - 128));
+                    int g = clamp(a - 0.344136 * (b - 128) - 0.714136 * (c - 128));
+                    int bl = clamp(a + 1.772 * (b - 128));
+                    a = r; b = g; c = bl;
+                }
+                out[oy * outW + ox] = (a << 16) | (b << 8) | c;
+            }
+        }
+        return img;
+    }
+
+    private static int clamp(double v) {
+        return v < 0 ? 0 : v > 255 ? 255 : (int) Math.round(v);
+    }
+
+    /** 출력 픽셀 i 가 덮는 원본 구간 [e[i], e[i+1]) - out <= src 이므로 최소 1픽셀 */
+    private static int[] edges(int src, int out) {
+        int[] e = new int[out + 1];
+        for (int i = 0; i <= out; i++) e[i] = (int) ((long) i * src / out);
+        return e;
+    }
+}
@@ -3,9 +3,9 @@ package com.example.dicomproject.dicomrepo.repository;
 import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
 import com.example.dicomproject.dicomrepo.entity.Image;
 import com.example.dicomproject.dicomrepo.entity.ImageId;
-import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,7 +26,8 @@ public interface ImageRepository extends JpaRepository<Image, ImageId> {
         i.sopInstanceUid,
         i.path,
         i.fname,
-        s.modality
+        s.modality,
+        i.storageId
       )
       from Image i
       join Series s on s.studyKey = i.studyKey and s.seriesKey = i.seriesKey
@@ -34,4 +35,65 @@ public interface ImageRepository extends JpaRepository<Image, ImageId> {
       order by s.seriesKey asc, i.imageKey asc
     """)
     List<ImageMetaDto> findAllByStudyKey(@Param("studyKey") long studyKey);
-}
\ No newline at end of file
+
+    @Query("""
+      select new com.example.dicomproject.dicomrepo.dto.ImageMetaDto(
+        i.studyKey,
+        i.seriesKey,
+        i.imageKey,
+        i.studyInstanceUid,
+        i.seriesInstanceUid,
+        i.sopInstanceUid,
+        i.path,
+        i.fname,
+        s.modality,
+        i.storageId
+      )
+      from Image i
+      join Series s on s.studyKey = i.studyKey and s.seriesKey = i.seriesKey
+      where s.studyKey = :studyKey and s.seriesInstanceUid = :seriesUid
+      order by i.imageKey asc
+    """)
+    List<ImageMetaDto> findAllByStudyKeyAndSeriesUid(@Param("studyKey") long studyKey,
+                                                      @Param("seriesUid") String seriesUid);
+
+    @Query("""
+      select new com.example.dicomproject.dicomrepo.dto.ImageMetaDto(
+        i.studyKey,
+        i.seriesKey,
+        i.imageKey,
+        i.studyInstanceUid,
+        i.seriesInstanceUid,
+        i.sopInstanceUid,
+        i.path,
+        i.fname,
+        s.modality,
+        i.storageId
+      )
+      from Image i
+      join Series s on s.studyKey = i.studyKey and s.seriesKey = i.seriesKey
+      where i.sopInstanceUid = :sopUid
+    """)
+    Optional<ImageMetaDto> findMetaBySopInstanceUid(@Param("sopUid") String sopUid);
+
+    @Query("""
+      select new com.example.dicomproject.dicomrepo.dto.ImageMetaDto(
+        i.studyKey,
+        i.seriesKey,
+        i.imageKey,
+        i.studyInstanceUid,
+        i.seriesInstanceUid,
+        i.sopInstanceUid,
+        i.path,
+        i.fname,
+        s.modality,
+        i.storageId
+      )
+      from Image i
+      join Series s on s.studyKey = i.studyKey and s.seriesKey = i.seriesKey
+      where i.studyInstanceUid = :studyUid and i.seriesInstanceUid = :seriesUid
+      order by i.imageKey asc
+    """)
+    List<ImageMetaDto> findAllByStudyUidAndSeriesUid(@Param("studyUid") String studyUid,
+                                                      @Param("seriesUid") String seriesUid);
+}
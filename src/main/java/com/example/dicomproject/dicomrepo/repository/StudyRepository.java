@@ -2,8 +2,9 @@ package com.example.dicomproject.dicomrepo.repository;
 
 import com.example.dicomproject.dicomrepo.dto.StudyProjection;
 import com.example.dicomproject.dicomrepo.entity.Study;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -17,7 +18,8 @@ public interface StudyRepository extends JpaSpecificationExecutor<Study>, JpaRep
     List<Study> findByPatient_Pid(String pid);
     List<Study> findByPatient_PidAndStudyDateBetween(String pid, String from, String to);
 
-    @Query("""
+    /** search / searchAfter 공통 select */
+    String SEARCH_SELECT = """
   select
     s.studyKey as studyKey,
     s.studyInstanceUid as studyUid,
@@ -29,6 +31,10 @@ public interface StudyRepository extends JpaSpecificationExecutor<Study>, JpaRep
     s.accessionNumber  as accessionNum,
     p.pid              as pid,
     p.name             as pname
+""";
+
+    /** search / searchAfter / countSearch 공통 조건 */
+    String SEARCH_WHERE = """
   from Study s
   left join s.patient p
   where
@@ -52,9 +58,14 @@ public interface StudyRepository extends JpaSpecificationExecutor<Study>, JpaRep
     and ( :fromDate is null or s.studyDate >= :fromDate )
     and ( :toDate   is null or s.studyDate <= :toDate )
 
+    and ( :keys is null or s.studyKey in :keys or s.studyKey > :indexedMaxKey )
+""";
+
+    /** 페이지 조회만 (size+1 행으로 다음 페이지 유무 판단) - 전체 건수는 StudyCountService */
+    @Query(SEARCH_SELECT + SEARCH_WHERE + """
   order by s.studyDate desc, s.studyTime desc
 """)
-    Page<StudyProjection> search(
+    Slice<StudyProjection> search(
             @Param("q")          String q,                // pid 또는 name을 한 번에 검색
             @Param("accession")  String accession,        // null이면 무시
             @Param("studyDesc")  String studyDesc,        // null이면 무시
@@ -62,6 +73,96 @@ public interface StudyRepository extends JpaSpecificationExecutor<Study>, JpaRep
             @Param("bodyPart")   String bodyPart,         // null이면 무시
             @Param("fromDate")   String fromDate,         // 'YYYYMMDD' 또는 null
             @Param("toDate")     String toDate,           // 'YYYYMMDD' 또는 null
+            @Param("keys")       List<Long> keys,         // 검색어 색인 후보 STUDYKEY, null이면 무시
+            @Param("indexedMaxKey") Long indexedMaxKey,   // 색인이 본 최대 STUDYKEY - 이후 입력은 후보와 무관하게 검사
+            Pageable pageable
+    );
+
+    /**
+     * keyset(커서) 검색 - OFFSET/COUNT 없이 커서 다음 행부터 limit 개.
+     * null 날짜/시각은 StudyCursor.NULL_DATE/NULL_TIME 으로 정렬·비교
+     * (인덱스: STUDYTAB(NVL(STUDYDATE,'00000000') desc, NVL(STUDYTIME,'000000') desc, STUDYKEY desc)).
+     */
+    @Query(SEARCH_SELECT + SEARCH_WHERE + """
+    and ( :afterKey is null
+      or coalesce(s.studyDate, '00000000') < :afterDate
+      or ( coalesce(s.studyDate, '00000000') = :afterDate
+           and ( coalesce(s.studyTime, '000000') < :afterTime
+                 or ( coalesce(s.studyTime, '000000') = :afterTime and s.studyKey < :afterKey ) ) )
+    )
+
+  order by coalesce(s.studyDate, '00000000') desc, coalesce(s.studyTime, '000000') desc, s.studyKey desc
+""")
+    List<StudyProjection> searchAfter(
+            @Param("q")          String q,
+            @Param("accession")  String accession,
+            @Param("studyDesc")  String studyDesc,
+            @Param("modalities") List<String> modalities,
+            @Param("bodyPart")   String bodyPart,
+            @Param("fromDate")   String fromDate,
+            @Param("toDate")     String toDate,
+            @Param("keys")       List<Long> keys,
+            @Param("indexedMaxKey") Long indexedMaxKey,
+            @Param("afterDate")  String afterDate,        // 첫 페이지면 null
+            @Param("afterTime")  String afterTime,
+            @Param("afterKey")   Long afterKey,
+            Limit limit
+    );
+
+    /**
+     * 환자명 검색 (mode=name) - 나머지 조건은 그대로 적용하고 정렬/OFFSET/LIMIT 까지 DB 에서.
+     * pids: 환자명 색인이 고른 PID (STUDYTAB.PID 로 거름), pidOrder: 같은 순서의 '|pid1|pid2|...|' -
+     * 그 안의 위치가 곧 환자 순위다. 색인이 없으면 pids/pidOrder 는 null 이고 pname like 로 거른다.
+     */
+    String NAME_WHERE = """
+    and ( :pids is null or s.patient.pid in :pids )
+    and ( :pname is null or p.name like concat('%', :pname, '%') )
+""";
+
+    @Query(SEARCH_SELECT + SEARCH_WHERE + NAME_WHERE + """
+  order by locate(concat('|', s.patient.pid, '|'), :pidOrder), s.studyDate desc, s.studyTime desc, s.studyKey desc
+""")
+    Slice<StudyProjection> searchByPids(
+            @Param("q")          String q,
+            @Param("accession")  String accession,
+            @Param("studyDesc")  String studyDesc,
+            @Param("modalities") List<String> modalities,
+            @Param("bodyPart")   String bodyPart,
+            @Param("fromDate")   String fromDate,
+            @Param("toDate")     String toDate,
+            @Param("keys")       List<Long> keys,
+            @Param("indexedMaxKey") Long indexedMaxKey,
+            @Param("pids")       List<String> pids,       // null이면 무시
+            @Param("pname")      String pname,            // null이면 무시
+            @Param("pidOrder")   String pidOrder,         // 순위 정렬용, null이면 검사일 역순만
             Pageable pageable
     );
-}
\ No newline at end of file
+
+    @Query("select count(s) " + SEARCH_WHERE + NAME_WHERE)
+    long countByPids(
+            @Param("q")          String q,
+            @Param("accession")  String accession,
+            @Param("studyDesc")  String studyDesc,
+            @Param("modalities") List<String> modalities,
+            @Param("bodyPart")   String bodyPart,
+            @Param("fromDate")   String fromDate,
+            @Param("toDate")     String toDate,
+            @Param("keys")       List<Long> keys,
+            @Param("indexedMaxKey") Long indexedMaxKey,
+            @Param("pids")       List<String> pids,
+            @Param("pname")      String pname
+    );
+
+    @Query("select count(s) " + SEARCH_WHERE)
+    long countSearch(
+            @Param("q")          String q,
+            @Param("accession")  String accession,
+            @Param("studyDesc")  String studyDesc,
+            @Param("modalities") List<String> modalities,
+            @Param("bodyPart")   String bodyPart,
+            @Param("fromDate")   String fromDate,
+            @Param("toDate")     String toDate,
+            @Param("keys")       List<Long> keys,
+            @Param("indexedMaxKey") Long indexedMaxKey
+    );
+}
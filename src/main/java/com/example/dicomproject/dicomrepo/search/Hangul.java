@@ -0,0 +1,76 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import java.util.Locale;
+
+/**
+ * 한글 음절 분해 (유니코드 완성형 AC00–D7A3 → 호환 자모 3130 블록).
+ * 겹모음/겹받침은 자판 입력 순서대로 나눠서(ㅘ → ㅗㅏ, ㄺ → ㄹㄱ) 입력 중인 글자도 자모 접두로 비교할 수 있게 한다.
+ */
+public final class Hangul {
+
+    private static final char BASE = 0xAC00;
+    private static final char LAST = 0xD7A3;
+
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String[] JUNGSEONG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ",
+            "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"};
+    private static final String[] JONGSEONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ",
+            "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"};
+
+    private Hangul() {
+    }
+
+    public static boolean isSyllable(char c) {
+        return c >= BASE && c <= LAST;
+    }
+
+    /** 단독 초성으로 쓸 수 있는 호환 자음 (ㄱ–ㅎ 중 CHOSEONG 에 있는 것) */
+    public static boolean isChoseong(char c) {
+        return CHOSEONG.indexOf(c) >= 0;
+    }
+
+    /** 호환 자모 블록(ㄱ–ㅣ) 또는 완성형 음절 */
+    public static boolean isHangul(char c) {
+        return isSyllable(c) || (c >= 0x3131 && c <= 0x318E);
+    }
+
+    public static boolean containsHangul(String s) {
+        if (s == null) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (isHangul(s.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /** 음절이면 초성, 아니면 소문자 그대로 */
+    public static char choseong(char c) {
+        if (!isSyllable(c)) return Character.toLowerCase(c);
+        return CHOSEONG.charAt((c - BASE) / 588);
+    }
+
+    /** 초성 인덱스 (0–18), 음절이나 단독 초성이 아니면 -1 */
+    public static int choseongIndex(char c) {
+        if (isSyllable(c)) return (c - BASE) / 588;
+        return CHOSEONG.indexOf(c);
+    }
+
+    /** 글자 하나의 자모 열 - 음절이 아니면 소문자 한 글자 */
+    public static String jamo(char c) {
+        if (!isSyllable(c)) return String.valueOf(Character.toLowerCase(c));
+        int code = c - BASE;
+        return CHOSEONG.charAt(code / 588) + JUNGSEONG[(code % 588) / 28] + JONGSEONG[code % 28];
+    }
+
+    /** 이름 비교용 정규화 - DICOM PN 구분자(^, =)와 공백 제거, 소문자 */
+    public static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '^' || c == '=' || Character.isWhitespace(c)) continue;
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
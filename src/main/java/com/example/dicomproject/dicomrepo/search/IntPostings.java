@@ -0,0 +1,47 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import java.util.Arrays;
+
+/** 증가 순서로만 추가되는 int 문서 번호 목록 (중복 없이) */
+final class IntPostings {
+
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] >= doc) return; // 같은 문서의 반복 trigram
+        if (size == docs.length) docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docs, size);
+    }
+
+    /** 정렬된 sorted 와의 교집합 (새 배열) */
+    int[] intersect(int[] sorted) {
+        int[] out = new int[Math.min(size, sorted.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < sorted.length) {
+            int a = docs[i], b = sorted[j];
+            if (a == b) {
+                out[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    long bytes() {
+        return 16L + docs.length * 4L;
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import com.example.dicomproject.config.SearchConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 환자명 초성/자모 검색 색인 (PATIENTTAB.PNAME + STUDYTAB.PNAME).
+ * 이름마다 글자/초성/자모 열을 미리 풀어 두고, 매 입력마다 전체를 훑으면서 점수를 매긴다.
+ * - "ㅎㄱㄷ", "홍ㄱㄷ": 글자 단위로 음절은 그대로, 단독 자음은 초성과 비교
+ * - "홍기", "읽"(일곤 입력 중): 자모 열의 접두/부분 일치 (글자 경계에서 시작)
+ * 초성 비트마스크로 먼저 거르므로 글자 비교는 후보에만 한다.
+ * 점수: 완전 일치 > 앞부분 일치 > 부분 일치, 같은 점수면 짧은 이름 → PID 순.
+ *
+ * 갱신은 StudyTextIndex 와 같은 방식 (스냅샷 두 개, 만든 뒤에는 바꾸지 않으므로 락 없이 교체):
+ * - base: rebuildIntervalMs 마다 전체 재구성.
+ * - recent: refresh 마다 (base 최대 STUDYKEY - rescanKeys) 이후 검사 + 변경 추적으로 모은 검사의 이름으로 새로 만든다.
+ *   늦게 커밋된 낮은 키와 PATIENTTAB 개명/병합(StudyChangeFeed 가 그 환자의 STUDYKEY 로 잡음)이 반영된다.
+ * base 에 남은 이전 이름은 다음 재구성까지 그 PID 를 더 찾을 뿐 (검사 조회는 DB 의 현재 값).
+ */
+@Slf4j
+@Component
+public class PatientNameIndex {
+
+    private static final String SELECT_ALL = """
+            select PID, PNAME from PATIENTTAB where PNAME is not null
+            union
+            select PID, PNAME from STUDYTAB where PNAME is not null
+            """;
+    private static final String SELECT_RECENT = """
+            select s.STUDYKEY, s.PID, s.PNAME, p.PNAME
+            from STUDYTAB s left join PATIENTTAB p on p.PID = s.PID
+            where s.STUDYKEY > ?
+            """;
+    private static final String SELECT_KEYS = """
+            select s.STUDYKEY, s.PID, s.PNAME, p.PNAME
+            from STUDYTAB s left join PATIENTTAB p on p.PID = s.PID
+            where s.STUDYKEY in (%s)
+            """;
+
+    public record Match(String pid, String name, int score) {
+    }
+
+    public record Stats(boolean enabled, boolean ready, int names, int recentNames, int changedStudies,
+                        long lookups, double avgLookupMs, long lastBuildMs) {
+    }
+
+    private record State(Snapshot base, Snapshot recent) {
+    }
+
+    private final SearchConfig config;
+    private final JdbcTemplate jdbc;
+    private final StudyChangeFeed changes;
+    private final StudyChangeFeed.Tracker changed;
+
+    private volatile State state;
+    private long lastRebuildAt;
+    private long lastBuildMs;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public PatientNameIndex(SearchConfig config, @Qualifier("oracleDataSource") DataSource oracle,
+                            StudyChangeFeed changes) {
+        this.config = config;
+        this.jdbc = new JdbcTemplate(oracle);
+        this.jdbc.setFetchSize(config.getIndex().getFetchSize());
+        this.changes = changes;
+        this.changed = changes.tracker("환자명 색인");
+    }
+
+    /**
+     * 점수순 상위 limit 명 (PID 당 가장 좋은 이름 하나).
+     * 색인이 아직 없거나 꺼져 있으면 null → 호출 측이 DB like 검색으로 폴백.
+     */
+    public List<Match> search(String query, int limit) {
+        State st = state;
+        if (!config.getName().isEnabled() || st == null || query == null) return null;
+        Query q = new Query(Hangul.normalizeName(query));
+        if (q.chars.length == 0) return null;
+
+        long t0 = System.nanoTime();
+        // 한 PID 에 이름이 여러 개일 수 있으므로 여유 있게 모은 뒤 PID 별로 합침
+        int keep = limit * 4;
+        PriorityQueue<Match> top = new PriorityQueue<>(keep + 1, RANK.reversed());
+        scan(st.base, q, top, keep);
+        scan(st.recent, q, top, keep);
+        List<Match> sorted = new ArrayList<>(top);
+        sorted.sort(RANK);
+        Map<String, Match> byPid = new LinkedHashMap<>();
+        for (Match m : sorted) {
+            byPid.putIfAbsent(m.pid(), m);
+            if (byPid.size() == limit) break;
+        }
+        lookups.increment();
+        lookupNanos.add(System.nanoTime() - t0);
+        return List.copyOf(byPid.values());
+    }
+
+    private static void scan(Snapshot s, Query q, PriorityQueue<Match> top, int keep) {
+        for (int i = 0; i < s.size; i++) {
+            if ((q.mask & ~s.masks[i]) != 0) continue;
+            int score = score(q, s.chars[i], s.cho[i], s.jamo[i], s.starts[i]);
+            if (score <= 0) continue;
+            top.add(new Match(s.pids[i], s.names[i], score));
+            if (top.size() > keep) top.poll();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dicom.search.index.refresh-ms:30000}")
+    public void refresh() {
+        if (!config.getName().isEnabled()) return;
+        try {
+            long now = System.currentTimeMillis();
+            if (state == null || now - lastRebuildAt >= config.getIndex().getRebuildIntervalMs()) {
+                rebuild();
+                lastRebuildAt = now;
+            } else {
+                changed.pollIfDue();
+                rescanRecent();
+            }
+        } catch (Exception e) {
+            log.warn("환자명 색인 갱신 실패: {}", e.toString());
+        }
+    }
+
+    public Stats stats() {
+        State st = state;
+        long n = lookups.sum();
+        return new Stats(config.getName().isEnabled(), st != null, st == null ? 0 : st.base.size,
+                st == null ? 0 : st.recent.size, changed.size(),
+                n, n == 0 ? 0 : lookupNanos.sum() / 1e6 / n, lastBuildMs);
+    }
+
+    /** 변경 워터마크와 최대 STUDYKEY 는 읽기 전에 잡는다 (구성 중 입력/수정은 recent 에서 다시 읽힘) */
+    private void rebuild() {
+        long t0 = System.nanoTime();
+        changed.reset();
+        Long maxKey = jdbc.queryForObject("select max(STUDYKEY) from STUDYTAB", Long.class);
+        Snapshot base = new Snapshot();
+        base.maxStudyKey = maxKey != null ? maxKey : Long.MIN_VALUE;
+        jdbc.query(SELECT_ALL, rs -> {
+            base.add(rs.getString(1), rs.getString(2));
+        });
+        state = new State(base, new Snapshot());
+        lastBuildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        log.info("환자명 색인 구성: {} names, {}ms", base.size, lastBuildMs);
+    }
+
+    /** base 최대 STUDYKEY - rescanKeys 이후 검사 + 변경 추적으로 모은 검사의 환자명(STUDYTAB/PATIENTTAB)으로 recent 를 새로 만든다 */
+    private void rescanRecent() {
+        State st = state;
+        long floor = st.base.maxStudyKey == Long.MIN_VALUE
+                ? Long.MIN_VALUE : st.base.maxStudyKey - config.getIndex().getRescanKeys();
+        Snapshot recent = new Snapshot();
+        jdbc.query(SELECT_RECENT, rs -> {
+            recent.add(rs.getString(2), rs.getString(3));
+            recent.add(rs.getString(2), rs.getString(4));
+        }, floor);
+        changes.queryKeys(SELECT_KEYS, changed.atOrBelow(floor), rs -> {
+            recent.add(rs.getString(2), rs.getString(3));
+            recent.add(rs.getString(2), rs.getString(4));
+        });
+        state = new State(st.base, recent);
+    }
+
+    private static final Comparator<Match> RANK = Comparator
+            .comparingInt(Match::score).reversed()
+            .thenComparingInt((Match m) -> m.name().length())
+            .thenComparing(Match::pid);
+
+    /** 0 = 불일치 */
+    static int score(Query q, char[] name, char[] cho, char[] jamo, int[] starts) {
+        if (Arrays.equals(q.chars, name)) return 1000;
+        int best = 0;
+        // 1) 글자 단위 (음절 = 음절, 단독 자음 = 초성, 마지막 음절은 입력 중일 수 있어 자모 접두)
+        for (int i = 0; i + q.chars.length <= name.length; i++) {
+            int initials = charMatch(q, name, cho, i);
+            if (initials < 0) continue;
+            int base = i == 0 ? 700 : 500 - Math.min(100, 5 * i);
+            best = Math.max(best, base - 10 * initials + coverage(q.chars.length, name.length));
+            break; // 가장 앞 위치가 가장 높은 점수
+        }
+        // 2) 자모 열 (입력 중 받침이 다음 글자 초성으로 넘어가는 경우 포함)
+        if (q.jamo.length > 0) {
+            for (int i = 0; i < starts.length; i++) {
+                if (!regionMatches(jamo, starts[i], q.jamo)) continue;
+                int end = starts[i] + q.jamo.length;
+                int touched = 0;
+                for (int k = i; k < starts.length && starts[k] < end; k++) touched++;
+                int base = i == 0 ? 800 : 600 - Math.min(100, 5 * i);
+                best = Math.max(best, base + coverage(touched, name.length));
+                break;
+            }
+        }
+        return best;
+    }
+
+    /** 글자 단위 일치면 초성으로만 맞춘 글자 수, 아니면 -1 */
+    private static int charMatch(Query q, char[] name, char[] cho, int at) {
+        int initials = 0;
+        int last = q.chars.length - 1;
+        for (int k = 0; k <= last; k++) {
+            char qc = q.chars[k], nc = name[at + k];
+            if (qc == nc) continue;
+            if (Hangul.isSyllable(qc)) {
+                if (k == last && Hangul.jamo(nc).startsWith(Hangul.jamo(qc))) continue;
+                return -1;
+            }
+            if (Hangul.isChoseong(qc) && cho[at + k] == qc) {
+                initials++;
+                continue;
+            }
+            return -1;
+        }
+        return initials;
+    }
+
+    private static int coverage(int matched, int nameLength) {
+        return nameLength == 0 ? 0 : 50 * Math.min(matched, nameLength) / nameLength;
+    }
+
+    private static boolean regionMatches(char[] s, int from, char[] part) {
+        if (from + part.length > s.length) return false;
+        for (int i = 0; i < part.length; i++) {
+            if (s[from + i] != part[i]) return false;
+        }
+        return true;
+    }
+
+    /** 검색어 전처리 - 초성 마스크와 자모 열 */
+    static final class Query {
+        final char[] chars;
+        final char[] jamo;
+        final int mask;
+
+        Query(String normalized) {
+            this.chars = normalized.toCharArray();
+            StringBuilder j = new StringBuilder();
+            int m = 0;
+            for (char c : chars) {
+                j.append(Hangul.jamo(c));
+                int idx = Hangul.choseongIndex(c);
+                if (idx >= 0) m |= 1 << idx;
+            }
+            this.jamo = j.toString().toCharArray();
+            this.mask = m;
+        }
+    }
+
+    /** 이름 하나 = 배열의 한 칸. PN 의 '=' 로 나뉜 표기(영문/한글)는 각각 따로 넣는다 */
+    private static final class Snapshot {
+        String[] pids = new String[1024];
+        String[] names = new String[1024];
+        char[][] chars = new char[1024][];
+        char[][] cho = new char[1024][];
+        char[][] jamo = new char[1024][];
+        int[][] starts = new int[1024][];
+        int[] masks = new int[1024];
+        int size;
+        long maxStudyKey = Long.MIN_VALUE;
+        final Set<String> seen = new HashSet<>();
+
+        void add(String pid, String pname) {
+            if (pid == null || pname == null) return;
+            for (String part : pname.split("=")) {
+                String n = Hangul.normalizeName(part);
+                if (n.isEmpty() || !seen.add(pid + '\u0000' + n)) continue;
+                append(pid, part.replace('^', ' ').trim(), n);
+            }
+        }
+
+        private void append(String pid, String display, String n) {
+            if (size == pids.length) grow();
+            char[] c = n.toCharArray();
+            char[] ch = new char[c.length];
+            int[] st = new int[c.length];
+            StringBuilder j = new StringBuilder(c.length * 3);
+            int mask = 0;
+            for (int i = 0; i < c.length; i++) {
+                ch[i] = Hangul.choseong(c[i]);
+                st[i] = j.length();
+                j.append(Hangul.jamo(c[i]));
+                int idx = Hangul.choseongIndex(c[i]);
+                if (idx >= 0) mask |= 1 << idx;
+            }
+            pids[size] = pid;
+            names[size] = display;
+            chars[size] = c;
+            cho[size] = ch;
+            jamo[size] = j.toString().toCharArray();
+            starts[size] = st;
+            masks[size] = mask;
+            size++;
+        }
+
+        private void grow() {
+            int n = size * 2;
+            pids = Arrays.copyOf(pids, n);
+            names = Arrays.copyOf(names, n);
+            chars = Arrays.copyOf(chars, n);
+            cho = Arrays.copyOf(cho, n);
+            jamo = Arrays.copyOf(jamo, n);
+            starts = Arrays.copyOf(starts, n);
+            masks = Arrays.copyOf(masks, n);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import com.example.dicomproject.config.SearchConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * rescan 구간보다 오래된 검사의 수정 추적 (StudyTextIndex, PatientNameIndex 공용).
+ * changesSql 은 CHANGE_SEQ > ? 인 (STUDYKEY, CHANGE_SEQ) 행을 돌려준다.
+ * 워터마크는 색인마다 Tracker 로 따로 들고 있고, 전체 재구성 직전에 다시 잡는다 -
+ * 재구성 중에 바뀐 행은 다음 poll 에 다시 잡힌다 (중복은 후보만 늘릴 뿐).
+ */
+@Slf4j
+@Component
+public class StudyChangeFeed {
+
+    /** Oracle in-list 한도 */
+    static final int IN_LIST_MAX = 1000;
+
+    private final SearchConfig.Index config;
+    private final JdbcTemplate jdbc;
+
+    public StudyChangeFeed(SearchConfig config, @Qualifier("oracleDataSource") DataSource oracle) {
+        this.config = config.getIndex();
+        this.jdbc = new JdbcTemplate(oracle);
+        this.jdbc.setFetchSize(this.config.getFetchSize());
+    }
+
+    public boolean isEnabled() {
+        return StringUtils.hasText(config.getChangesSql());
+    }
+
+    public Tracker tracker(String name) {
+        return new Tracker(name);
+    }
+
+    /** sqlTemplate 의 %s 를 in-list 자리로 채워 keys 를 IN_LIST_MAX 개씩 조회 */
+    public void queryKeys(String sqlTemplate, List<Long> keys, RowCallbackHandler rows) {
+        for (int from = 0; from < keys.size(); from += IN_LIST_MAX) {
+            List<Long> chunk = keys.subList(from, Math.min(keys.size(), from + IN_LIST_MAX));
+            String sql = sqlTemplate.formatted(String.join(",", Collections.nCopies(chunk.size(), "?")));
+            jdbc.query(sql, rows, chunk.toArray());
+        }
+    }
+
+    /** 지금까지의 최대 CHANGE_SEQ (행은 가져오지 않음) */
+    private long watermark() {
+        Long max = jdbc.queryForObject("select max(CHANGE_SEQ) from (" + config.getChangesSql() + ")",
+                Long.class, Long.MIN_VALUE);
+        return max != null ? max : Long.MIN_VALUE;
+    }
+
+    /** CHANGE_SEQ > since 인 STUDYKEY 를 keys 에 더하고 새 워터마크를 돌려준다 */
+    private long poll(long since, Set<Long> keys) {
+        long[] max = {since};
+        jdbc.query(config.getChangesSql(), rs -> {
+            keys.add(rs.getLong(1));
+            max[0] = Math.max(max[0], rs.getLong(2));
+        }, since);
+        return max[0];
+    }
+
+    /**
+     * 색인 하나의 추적 상태 - 마지막 재구성 이후 바뀐 STUDYKEY.
+     * 색인의 refresh(예약 스레드 하나)에서만 바꾸고, isCurrent 만 검색 스레드에서 읽는다.
+     */
+    public final class Tracker {
+        private final String name;
+        private Set<Long> changed = new HashSet<>();
+        private long mark;
+        private volatile long checkedAt;   // 0 = 워터마크 없음 (추적 꺼짐/조회 실패 → 다음 재구성까지)
+
+        private Tracker(String name) {
+            this.name = name;
+        }
+
+        /** 전체 재구성 직전 - 모은 키를 버리고 워터마크를 다시 잡는다 */
+        public void reset() {
+            changed = new HashSet<>();
+            checkedAt = 0;
+            if (!isEnabled()) return;
+            long now = System.currentTimeMillis();
+            try {
+                mark = watermark();
+                checkedAt = now;
+            } catch (Exception e) {
+                log.warn("{} 변경 워터마크 조회 실패 - 다음 재구성까지 추적하지 않음: {}", name, e.toString());
+            }
+        }
+
+        /** changesMs 가 지났으면 바뀐 키를 모은다 (실패는 로그만 - isCurrent 가 false 로 바뀐다) */
+        public void pollIfDue() {
+            long now = System.currentTimeMillis();
+            if (checkedAt == 0 || now - checkedAt < config.getChangesMs()) return;
+            int before = changed.size();
+            try {
+                mark = poll(mark, changed);
+            } catch (Exception e) {
+                log.warn("{} 변경 추적 실패: {}", name, e.toString());
+                return;
+            }
+            checkedAt = now;
+            if (changed.size() > before) {
+                log.debug("{} 변경 추적: {}건 추가 (누적 {})", name, changed.size() - before, changed.size());
+            }
+        }
+
+        /** floor 이하 (rescan 구간 밖) 의 바뀐 키 */
+        public List<Long> atOrBelow(long floor) {
+            List<Long> out = new ArrayList<>();
+            for (Long k : changed) {
+                if (k <= floor) out.add(k);
+            }
+            return out;
+        }
+
+        public int size() {
+            return changed.size();
+        }
+
+        /** 최근(추적 주기 두 번 + slackMs 안)에 추적이 성공했는지 */
+        public boolean isCurrent(long slackMs) {
+            long at = checkedAt;
+            return at != 0 && System.currentTimeMillis() - at <= 2 * config.getChangesMs() + slackMs;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.SearchConfig;
+import com.example.dicomproject.dicomrepo.dto.StudyPageDto;
+import com.example.dicomproject.dicomrepo.dto.StudySliceDto;
+import com.example.dicomproject.dicomrepo.dto.StudySummaryDto;
+import com.example.dicomproject.dicomrepo.dto.TotalCount;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 스터디 검색 결과 2단 캐시: 로컬 L1(WeightedLruCache, JSON 크기 기준) → Redis L2(JSON 문자열) → DB.
+ * 키 = 변경 마커 + 정규화된 조건(StudyFilter) + 모드/페이지/커서. 마커(기본 max STUDYKEY)는 주기적으로 읽고,
+ * 바뀌면 L1 을 비운다 - L2 는 키에 마커가 들어가므로 옛 항목이 자연히 안 쓰이다가 TTL 로 사라진다.
+ * 같은 키 동시 미스는 한 번만 DB 로 간다 (single-flight).
+ * 마커를 maxStaleMs 동안 못 읽으면 캐시를 건너뛴다 (오래된 결과를 계속 주지 않도록).
+ */
+@Slf4j
+@Component
+public class StudySearchCache {
+
+    private static final String PREFIX = "dicom:search:";
+
+    public enum Source { L1, L2, DB, BYPASS }
+
+    public record Result<T>(T value, Source source, long ageMs) {
+    }
+
+    public record Stats(boolean enabled, String marker, long markerAgeMs, long markerChanges,
+                        long l1Hits, long l2Hits, long misses, long joined, long bypassed, long redisErrors,
+                        double hitRatio, double avgServedAgeMs, long maxServedAgeMs,
+                        WeightedLruCache.Stats l1) {
+    }
+
+    /** L2 에 저장하는 Page 모드 결과 (PageImpl 은 역직렬화가 어려워 필요한 값만) */
+    public record PageEntry(List<StudySummaryDto> content, int page, int size, long total, TotalCount.Mode countMode) {
+    }
+
+    /** L1 항목 - 로드 시각으로 나이(staleness)를 잰다 */
+    private record Entry(Object value, int weight, long loadedAt) {
+    }
+
+    private final SearchConfig.Cache config;
+    private final RedisTemplate<String, Object> redis;
+    private final ObjectMapper json;
+    private final JdbcTemplate jdbc;
+    private final WeightedLruCache<String, Entry> l1;
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+
+    private volatile String marker;
+    private volatile long markerReadAt;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+    private final LongAdder markerChanges = new LongAdder();
+    private final LongAdder servedAgeMs = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final AtomicLong maxServedAgeMs = new AtomicLong();
+
+    public StudySearchCache(SearchConfig config, RedisTemplate<String, Object> redis, ObjectMapper json,
+                            @Qualifier("oracleDataSource") DataSource oracle) {
+        this.config = config.getCache();
+        this.redis = redis;
+        this.json = json;
+        this.jdbc = new JdbcTemplate(oracle);
+        this.l1 = new WeightedLruCache<>("study-search", this.config.getL1MaxBytes(), Entry::weight);
+    }
+
+    /** 키 재료 - 조건 레코드의 toString 은 필드 순서가 고정이라 그대로 해시한다 */
+    public static String key(String mode, Object filter, Object... parts) {
+        StringBuilder sb = new StringBuilder(mode).append('|').append(filter);
+        for (Object p : parts) sb.append('|').append(p);
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return mode + ":" + HexFormat.of().formatHex(d, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Result<StudyPageDto> page(String key, Supplier<StudyPageDto> loader) {
+        Result<PageEntry> r = get(key, PageEntry.class, () -> {
+            StudyPageDto p = loader.get();
+            return new PageEntry(p.page().getContent(), p.page().getNumber(), p.page().getSize(),
+                    p.page().getTotalElements(), p.countMode());
+        });
+        PageEntry e = r.value();
+        StudyPageDto dto = new StudyPageDto(
+                new PageImpl<>(e.content(), PageRequest.of(e.page(), Math.max(1, e.size())), e.total()), e.countMode());
+        return new Result<>(dto, r.source(), r.ageMs());
+    }
+
+    public Result<StudySliceDto> slice(String key, Supplier<StudySliceDto> loader) {
+        return get(key, StudySliceDto.class, loader);
+    }
+
+    @Scheduled(fixedDelayString = "${dicom.search.cache.poll-ms:5000}")
+    public void pollMarker() {
+        if (!config.isEnabled()) return;
+        try {
+            String next = String.valueOf(jdbc.queryForObject(config.getMarkerSql(), Object.class));
+            if (!Objects.equals(next, marker)) {
+                if (marker != null) {
+                    markerChanges.increment();
+                    log.debug("검색 캐시 마커 변경 {} → {}", marker, next);
+                }
+                marker = next;
+                l1.clear();
+            }
+            markerReadAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.warn("검색 캐시 마커 조회 실패: {}", e.toString());
+        }
+    }
+
+    public void clear() {
+        l1.clear();
+        marker = null; // 다음 poll 까지 DB 로 직접 (L2 는 마커가 같으면 TTL 안에서 다시 쓰일 수 있음)
+        markerReadAt = 0;
+    }
+
+    public Stats stats() {
+        long h1 = l1Hits.sum(), h2 = l2Hits.sum(), m = misses.sum(), n = served.sum();
+        long total = h1 + h2 + m;
+        return new Stats(config.isEnabled(), marker,
+                markerReadAt == 0 ? -1 : System.currentTimeMillis() - markerReadAt, markerChanges.sum(),
+                h1, h2, m, joined.sum(), bypassed.sum(), redisErrors.sum(),
+                total == 0 ? 0 : (double) (h1 + h2) / total,
+                n == 0 ? 0 : (double) servedAgeMs.sum() / n, maxServedAgeMs.get(),
+                l1.stats());
+    }
+
+    private <T> Result<T> get(String key, Class<T> type, Supplier<T> loader) {
+        String m = marker;
+        if (!config.isEnabled() || m == null
+                || System.currentTimeMillis() - markerReadAt > config.getMaxStaleMs()) {
+            bypassed.increment();
+            return new Result<>(loader.get(), Source.BYPASS, 0);
+        }
+        String fullKey = PREFIX + m + ":" + key;
+        long now = System.currentTimeMillis();
+
+        Entry e = l1.get(fullKey);
+        if (e != null && now - e.loadedAt < config.getL1TtlMs()) {
+            l1Hits.increment();
+            return served(type.cast(e.value), Source.L1, now - e.loadedAt);
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inflight.putIfAbsent(fullKey, mine);
+        if (running != null) {
+            joined.increment();
+            Entry shared = join(running);
+            return served(type.cast(shared.value), Source.DB, System.currentTimeMillis() - shared.loadedAt);
+        }
+        try {
+            Source source = Source.L2;
+            Entry loaded = readL2(fullKey, type);
+            if (loaded == null) {
+                source = Source.DB;
+                misses.increment();
+                T value = loader.get();
+                String body = json.writeValueAsString(value);
+                loaded = new Entry(value, body.length() * 2, System.currentTimeMillis());
+                writeL2(fullKey, body, loaded.loadedAt);
+            } else {
+                l2Hits.increment();
+            }
+            l1.put(fullKey, loaded);
+            mine.complete(loaded);
+            return served(type.cast(loaded.value), source, System.currentTimeMillis() - loaded.loadedAt);
+        } catch (JsonProcessingException ex) {
+            mine.completeExceptionally(ex);
+            throw new IllegalStateException("검색 결과 직렬화 실패", ex);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inflight.remove(fullKey, mine);
+        }
+    }
+
+    private <T> Result<T> served(T value, Source source, long ageMs) {
+        served.increment();
+        servedAgeMs.add(ageMs);
+        maxServedAgeMs.accumulateAndGet(ageMs, Math::max);
+        return new Result<>(value, source, ageMs);
+    }
+
+    private static Entry join(CompletableFuture<Entry> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /** L2 값 = "loadedAt\n{json}" - 나이를 다른 인스턴스에서도 잴 수 있게 로드 시각을 앞에 붙임 */
+    private <T> Entry readL2(String key, Class<T> type) {
+        if (!config.isL2Enabled()) return null;
+        try {
+            Object raw = redis.opsForValue().get(key);
+            if (!(raw instanceof String s)) return null;
+            int nl = s.indexOf('\n');
+            if (nl < 0) return null;
+            long loadedAt = Long.parseLong(s.substring(0, nl));
+            T value = json.readValue(s.substring(nl + 1), type);
+            return new Entry(value, (s.length() - nl) * 2, loadedAt);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.debug("검색 캐시 L2 읽기 실패: {}", e.toString());
+            return null;
+        }
+    }
+
+    private void writeL2(String key, String body, long loadedAt) {
+        if (!config.isL2Enabled()) return;
+        try {
+            redis.opsForValue().set(key, loadedAt + "\n" + body, Duration.ofMillis(config.getL2TtlMs()));
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.debug("검색 캐시 L2 쓰기 실패: {}", e.toString());
+        }
+    }
+}
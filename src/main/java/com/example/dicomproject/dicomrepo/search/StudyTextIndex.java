@@ -0,0 +1,253 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import com.example.dicomproject.config.SearchConfig;
+import com.example.dicomproject.dicomrepo.dto.StudyFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 스터디 검색어(pid/이름, 접수번호, 검사 설명)의 메모리 trigram 역색인.
+ * like '%q%' 는 앞 와일드카드 때문에 Oracle 이 전체 스캔을 하므로, 여기서 후보 STUDYKEY 를 먼저 좁히고
+ * DB 는 그 키(PK)로만 나머지 조건과 실제 like 를 확인한다 - 후보는 항상 정답의 상위 집합이어야 한다.
+ *
+ * 스냅샷 두 개 (만든 뒤에는 바꾸지 않으므로 락 없이 교체):
+ * - base: rebuildIntervalMs 마다 전체 재구성.
+ * - recent: refresh 마다 (base 최대 STUDYKEY - rescanKeys) 이후 행 + 변경 추적으로 모은 STUDYKEY 행을 다시 읽어 새로 만든다.
+ *   늦게 커밋된 낮은 키(시퀀스 캐시/동시 입력)와 구간 안의 수정은 다음 refresh 에,
+ *   더 오래된 검사의 수정(환자 개명/병합, 접수번호/설명 정정)은 StudyChangeFeed 가 잡은 뒤(changesMs) 반영된다.
+ *   base 에 남은 이전 값은 후보만 늘릴 뿐 DB 확인에서 걸러진다 (삭제된 검사도 마찬가지).
+ * 색인이 본 최대 STUDYKEY 보다 큰 검사는 후보와 무관하게 DB 가 검사한다 (Candidates.indexedMaxKey).
+ * 변경 추적이 꺼져 있거나 밀려 있으면 q(pid/이름, PATIENTTAB 에서 바뀌는 값)는 좁히지 않는다 -
+ * 접수번호/설명만 색인으로 좁히고, 그 정정은 rescan 구간 밖이면 전체 재구성까지 늦을 수 있다.
+ */
+@Slf4j
+@Component
+public class StudyTextIndex {
+
+    private static final String SELECT = """
+            select s.STUDYKEY, p.PID, p.PNAME, s.ACCESSNUM, s.STUDYDESC
+            from STUDYTAB s left join PATIENTTAB p on p.PID = s.PID
+            where s.STUDYKEY > ?
+            order by s.STUDYKEY
+            """;
+    private static final String SELECT_KEYS = """
+            select s.STUDYKEY, p.PID, p.PNAME, s.ACCESSNUM, s.STUDYDESC
+            from STUDYTAB s left join PATIENTTAB p on p.PID = s.PID
+            where s.STUDYKEY in (%s)
+            """;
+
+    /**
+     * 색인 결과. keys 에 없더라도 STUDYKEY 가 indexedMaxKey 보다 크면 (색인 이후 입력) DB 가 검사해야 한다.
+     * keys 는 오름차순, 비어 있을 수 있다.
+     */
+    public record Candidates(List<Long> keys, long indexedMaxKey) {
+    }
+
+    public record Stats(boolean enabled, boolean ready, int studies, int recentStudies, long maxStudyKey,
+                        int patientGrams, int accessionGrams, int descGrams, long approxBytes,
+                        boolean trackingChanges, int changedStudies,
+                        long lookups, long narrowed, long fallbacks, long lastBuildMs, long lastRefreshRows) {
+    }
+
+    private final SearchConfig.Index config;
+    private final JdbcTemplate jdbc;
+    private final StudyChangeFeed changes;
+    private final StudyChangeFeed.Tracker changed;
+
+    private volatile State state;   // null = 아직 구성 전 (DB 로 폴백)
+    private long lastRebuildAt;
+    private long lastBuildMs;
+    private long lastRefreshRows;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder narrowed = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public StudyTextIndex(SearchConfig config, @Qualifier("oracleDataSource") DataSource oracle,
+                          StudyChangeFeed changes) {
+        this.config = config.getIndex();
+        this.jdbc = new JdbcTemplate(oracle);
+        this.jdbc.setFetchSize(this.config.getFetchSize());
+        this.changes = changes;
+        this.changed = changes.tracker("검색 색인");
+    }
+
+    /**
+     * 조건의 텍스트 술어를 만족할 수 있는 STUDYKEY 후보.
+     * 색인을 쓸 수 없으면(구성 전, 좁힐 수 있는 검색어가 없거나 3글자 미만, 후보가 maxCandidates 이상)
+     * null → DB 가 그대로 검색.
+     */
+    public Candidates candidates(StudyFilter f) {
+        State st = state;
+        if (!config.isEnabled() || st == null) return null;
+        boolean useQ = f.q() != null && trackingChanges();
+        if (!useQ && f.accession() == null && f.studyDesc() == null) return null;
+        lookups.increment();
+
+        int[] base = st.base.match(f, useQ);
+        int[] recent = st.recent.match(f, useQ);
+        if (base == null || recent == null || base.length + recent.length >= config.getMaxCandidates()) {
+            fallbacks.increment();
+            return null;
+        }
+        long[] keys = new long[base.length + recent.length];
+        int n = 0;
+        for (int d : base) keys[n++] = st.base.keys[d];
+        for (int d : recent) keys[n++] = st.recent.keys[d];
+        Arrays.sort(keys);
+        List<Long> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) out.add(keys[i]); // base 와 recent 양쪽에 있는 키
+        }
+        narrowed.increment();
+        return new Candidates(out, st.maxKey());
+    }
+
+    /**
+     * 시작 직후 전체 구성, 이후 fixedDelay 마다 최근 구간 재색인 / changesMs 마다 변경 추적 /
+     * rebuildIntervalMs 마다 전체 재구성
+     */
+    @Scheduled(fixedDelayString = "${dicom.search.index.refresh-ms:30000}")
+    public void refresh() {
+        if (!config.isEnabled()) return;
+        try {
+            long now = System.currentTimeMillis();
+            if (state == null || now - lastRebuildAt >= config.getRebuildIntervalMs()) {
+                rebuild();
+                lastRebuildAt = now;
+            } else {
+                changed.pollIfDue();
+                rescanRecent();
+            }
+        } catch (Exception e) {
+            log.warn("검색 색인 갱신 실패: {}", e.toString());
+        }
+    }
+
+    /**
+     * q 를 색인으로 좁혀도 되는지 - 변경 추적이 최근(주기 두 번 + refresh 안)에 성공했을 때만.
+     * 추적이 실패하면 개명된 환자가 후보에서 빠질 수 있으므로 DB 검색으로 돌린다.
+     */
+    boolean trackingChanges() {
+        return changed.isCurrent(config.getRefreshMs());
+    }
+
+    public Stats stats() {
+        State st = state;
+        if (st == null) {
+            return new Stats(config.isEnabled(), false, 0, 0, 0, 0, 0, 0, 0, false, 0,
+                    lookups.sum(), narrowed.sum(), fallbacks.sum(), lastBuildMs, lastRefreshRows);
+        }
+        Snapshot b = st.base, r = st.recent;
+        return new Stats(config.isEnabled(), true, b.size, r.size, st.maxKey(),
+                b.patient.grams() + r.patient.grams(), b.accession.grams() + r.accession.grams(),
+                b.desc.grams() + r.desc.grams(), b.bytes() + r.bytes(),
+                trackingChanges(), st.changedStudies,
+                lookups.sum(), narrowed.sum(), fallbacks.sum(), lastBuildMs, lastRefreshRows);
+    }
+
+    /**
+     * 새 스냅샷을 만든 뒤 교체 - 구성 중에도 이전 색인으로 검색.
+     * 변경 워터마크는 읽기 전에 잡는다 (구성 중 바뀐 행은 다음 추적에서 다시 읽힘).
+     */
+    private void rebuild() {
+        long t0 = System.nanoTime();
+        changed.reset();
+        Snapshot base = new Snapshot();
+        load(base, Long.MIN_VALUE);
+        state = new State(base, new Snapshot(), 0);
+        lastBuildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        lastRefreshRows = base.size;
+        log.info("검색 색인 구성: {} studies, {}ms", base.size, lastBuildMs);
+    }
+
+    /** base 최대 STUDYKEY - rescanKeys 이후 행 + 변경 추적으로 모은 행으로 recent 를 새로 만든다 */
+    private void rescanRecent() {
+        State st = state;
+        long floor = st.base.size == 0 ? Long.MIN_VALUE : st.base.maxKey - config.getRescanKeys();
+        Snapshot recent = new Snapshot();
+        load(recent, floor);
+        List<Long> older = changed.atOrBelow(floor);
+        changes.queryKeys(SELECT_KEYS, older, rs -> {
+            recent.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+        });
+        state = new State(st.base, recent, changed.size());
+        lastRefreshRows = recent.size;
+        log.debug("최근 검색 색인 재구성: STUDYKEY > {} 에서 {}건 (변경 {}건)", floor, recent.size, older.size());
+    }
+
+    private void load(Snapshot s, long afterKey) {
+        jdbc.query(SELECT, rs -> {
+            s.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+        }, afterKey);
+    }
+
+    private static int[] and(int[] acc, int[] next) {
+        if (next == null) return acc;
+        if (acc == null) return next;
+        int[] out = new int[Math.min(acc.length, next.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < acc.length && j < next.length) {
+            if (acc[i] == next[j]) {
+                out[n++] = acc[i];
+                i++;
+                j++;
+            } else if (acc[i] < next[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private record State(Snapshot base, Snapshot recent, int changedStudies) {
+        long maxKey() {
+            return Math.max(base.maxKey, recent.maxKey);
+        }
+    }
+
+    /** 문서 번호 = 추가 순서. keys[doc] = STUDYKEY. 구성이 끝나 State 에 들어간 뒤에는 읽기만 한다 */
+    private static final class Snapshot {
+        final TrigramIndex patient = new TrigramIndex();     // pid + 환자명 (검색어 q)
+        final TrigramIndex accession = new TrigramIndex();
+        final TrigramIndex desc = new TrigramIndex();
+        long[] keys = new long[1024];
+        int size;
+        long maxKey = Long.MIN_VALUE;
+
+        void add(long studyKey, String pid, String name, String accessionNumber, String studyDesc) {
+            if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+            int doc = size;
+            keys[size++] = studyKey;
+            maxKey = Math.max(maxKey, studyKey);
+            patient.add(doc, pid);
+            patient.add(doc, name);
+            accession.add(doc, accessionNumber);
+            desc.add(doc, studyDesc);
+        }
+
+        /** 정렬된 문서 번호, 좁힐 수 없으면 null. useQ = false 면 q 는 DB 에만 맡긴다 */
+        int[] match(StudyFilter f, boolean useQ) {
+            int[] docs = null;
+            docs = and(docs, !useQ || f.q() == null ? null : patient.candidates(f.q()));
+            docs = and(docs, f.accession() == null ? null : accession.candidates(f.accession()));
+            docs = and(docs, f.studyDesc() == null ? null : desc.candidates(f.studyDesc()));
+            return docs;
+        }
+
+        long bytes() {
+            return keys.length * 8L + patient.bytes() + accession.bytes() + desc.bytes();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 문자 trigram → 문서 번호 posting 목록.
+ * 대소문자는 구분하지 않으므로(소문자로 정규화) 결과는 후보 집합이고, 실제 like 비교는 DB 가 다시 한다.
+ * 동기화는 하지 않는다 - StudyTextIndex 가 다 만든 뒤 volatile 로 교체하고 그 뒤로는 읽기만 한다.
+ */
+final class TrigramIndex {
+
+    static final int GRAM = 3;
+
+    private final Map<Long, IntPostings> postings = new HashMap<>();
+
+    void add(int doc, String text) {
+        if (text == null) return;
+        String s = normalize(text);
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            postings.computeIfAbsent(gram(s, i), k -> new IntPostings()).add(doc);
+        }
+    }
+
+    /**
+     * query 를 부분 문자열로 가질 수 있는 문서 번호 (정렬됨).
+     * query 가 trigram 보다 짧으면 색인으로 좁힐 수 없으므로 null.
+     */
+    int[] candidates(String query) {
+        String s = normalize(query);
+        if (s.length() < GRAM) return null;
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) grams.add(gram(s, i));
+
+        List<IntPostings> lists = new ArrayList<>(grams.size());
+        for (Long g : grams) {
+            IntPostings p = postings.get(g);
+            if (p == null) return new int[0];
+            lists.add(p);
+        }
+        lists.sort(Comparator.comparingInt(IntPostings::size)); // 짧은 목록부터 교집합
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).intersect(result);
+        }
+        return result;
+    }
+
+    int grams() {
+        return postings.size();
+    }
+
+    long bytes() {
+        long total = 0;
+        for (IntPostings p : postings.values()) total += p.bytes() + 48; // 엔트리 + Long 키 대략
+        return total;
+    }
+
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.BulkConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.storage.StoredFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 스터디/시리즈 전체 인스턴스를 하나의 응답으로 스트리밍.
+ * 현재 파일을 쓰는 동안 다음 readAhead 개 파일을 병렬로 열고(작은 파일은 메모리에 선읽기) 순서대로 내보낸다.
+ * 선읽기 메모리는 readAheadBytes 로 제한된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkRetrieveService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final BulkConfig config;
+    private final InstanceFileService files;
+
+    private ExecutorService pool;
+    private Semaphore bufferBudget; // KiB 단위
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(config.getIoThreads(), r -> {
+            Thread t = new Thread(r, "dicom-bulk-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        bufferBudget = new Semaphore((int) Math.min(Integer.MAX_VALUE, config.getReadAheadBytes() / 1024));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** WADO-RS 스타일 multipart/related; type="application/dicom" */
+    public void writeMultipart(List<ImageMetaDto> rows, String boundary, OutputStream out) throws IOException {
+        byte[] delimiter = ("--" + boundary + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        pipeline(rows, (meta, file) -> {
+            out.write(delimiter);
+            out.write(("Content-Type: application/dicom\r\n"
+                    + "Content-Length: " + file.length() + "\r\n"
+                    + "Content-Location: /api/dicom/instances/" + meta.sopInstanceUid() + "/file\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            file.writeTo(out);
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        });
+        out.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /** 시리즈UID/SOPUID.dcm 구조의 ZIP */
+    public void writeZip(List<ImageMetaDto> rows, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(config.getZipLevel());
+        pipeline(rows, (meta, file) -> {
+            ZipEntry e = new ZipEntry(meta.seriesInstanceUid() + "/" + meta.sopInstanceUid() + ".dcm");
+            if (file.lastModified() > 0) e.setTime(file.lastModified());
+            zip.putNextEntry(e);
+            file.writeTo(zip);
+            zip.closeEntry();
+        });
+        zip.finish();
+        zip.flush();
+    }
+
+    // ---------------------------------------------------------------------
+
+    @FunctionalInterface
+    private interface PartWriter {
+        void write(ImageMetaDto meta, Fetched file) throws IOException;
+    }
+
+    /** 순서 유지 + 제한된 선읽기 파이프라인 */
+    private void pipeline(List<ImageMetaDto> rows, PartWriter writer) throws IOException {
+        Deque<CompletableFuture<Fetched>> window = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                while (next < rows.size() && next <= i + config.getReadAhead()) {
+                    ImageMetaDto m = rows.get(next++);
+                    window.addLast(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return fetch(m);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, pool));
+                }
+                Fetched f = await(window.removeFirst());
+                try (f) {
+                    writer.write(rows.get(i), f);
+                }
+            }
+        } finally {
+            // 클라이언트 중단 등으로 빠져나오면 남은 선읽기는 끝나는 대로 정리
+            for (CompletableFuture<Fetched> pending : window) {
+                pending.thenAccept(Fetched::closeQuietly);
+            }
+        }
+    }
+
+    private Fetched fetch(ImageMetaDto meta) throws IOException, InterruptedException {
+        StoredFile file = files.open(meta);
+        long len = file.length();
+        int kib = (int) ((len + 1023) / 1024);
+        if (len > config.getMaxBufferedFileBytes() || !bufferBudget.tryAcquire(kib, 10, TimeUnit.MILLISECONDS)) {
+            return new Fetched(file, null, file.lastModified(), 0); // 차례가 되면 바로 스트리밍
+        }
+        try (file) {
+            byte[] data = file.stream().readNBytes((int) len);
+            return new Fetched(null, data, file.lastModified(), kib);
+        } catch (IOException | RuntimeException e) {
+            bufferBudget.release(kib);
+            throw e;
+        }
+    }
+
+    private static Fetched await(CompletableFuture<Fetched> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof IOException io) throw io;
+            throw new IOException("bulk 선읽기 실패", c);
+        }
+    }
+
+    /** 선읽기 결과: 메모리 버퍼 또는 열린 스트림 */
+    private final class Fetched implements AutoCloseable {
+        private final StoredFile file;
+        private final byte[] data;
+        private final long lastModified;
+        private final int budgetKib;
+
+        Fetched(StoredFile file, byte[] data, long lastModified, int budgetKib) {
+            this.file = file;
+            this.data = data;
+            this.lastModified = lastModified;
+            this.budgetKib = budgetKib;
+        }
+
+        long length() {
+            return data != null ? data.length : file.length();
+        }
+
+        long lastModified() {
+            return lastModified;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            if (data != null) {
+                out.write(data);
+                return;
+            }
+            InputStream in = file.stream();
+            byte[] buf = new byte[COPY_BUFFER_SIZE];
+            long remaining = file.length();
+            while (remaining > 0) {
+                int r = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (r < 0) throw new IOException("예상보다 파일이 짧음: " + remaining + " bytes 부족");
+                out.write(buf, 0, r);
+                remaining -= r;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (data != null) {
+                bufferBudget.release(budgetKib);
+            } else {
+                file.close();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                log.debug("bulk 선읽기 정리 실패: {}", e.toString());
+            }
+        }
+    }
+}
@@ -1,46 +1,163 @@
 package com.example.dicomproject.dicomrepo.service;
 
 
+import com.example.dicomproject.config.SearchConfig;
 import com.example.dicomproject.dicomrepo.dto.*;
 import com.example.dicomproject.dicomrepo.entity.Series;
 import com.example.dicomproject.dicomrepo.entity.Study;
 import com.example.dicomproject.dicomrepo.repository.ImageRepository;
 import com.example.dicomproject.dicomrepo.repository.SeriesRepository;
 import com.example.dicomproject.dicomrepo.repository.StudyRepository;
+import com.example.dicomproject.dicomrepo.search.PatientNameIndex;
+import com.example.dicomproject.dicomrepo.search.StudyTextIndex;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true, transactionManager = "oracleTx")
 public class DicomService {
 
+    /** searchByPids 의 pidOrder 최대 길이 (Oracle VARCHAR2 바인드) */
+    private static final int MAX_PID_ORDER = 4000;
+
     private final StudyRepository studyRepo;
     private final SeriesRepository seriesRepo;
     private final ImageRepository imageRepo;
 
     private final StudyRepository repo;
+    private final StudyCountService counts;
+    private final StudyTextIndex textIndex;
+    private final PatientNameIndex nameIndex;
+    private final SearchConfig searchConfig;
+
+    /**
+     * Page 모드 검색. 페이지는 size+1 행(Slice)으로만 읽고, 전체 건수는 StudyCountService 가
+     * 조건에 따라 정확한 count / 캐시 / 추정 중 하나로 채운다.
+     * 검색어가 있으면 StudyTextIndex 로 후보 STUDYKEY 를 먼저 좁혀 DB 는 PK 로만 확인한다.
+     */
+    public StudyPageDto searchStudies(StudySearchCondition c, Pageable pageable, boolean exactCount) {
+        StudyFilter f = StudyFilter.of(c);
+        // 후보가 비어도 색인 이후 입력된 검사(indexedMaxKey 초과)는 DB 가 확인해야 하므로 쿼리는 한다
+        StudyTextIndex.Candidates cand = textIndex.candidates(f);
+        Slice<StudyProjection> slice = repo.search(
+                f.q(),
+                f.accession(),
+                f.studyDesc(),
+                f.modalities(),
+                f.bodyPart(),
+                f.fromDate(),
+                f.toDate(),
+                cand != null ? cand.keys() : null,
+                cand != null ? cand.indexedMaxKey() : null,
+                pageable
+        );
+        List<StudySummaryDto> content = slice.getContent().stream().map(DicomService::toSummary).toList();
+        TotalCount total = counts.total(f, cand, pageable, content.size(), slice.hasNext(), exactCount);
+        return new StudyPageDto(new PageImpl<>(content, pageable, total.total()), total.mode());
+    }
+
+    /**
+     * 커서 기반 검색 - size+1 개를 읽어 다음 페이지 유무를 판단하고, count 쿼리는 하지 않는다.
+     * @param after 이전 응답의 nextCursor (첫 페이지면 null)
+     */
+    public StudySliceDto scrollStudies(StudySearchCondition c, StudyCursor after, int size) {
+        StudyFilter f = StudyFilter.of(c);
+        StudyTextIndex.Candidates cand = textIndex.candidates(f);
+        List<StudyProjection> rows = repo.searchAfter(
+                f.q(),
+                f.accession(),
+                f.studyDesc(),
+                f.modalities(),
+                f.bodyPart(),
+                f.fromDate(),
+                f.toDate(),
+                cand != null ? cand.keys() : null,
+                cand != null ? cand.indexedMaxKey() : null,
+                after != null ? after.studyDate() : null,
+                after != null ? after.studyTime() : null,
+                after != null ? after.studyKey() : null,
+                Limit.of(size + 1)
+        );
+        boolean hasNext = rows.size() > size;
+        List<StudySummaryDto> content = rows.stream().limit(size).map(DicomService::toSummary).toList();
+        String next = hasNext ? StudyCursor.after(content.get(content.size() - 1)).encode() : null;
+        return new StudySliceDto(content, size, hasNext, next);
+    }
+
+    /**
+     * 환자명 초성/자모 검색 (mode=name). PatientNameIndex 점수 상위 환자의 검사를
+     * 환자 순위 → 검사일 역순으로 DB 에서 정렬/페이징한다 (순위는 pidOrder 안의 위치).
+     * c.q() 는 이름과 별도로 준 pid 조건 (없으면 null) - 나머지 조건과 함께 그대로 적용한다.
+     * 색인이 준비되지 않았으면 이름 like 검색.
+     */
+    public StudyPageDto searchByName(StudySearchCondition c, String name, Pageable pageable) {
+        StudyFilter f = StudyFilter.of(c);
+        List<PatientNameIndex.Match> matches = nameIndex.search(name, searchConfig.getName().getMaxPatients());
+        if (matches == null) {
+            if (f.q() == null) {
+                StudySearchCondition byLike = new StudySearchCondition(name, c.accession(), c.studyDesc(),
+                        c.modality(), c.bodyPart(), c.fromDate(), c.toDate());
+                return searchStudies(byLike, pageable, false);
+            }
+            return searchByPids(f, null, name, null, pageable);
+        }
+        if (matches.isEmpty()) return new StudyPageDto(Page.empty(pageable), TotalCount.Mode.EXACT);
+
+        // 순위 순 PID - pidOrder 는 VARCHAR2 바인드 한도 안에서 자른다 (넘치는 하위 순위 환자는 제외)
+        Set<String> pids = new LinkedHashSet<>();
+        StringBuilder order = new StringBuilder("|");
+        for (PatientNameIndex.Match m : matches) {
+            if (pids.contains(m.pid())) continue;
+            if (order.length() + m.pid().length() + 1 > MAX_PID_ORDER) break;
+            pids.add(m.pid());
+            order.append(m.pid()).append('|');
+        }
+        return searchByPids(f, List.copyOf(pids), null, order.toString(), pageable);
+    }
 
-    public Page<StudySummaryDto> searchStudies(StudySearchCondition c, Pageable pageable) {
-        List<String> modalities = parseModalities(emptyToNull(c.modality()));
-        Page<StudyProjection> page = repo.search(
-                emptyToNull(c.q()), // ↓ 필요 시 병합 함수
-                emptyToNull(c.accession()),
-                emptyToNull(c.studyDesc()),
-                modalities,
-                emptyToNull(c.bodyPart()),
-                emptyToNull(c.fromDate()),
-                emptyToNull(c.toDate()),
+    /** 페이지는 size+1 행(Slice)으로, 전체 건수는 마지막 페이지가 아닐 때만 count (환자 수백 명 한도라 정확히) */
+    private StudyPageDto searchByPids(StudyFilter f, List<String> pids, String pname, String pidOrder,
+                                      Pageable pageable) {
+        StudyTextIndex.Candidates cand = textIndex.candidates(f);
+        List<Long> keys = cand != null ? cand.keys() : null;
+        Long indexedMaxKey = cand != null ? cand.indexedMaxKey() : null;
+        Slice<StudyProjection> slice = repo.searchByPids(
+                f.q(),
+                f.accession(),
+                f.studyDesc(),
+                f.modalities(),
+                f.bodyPart(),
+                f.fromDate(),
+                f.toDate(),
+                keys,
+                indexedMaxKey,
+                pids,
+                pname,
+                pidOrder,
                 pageable
         );
-        return page.map(p -> new StudySummaryDto(
+        List<StudySummaryDto> content = slice.getContent().stream().map(DicomService::toSummary).toList();
+        long total = !slice.hasNext() && (!content.isEmpty() || pageable.getOffset() == 0)
+                ? pageable.getOffset() + content.size()
+                : repo.countByPids(f.q(), f.accession(), f.studyDesc(), f.modalities(), f.bodyPart(),
+                        f.fromDate(), f.toDate(), keys, indexedMaxKey, pids, pname);
+        return new StudyPageDto(new PageImpl<>(content, pageable, total), TotalCount.Mode.EXACT);
+    }
+
+    private static StudySummaryDto toSummary(StudyProjection p) {
+        return new StudySummaryDto(
                 p.getStudyKey(),
                 p.getStudyUid(),
                 p.getStudyDate(),
@@ -51,18 +168,7 @@ public class DicomService {
                 p.getAccessionNum(),
                 p.getPid(),
                 p.getPname()
-        ));
-    }
-
-    private String emptyToNull(String s) {
-        return (s == null || s.isBlank()) ? null : s;
-    }
-
-    private static List<String> parseModalities(String csv) {
-        if (csv == null || csv.isBlank()) return null; // 빈은 null
-        List<String> list = Arrays.stream(csv.split(","))
-                .map(String::trim).filter(s -> !s.isEmpty()).toList();
-        return list.isEmpty() ? null : list;
+        );
     }
 
     public List<SeriesSummaryDto> listSeries(String studyUid) {
@@ -81,17 +187,22 @@ public class DicomService {
     }
 
     public ImageMetaDto getInstanceMeta(String sopUid) {
-        var i = imageRepo.findBySopInstanceUid(sopUid).orElseThrow();
+        // modality는 Series 테이블에 있으므로 조인해서 가져옴
+        var i = imageRepo.findMetaBySopInstanceUid(sopUid).orElseThrow();
         return new ImageMetaDto(
-                i.getStudyKey(), i.getSeriesKey(), i.getImageKey(),
-                i.getStudyInstanceUid(), i.getSeriesInstanceUid(), i.getSopInstanceUid(),
-                tidyPath(i.getPath()), i.getFname(),
-                // modality는 Series/Study에 있으므로 참고용
-                null
+                i.studyKey(), i.seriesKey(), i.imageKey(),
+                i.studyInstanceUid(), i.seriesInstanceUid(), i.sopInstanceUid(),
+                tidyPath(i.path()), i.fname(),
+                i.modality(), i.storageId()
         );
     }
 
-    private String tidyPath(String p) {
+    /** 스토리지 기준 상대 경로 (PATH 정리 + FNAME) - 캐시 키로도 쓰이므로 항상 이 함수로 만든다 */
+    public static String relativePath(ImageMetaDto m) {
+        return tidyPath(m.path()) + m.fname();
+    }
+
+    static String tidyPath(String p) {
         if (p == null) return "";
         String r = p.replace('\\', '/');
         if (r.startsWith("/")) r = r.substring(1);
@@ -0,0 +1,98 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.FrameIndexConfig;
+import com.example.dicomproject.dicomrepo.dto.DicomUid;
+import com.example.dicomproject.dicomrepo.parser.FrameIndex;
+import com.example.dicomproject.dicomrepo.parser.FrameIndexBuilder;
+import com.example.dicomproject.storage.RandomReadable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SOP Instance UID → FrameIndex.
+ * 메모리 LRU → 디스크 인덱스 파일 → (미스) 헤더 파싱 순으로 찾는다.
+ * 인덱스는 파일 길이를 같이 기록해 두고, 열린 파일 길이와 다르면 다시 만든다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FrameIndexService {
+
+    private final FrameIndexConfig config;
+
+    private final Map<DicomUid, FrameIndex> memory = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DicomUid, FrameIndex> eldest) {
+            return size() > config.getMemoryEntries();
+        }
+    };
+
+    public FrameIndex indexOf(String sopUid, RandomReadable file) throws IOException {
+        FrameIndex idx = find(sopUid, file.length());
+        if (idx != null) return idx;
+        idx = FrameIndexBuilder.build(file);
+        if (config.isPersist()) store(sopUid, idx);
+        synchronized (memory) {
+            memory.put(DicomUid.of(sopUid), idx);
+        }
+        return idx;
+    }
+
+    /** 메모리 → 디스크 인덱스에서만 찾음 (파일을 열지 않음). 없거나 파일 길이가 다르면 null */
+    public FrameIndex find(String sopUid, long fileLength) {
+        DicomUid key = DicomUid.of(sopUid);
+        FrameIndex idx;
+        synchronized (memory) {
+            idx = memory.get(key);
+        }
+        if (idx != null && idx.fileLength() == fileLength) return idx;
+
+        idx = config.isPersist() ? load(sopUid) : null;
+        if (idx == null || idx.fileLength() != fileLength) return null;
+        synchronized (memory) {
+            memory.put(key, idx);
+        }
+        return idx;
+    }
+
+    private FrameIndex load(String sopUid) {
+        Path p = pathOf(sopUid);
+        if (!Files.isRegularFile(p)) return null;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(p)))) {
+            return FrameIndex.readFrom(in);
+        } catch (IOException e) {
+            log.debug("frame index 읽기 실패, 재생성: {} ({})", p, e.toString());
+            return null;
+        }
+    }
+
+    private void store(String sopUid, FrameIndex idx) {
+        Path p = pathOf(sopUid);
+        try {
+            Files.createDirectories(p.getParent());
+            Path tmp = Files.createTempFile(p.getParent(), "fidx", ".tmp");
+            try {
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    idx.writeTo(out);
+                }
+                Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp); // 쓰기/이동 실패 시 임시 파일이 쌓이지 않게 (이동했으면 이미 없음)
+            }
+        } catch (IOException e) {
+            log.warn("frame index 저장 실패: {} ({})", p, e.toString()); // 저장 실패해도 응답은 계속
+        }
+    }
+
+    private Path pathOf(String sopUid) {
+        String name = sopUid.replaceAll("[^0-9A-Za-z.]", "_");
+        String shard = name.length() >= 2 ? name.substring(name.length() - 2) : "__";
+        return Paths.get(config.getDir(), shard, name + ".fidx");
+    }
+}
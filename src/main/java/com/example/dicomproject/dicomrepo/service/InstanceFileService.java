@@ -0,0 +1,87 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.storage.DiskCache;
+import com.example.dicomproject.storage.FileStat;
+import com.example.dicomproject.storage.RandomReadable;
+import com.example.dicomproject.storage.StorageBackend;
+import com.example.dicomproject.storage.StorageRegistry;
+import com.example.dicomproject.storage.StoredFile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 인스턴스 파일 읽기 진입점.
+ * 로컬 디스크 캐시 → (미스) 저장소 순으로 열고, 원격에서 읽은 바이트는 캐시에 write-through 한다.
+ * 저장소는 STSTORAGEID 로 StorageRegistry 에서 고르고, 로컬(마운트)이면 캐시를 거치지 않고 바로 연다.
+ */
+@Service
+@RequiredArgsConstructor
+public class InstanceFileService {
+
+    private final StorageRegistry storages;
+    private final DiskCache cache;
+
+    public StoredFile open(ImageMetaDto meta) throws IOException {
+        StorageBackend storage = storages.backendFor(meta.storageId());
+        String path = DicomService.relativePath(meta);
+        if (storage.isLocal()) return storage.openFile(path);
+        String key = storages.cacheKey(meta.storageId(), path);
+        Optional<StoredFile> hit = cache.lookup(key);
+        if (hit.isPresent()) return hit.get();
+        return cache.writeThrough(key, storage.openFile(path));
+    }
+
+    /** 조건부 요청 검증용 크기/수정시각 - 파일을 열지 않음 */
+    public FileStat stat(ImageMetaDto meta) throws IOException {
+        StorageBackend storage = storages.backendFor(meta.storageId());
+        String path = DicomService.relativePath(meta);
+        if (storage.isLocal()) return storage.stat(path);
+        Optional<FileStat> hit = cache.stat(storages.cacheKey(meta.storageId(), path));
+        if (hit.isPresent()) return hit.get();
+        return storage.stat(path);
+    }
+
+    /**
+     * 임의 접근 핸들 (캐시 히트면 로컬 FileChannel). 미스면 요청 구간은 원격에서 바로 읽는다.
+     * fill = 파일 전체를 뒤에서 캐시에 받아 둘지 (구간 읽기는 write-through 불가) - 곧 다시 읽을 Range/프레임 전송만 true,
+     * 헤더/프레임 인덱스만 읽는 경로는 false (시리즈 메타데이터 한 번에 파일 전체를 SMB 로 당기지 않도록).
+     */
+    public RandomReadable openRandomAccess(ImageMetaDto meta, boolean fill) throws IOException {
+        StorageBackend storage = storages.backendFor(meta.storageId());
+        String path = DicomService.relativePath(meta);
+        if (storage.isLocal()) return storage.openRandomAccess(path);
+        String key = storages.cacheKey(meta.storageId(), path);
+        Optional<RandomReadable> hit = cache.lookupRandomAccess(key);
+        if (hit.isPresent()) return hit.get();
+        RandomReadable remote = storage.openRandomAccess(path);
+        if (fill) cache.fillAsync(key, () -> storage.openFile(path));
+        return remote;
+    }
+
+    /**
+     * 로컬 디스크에 있으면(로컬 저장소 또는 캐시 히트) 경로 - sendfile 용, 원격이면 null.
+     * 캐시 항목은 하드 링크로 고정해서 돌려주므로 전송 중 축출돼도 안전하다.
+     */
+    public Path localPath(ImageMetaDto meta) throws IOException {
+        StorageBackend storage = storages.backendFor(meta.storageId());
+        String path = DicomService.relativePath(meta);
+        if (storage.isLocal()) return storage.localPath(path);
+        return cache.pin(storages.cacheKey(meta.storageId(), path)).orElse(null);
+    }
+
+    /** 프리페치 대상인지 - 원격 저장소이고 아직 캐시에 없음 */
+    public boolean needsFetch(ImageMetaDto meta) {
+        if (!cache.isEnabled() || storages.backendFor(meta.storageId()).isLocal()) return false;
+        return !cache.contains(storages.cacheKey(meta.storageId(), DicomService.relativePath(meta)));
+    }
+
+    /** 디스크 캐시 사용 중인지 (프리페치 활성 여부) */
+    public boolean usesCache() {
+        return cache.isEnabled();
+    }
+}
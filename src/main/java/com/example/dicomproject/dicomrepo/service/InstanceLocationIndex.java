@@ -0,0 +1,150 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.LocationIndexConfig;
+import com.example.dicomproject.dicomrepo.dto.DicomUid;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SOP UID → 저장 위치(STSTORAGEID, 정리된 PATH, FNAME) 메모리 색인.
+ * 매니페스트를 만들 때 스터디 전체를 한 번에 채우므로, 뷰어가 스터디를 넘기는 동안
+ * /instances/{sop}/file 등은 Oracle(트랜잭션 + 엔티티 조회)을 거치지 않는다. 없으면 DB 로 조회 후 채운다.
+ *
+ * 항목은 작게: 키는 DicomUid(4비트 압축), 같은 시리즈의 PATH 는 문자열 하나를 공유하고 storageId 는 원시 long.
+ * 퇴출은 두 세대(young/old) 교체 - young 이 한도의 절반이 되면 old 를 버리고 young 을 old 로 내린다.
+ * old 에서 찾은 항목은 young 으로 올리므로 자주 쓰는 위치는 남는다 (잠금 없는 근사 LRU).
+ * 항목은 시간으로 만료하지 않는다 - 대신 색인 위치에 파일이 없으면(NoSuchFileException, 옮겨진 파일) 그 항목을
+ * 버리고 DB 위치로 다시 시도한다 (locate(sopUid, use)). 전체는 admin 에서 비울 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceLocationIndex {
+
+    private static final long NO_STORAGE = Long.MIN_VALUE;
+
+    public record Stats(boolean enabled, int entries, int maxEntries, long hits, long misses, long filled,
+                        long generations, long relocated, double hitRatio) {
+    }
+
+    /** 위치로 파일에 접근하는 작업 */
+    @FunctionalInterface
+    public interface FileAccess<T> {
+        T apply(ImageMetaDto meta) throws IOException;
+    }
+
+    /** 실제로 쓴 위치와 결과 - 바디에서 파일을 다시 열 때는 이 meta 를 쓴다 */
+    public record Located<T>(ImageMetaDto meta, T value) {
+    }
+
+    /** storageId 가 null 이면 NO_STORAGE (기본 저장소) */
+    private record Location(String dir, String fname, long storageId) {
+        ImageMetaDto toMeta(String sopUid) {
+            return new ImageMetaDto(null, null, null, null, null, sopUid, dir, fname, null,
+                    storageId == NO_STORAGE ? null : storageId);
+        }
+    }
+
+    private final LocationIndexConfig config;
+    private final DicomService dicom;
+
+    private volatile ConcurrentHashMap<DicomUid, Location> young = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<DicomUid, Location> old = new ConcurrentHashMap<>();
+    /** PATH 공유용 - 세대가 바뀔 때 같이 비운다 (남은 항목은 자기 참조로 유지) */
+    private volatile ConcurrentHashMap<String, String> dirs = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder filled = new LongAdder();
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder relocated = new LongAdder();
+
+    /**
+     * 파일을 열 때 필요한 값(sopInstanceUid, path, fname, storageId)만 채운 ImageMetaDto.
+     * 색인에 없으면 DicomService.getInstanceMeta (없는 UID 면 NoSuchElementException).
+     */
+    public ImageMetaDto locate(String sopUid) {
+        if (!config.isEnabled()) return dicom.getInstanceMeta(sopUid);
+        DicomUid key = DicomUid.of(sopUid);
+        Location loc = young.get(key);
+        if (loc == null) {
+            loc = old.get(key);
+            if (loc != null) young.put(key, loc);
+        }
+        if (loc != null) {
+            hits.increment();
+            return loc.toMeta(sopUid);
+        }
+        misses.increment();
+        ImageMetaDto meta = dicom.getInstanceMeta(sopUid);
+        add(meta);
+        return meta;
+    }
+
+    /**
+     * locate 한 위치로 use 를 실행. 그 위치에 파일이 없으면 항목을 버리고 DB 에서 다시 조회해,
+     * 위치가 달라졌으면 새 위치로 한 번 더 시도한다 (같으면 원래 예외).
+     */
+    public <T> Located<T> locate(String sopUid, FileAccess<T> use) throws IOException {
+        ImageMetaDto meta = locate(sopUid);
+        try {
+            return new Located<>(meta, use.apply(meta));
+        } catch (NoSuchFileException e) {
+            if (!config.isEnabled()) throw e;
+            evict(sopUid);
+            ImageMetaDto fresh = dicom.getInstanceMeta(sopUid);
+            add(fresh);
+            if (DicomService.relativePath(fresh).equals(DicomService.relativePath(meta))
+                    && Objects.equals(fresh.storageId(), meta.storageId())) {
+                throw e;
+            }
+            relocated.increment();
+            return new Located<>(fresh, use.apply(fresh));
+        }
+    }
+
+    public void evict(String sopUid) {
+        DicomUid key = DicomUid.of(sopUid);
+        young.remove(key);
+        old.remove(key);
+    }
+
+    /** 매니페스트 행 등에서 일괄로 채움 */
+    public void add(ImageMetaDto meta) {
+        if (!config.isEnabled() || meta.sopInstanceUid() == null) return;
+        String dir = DicomService.tidyPath(meta.path());
+        Location loc = new Location(dirs.computeIfAbsent(dir, d -> d), meta.fname(),
+                meta.storageId() == null ? NO_STORAGE : meta.storageId());
+        young.put(DicomUid.of(meta.sopInstanceUid()), loc);
+        filled.increment();
+        if (young.size() >= Math.max(1, config.getMaxEntries() / 2)) roll();
+    }
+
+    public void clear() {
+        synchronized (this) {
+            young = new ConcurrentHashMap<>();
+            old = new ConcurrentHashMap<>();
+            dirs = new ConcurrentHashMap<>();
+        }
+    }
+
+    public Stats stats() {
+        long h = hits.sum(), m = misses.sum();
+        return new Stats(config.isEnabled(), young.size() + old.size(), config.getMaxEntries(),
+                h, m, filled.sum(), generations.sum(), relocated.sum(), h + m == 0 ? 0 : (double) h / (h + m));
+    }
+
+    private synchronized void roll() {
+        if (young.size() < Math.max(1, config.getMaxEntries() / 2)) return; // 다른 스레드가 이미 교체
+        old = young;
+        young = new ConcurrentHashMap<>();
+        dirs = new ConcurrentHashMap<>();
+        generations.increment();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.MetadataConfig;
+import com.example.dicomproject.dicomrepo.dto.DicomUid;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.parser.DicomHeaderParser;
+import com.example.dicomproject.dicomrepo.parser.DicomJsonWriter;
+import com.example.dicomproject.dicomrepo.repository.ImageRepository;
+import com.example.dicomproject.storage.RandomReadable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WADO-RS 메타데이터 (DICOM JSON).
+ * 파일 전체가 아니라 Pixel Data 직전까지의 헤더만 읽고, 인스턴스별 JSON 을 바이트 한도 LRU 에 보관한다.
+ * 인스턴스 파일은 불변이므로 캐시 항목은 무효화하지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MetadataService {
+
+    private final MetadataConfig config;
+    private final ImageRepository imageRepository;
+    private final InstanceFileService files;
+    private final ObjectMapper objectMapper;
+
+    private WeightedLruCache<DicomUid, byte[]> cache;
+    private ExecutorService pool;
+
+    @PostConstruct
+    void init() {
+        cache = new WeightedLruCache<>("metadata", config.getCacheMaxBytes(), v -> v.length);
+        AtomicInteger seq = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(config.getIoThreads(), r -> {
+            Thread t = new Thread(r, "dicom-metadata-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** 시리즈의 모든 인스턴스 메타데이터 JSON 배열. 시리즈가 없으면 null */
+    public byte[] seriesMetadata(String studyUid, String seriesUid) throws IOException {
+        var rows = imageRepository.findAllByStudyUidAndSeriesUid(studyUid, seriesUid);
+        if (rows.isEmpty()) return null;
+
+        // 캐시 미스만 병렬로 헤더 읽기 (순서는 imageKey 순 유지)
+        List<CompletableFuture<byte[]>> parts = new ArrayList<>(rows.size());
+        for (ImageMetaDto row : rows) {
+            byte[] hit = cache.get(DicomUid.of(row.sopInstanceUid()));
+            parts.add(hit != null
+                    ? CompletableFuture.completedFuture(hit)
+                    : CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return load(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, pool));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) out.write(',');
+            out.write(join(parts.get(i)));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    /** 인스턴스 하나의 메타데이터 (JSON 배열, 원소 1개) */
+    public byte[] instanceMetadata(ImageMetaDto meta) throws IOException {
+        byte[] json = cache.get(DicomUid.of(meta.sopInstanceUid()));
+        if (json == null) json = load(meta);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length + 2);
+        out.write('[');
+        out.write(json);
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    public WeightedLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private byte[] load(ImageMetaDto row) throws IOException {
+        byte[] json;
+        try (RandomReadable file = files.openRandomAccess(row, false)) {
+            json = DicomJsonWriter.toJson(DicomHeaderParser.parse(file), objectMapper.getFactory());
+        }
+        cache.put(DicomUid.of(row.sopInstanceUid()), json);
+        return json;
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.parser.DicomHeader;
+import com.example.dicomproject.dicomrepo.parser.FrameIndex;
+import com.example.dicomproject.storage.RandomReadable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * 인스턴스에서 프레임 바이트를 꺼내는 서버 측 픽셀 추출기.
+ * FrameIndex 가 가리키는 구간만 읽으므로 원격 파일도 필요한 프레임만큼만 전송된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PixelDataService {
+
+    private final InstanceFileService files;
+    private final FrameIndexService frameIndex;
+
+    /** 프레임 원본 바이트 (encapsulated 면 조각을 이어 붙인 압축 스트림) */
+    public record Frame(FrameIndex index, int frame, byte[] data) {
+        public boolean bigEndian() {
+            return DicomHeader.EXPLICIT_BE.equals(index.transferSyntaxUid());
+        }
+    }
+
+    public FrameIndex index(ImageMetaDto meta) throws IOException {
+        try (RandomReadable file = files.openRandomAccess(meta, false)) {
+            return frameIndex.indexOf(meta.sopInstanceUid(), file);
+        }
+    }
+
+    /** frame 은 0-based. 범위를 벗어나면 IndexOutOfBoundsException */
+    public Frame readFrame(ImageMetaDto meta, int frame) throws IOException {
+        try (RandomReadable file = files.openRandomAccess(meta, true)) {
+            FrameIndex idx = frameIndex.indexOf(meta.sopInstanceUid(), file);
+            if (frame < 0 || frame >= idx.frameCount()) {
+                throw new IndexOutOfBoundsException("frame " + (frame + 1) + " / " + idx.frameCount());
+            }
+            return new Frame(idx, frame, read(file, idx, frame));
+        }
+    }
+
+    static byte[] read(RandomReadable file, FrameIndex idx, int frame) throws IOException {
+        long total = idx.frameLength(frame);
+        if (total > Integer.MAX_VALUE - 8) throw new IOException("프레임이 너무 큼: " + total);
+        byte[] buf = new byte[(int) total];
+        int pos = 0;
+        int[] starts = idx.frameStarts();
+        for (int f = starts[frame]; f < starts[frame + 1]; f++) {
+            long off = idx.fragmentOffsets()[f];
+            int len = idx.fragmentLengths()[f];
+            int done = 0;
+            while (done < len) {
+                int r = file.read(off + done, buf, pos + done, len - done);
+                if (r < 0) throw new EOFException("프레임 읽기 중 파일 끝: " + (len - done) + " bytes 부족");
+                done += r;
+            }
+            pos += len;
+        }
+        return buf;
+    }
+}
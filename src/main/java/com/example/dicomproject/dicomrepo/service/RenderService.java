@@ -0,0 +1,145 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.RenderConfig;
+import com.example.dicomproject.dicomrepo.dto.DicomUid;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.parser.PixelInfo;
+import com.example.dicomproject.dicomrepo.render.FrameRenderer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * 서버 렌더링 (WADO-RS /rendered).
+ * 비압축 프레임은 FrameRenderer 로 Modality LUT + Window/Level 적용, JPEG Baseline 은 ImageIO 로 디코딩.
+ * 결과 PNG/JPEG 는 (sop, frame, window, 크기, 포맷) 키로 바이트 한도 LRU 에 보관한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RenderService {
+
+    static final String JPEG_BASELINE = "1.2.840.10008.1.2.4.50";
+
+    private final RenderConfig config;
+    private final PixelDataService pixels;
+
+    private WeightedLruCache<RenderKey, byte[]> cache;
+
+    /** windowCenter/Width 가 NaN 이면 헤더 기본값, viewport 가 0 이면 원본 크기 */
+    public record RenderKey(DicomUid sopUid, int frame, double windowCenter, double windowWidth,
+                            int viewportWidth, int viewportHeight, String format, int quality) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new WeightedLruCache<>("render", config.getCacheMaxBytes(), v -> v.length);
+    }
+
+    /**
+     * @return 인코딩된 이미지. 렌더링할 수 없는 전송 구문/픽셀 형식이면 null (호출 측에서 406),
+     *         프레임 번호가 범위를 벗어나면 IndexOutOfBoundsException
+     */
+    public byte[] render(ImageMetaDto meta, RenderKey key) throws IOException {
+        byte[] hit = cache.get(key);
+        if (hit != null) return hit;
+
+        PixelDataService.Frame frame = pixels.readFrame(meta, key.frame());
+        PixelInfo p = frame.index().pixel();
+        BufferedImage img;
+        if (!frame.index().encapsulated()) {
+            if (!FrameRenderer.supports(p)) {
+                log.debug("렌더링 미지원 픽셀 형식: {}, {}x{}bit ({})", p.photometricInterpretation(),
+                        p.samplesPerPixel(), p.bitsAllocated(), meta.sopInstanceUid());
+                return null;
+            }
+            int[] size = fit(p.columns(), p.rows(), key);
+            img = FrameRenderer.render(frame.data(), p, frame.bigEndian(),
+                    key.windowCenter(), key.windowWidth(), size[0], size[1]);
+        } else if (JPEG_BASELINE.equals(frame.index().transferSyntaxUid())) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(frame.data()));
+            if (decoded == null) {
+                log.debug("JPEG 디코딩 실패 ({})", meta.sopInstanceUid());
+                return null;
+            }
+            int[] size = fit(decoded.getWidth(), decoded.getHeight(), key);
+            img = scale(decoded, size[0], size[1]);
+        } else {
+            log.debug("렌더링 미지원 전송 구문: {} ({})", frame.index().transferSyntaxUid(), meta.sopInstanceUid());
+            return null;
+        }
+
+        byte[] encoded = encode(img, key.format(), key.quality());
+        cache.put(key, encoded);
+        return encoded;
+    }
+
+    public int maxViewport() {
+        return config.getMaxViewport();
+    }
+
+    public int defaultJpegQuality() {
+        return config.getDefaultJpegQuality();
+    }
+
+    public WeightedLruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    /** 비율 유지, 확대 없음 */
+    private static int[] fit(int srcW, int srcH, RenderKey key) {
+        int vw = key.viewportWidth() > 0 ? key.viewportWidth() : srcW;
+        int vh = key.viewportHeight() > 0 ? key.viewportHeight() : srcH;
+        double scale = Math.min(1.0, Math.min((double) vw / srcW, (double) vh / srcH));
+        return new int[]{
+                Math.max(1, (int) Math.round(srcW * scale)),
+                Math.max(1, (int) Math.round(srcH * scale))
+        };
+    }
+
+    private static BufferedImage scale(BufferedImage src, int w, int h) {
+        if (src.getWidth() == w && src.getHeight() == h) return src;
+        int type = src.getType() == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+        BufferedImage out = new BufferedImage(w, h, type);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static byte[] encode(BufferedImage img, String format, int quality) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 * 1024);
+        if (!"jpeg".equals(format)) {
+            ImageIO.write(img, "png", bos);
+            return bos.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(bos)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.max(1, Math.min(100, quality)) / 100f);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bos.toByteArray();
+    }
+}
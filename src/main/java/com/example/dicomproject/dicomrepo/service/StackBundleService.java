@@ -0,0 +1,230 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.StackConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.entity.Image;
+import com.example.dicomproject.dicomrepo.parser.FrameIndex;
+import com.example.dicomproject.dicomrepo.parser.PixelInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 시리즈 전체 픽셀을 하나의 바이너리로 묶는 "stack bundle" (볼륨/MPR 로딩용).
+ *
+ * 형식 (little endian, 모든 오프셋은 번들 시작 기준 절대값 → Range 로 슬라이스 단위 접근 가능)
+ *   헤더 32B : "DSTK" | version u16 | reserved u16 | sliceCount u32 | recordSize u32 | dataOffset u64 | totalLength u64
+ *   레코드 192B × sliceCount :
+ *     offset u64 | length u64 | instanceNumber i32 | rows u16 | columns u16 |
+ *     bitsAllocated u8 | bitsStored u8 | pixelRepresentation u8 | samplesPerPixel u8 |
+ *     flags u8 (bit0 encapsulated, bit1 MONOCHROME1, bit2 missing) | reserved u8 | frameNumber u16 |
+ *     rescaleSlope f64 | rescaleIntercept f64 | windowCenter f64 | windowWidth f64 |
+ *     sopInstanceUid char[64] | transferSyntaxUid char[64]   (NUL 패딩)
+ *   픽셀 버퍼 : 레코드 순서대로 이어 붙임. 비압축은 little endian, encapsulated 는 원본 압축 스트림.
+ * 슬라이스 순서는 InstanceNumber → imageKey → 프레임 번호.
+ * 프레임 인덱스를 읽지 못한 인스턴스(SMB 오류 등)는 빼지 않고 length 0, missing 레코드 하나로 맨 뒤에 둔다 -
+ * 인스턴스 수만큼은 레이아웃이 요청마다 같고, 달라지면 헤더 바이트가 달라지므로 ETag(헤더 해시)/If-Range 로 걸러진다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StackBundleService {
+
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 192;
+    private static final int VERSION = 1;
+    private static final int UID_FIELD = 64;
+    private static final int FLAG_MISSING = 4;
+
+    private final StackConfig config;
+    private final PixelDataService pixels;
+
+    private ExecutorService pool;
+
+    /** index == null 이면 읽지 못한 인스턴스 (missing 레코드, length 0) */
+    public record Slice(ImageMetaDto meta, FrameIndex index, int frame, long offset, long length) {
+    }
+
+    public record Bundle(byte[] header, List<Slice> slices, long totalLength) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(config.getIoThreads(), r -> {
+            Thread t = new Thread(r, "dicom-stack-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** 프레임 인덱스를 병렬로 구해 레이아웃(헤더 + 슬라이스 오프셋)을 확정. 픽셀이 없는 인스턴스는 레코드 없음 */
+    public Bundle prepare(List<Image> images) throws IOException {
+        List<ImageMetaDto> metas = images.stream()
+                .sorted(Comparator.comparing(Image::getImageKey))
+                .map(i -> new ImageMetaDto(i.getStudyKey(), i.getSeriesKey(), i.getImageKey(),
+                        i.getStudyInstanceUid(), i.getSeriesInstanceUid(), i.getSopInstanceUid(),
+                        i.getPath(), i.getFname(), null, i.getStorageId()))
+                .toList();
+
+        List<CompletableFuture<FrameIndex>> futures = new ArrayList<>(metas.size());
+        for (ImageMetaDto meta : metas) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return pixels.index(meta);
+                } catch (IOException e) {
+                    log.warn("stack 에서 missing 처리: {} ({})", meta.sopInstanceUid(), e.toString());
+                    return null;
+                }
+            }, pool));
+        }
+
+        record Entry(ImageMetaDto meta, FrameIndex index) {
+        }
+        List<Entry> entries = new ArrayList<>();
+        List<ImageMetaDto> missing = new ArrayList<>();
+        for (int i = 0; i < metas.size(); i++) {
+            FrameIndex idx = join(futures.get(i));
+            if (idx != null) {
+                entries.add(new Entry(metas.get(i), idx));
+            } else {
+                missing.add(metas.get(i));
+            }
+        }
+        entries.sort(Comparator.comparingInt((Entry e) -> e.index().pixel().instanceNumber())); // stable → imageKey 순 유지
+
+        int sliceCount = entries.stream().mapToInt(e -> e.index().frameCount()).sum() + missing.size();
+        long offset = HEADER_SIZE + (long) RECORD_SIZE * sliceCount;
+        List<Slice> slices = new ArrayList<>(sliceCount);
+        for (Entry e : entries) {
+            for (int f = 0; f < e.index().frameCount(); f++) {
+                long len = e.index().frameLength(f);
+                slices.add(new Slice(e.meta(), e.index(), f, offset, len));
+                offset += len;
+            }
+        }
+        for (ImageMetaDto m : missing) slices.add(new Slice(m, null, 0, offset, 0));
+        return new Bundle(header(slices, offset), slices, offset);
+    }
+
+    /** [start, end) 구간 쓰기. 픽셀 버퍼는 readAhead 개씩 병렬로 미리 읽고 순서대로 내보낸다 */
+    public void write(Bundle bundle, long start, long end, OutputStream out) throws IOException {
+        byte[] header = bundle.header();
+        if (start < header.length) {
+            out.write(header, (int) start, (int) (Math.min(end, header.length) - start));
+        }
+
+        List<Slice> wanted = bundle.slices().stream()
+                .filter(s -> s.offset() < end && s.offset() + s.length() > start) // missing(length 0) 은 빠진다
+                .toList();
+        Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (Slice s : wanted) {
+                while (next < wanted.size() && window.size() <= config.getReadAhead()) {
+                    Slice ahead = wanted.get(next++);
+                    window.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return read(ahead);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, pool));
+                }
+                byte[] data = join(window.poll());
+                long from = Math.max(start, s.offset()) - s.offset();
+                long to = Math.min(end, s.offset() + s.length()) - s.offset();
+                out.write(data, (int) from, (int) (to - from));
+            }
+        } finally {
+            window.forEach(f -> f.cancel(false));
+        }
+        out.flush();
+    }
+
+    private byte[] read(Slice s) throws IOException {
+        PixelDataService.Frame frame = pixels.readFrame(s.meta(), s.frame());
+        byte[] data = frame.data();
+        if (data.length != s.length()) throw new IOException("프레임 길이 불일치: " + s.meta().sopInstanceUid());
+        if (!s.index().encapsulated() && frame.bigEndian() && s.index().pixel().bitsAllocated() == 16) {
+            for (int i = 0; i + 1 < data.length; i += 2) { // big endian → little endian
+                byte t = data[i];
+                data[i] = data[i + 1];
+                data[i + 1] = t;
+            }
+        }
+        return data;
+    }
+
+    private static byte[] header(List<Slice> slices, long totalLength) {
+        ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * slices.size()).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("DSTK".getBytes(StandardCharsets.US_ASCII));
+        b.putShort((short) VERSION).putShort((short) 0);
+        b.putInt(slices.size()).putInt(RECORD_SIZE);
+        b.putLong(HEADER_SIZE + (long) RECORD_SIZE * slices.size()).putLong(totalLength);
+        for (Slice s : slices) {
+            if (s.index() == null) {
+                putMissing(b, s);
+                continue;
+            }
+            PixelInfo p = s.index().pixel();
+            int flags = (s.index().encapsulated() ? 1 : 0) | ("MONOCHROME1".equals(p.photometricInterpretation()) ? 2 : 0);
+            b.putLong(s.offset()).putLong(s.length());
+            b.putInt(p.instanceNumber());
+            b.putShort((short) p.rows()).putShort((short) p.columns());
+            b.put((byte) p.bitsAllocated()).put((byte) p.bitsStored())
+                    .put((byte) p.pixelRepresentation()).put((byte) p.samplesPerPixel());
+            b.put((byte) flags).put((byte) 0).putShort((short) (s.frame() + 1));
+            b.putDouble(p.rescaleSlope()).putDouble(p.rescaleIntercept())
+                    .putDouble(p.windowCenter()).putDouble(p.windowWidth());
+            putUid(b, s.meta().sopInstanceUid());
+            putUid(b, s.index().transferSyntaxUid());
+        }
+        return b.array();
+    }
+
+    /** 픽셀 정보 없이 offset/length(0)/flags/SOP UID 만 채운 레코드 */
+    private static void putMissing(ByteBuffer b, Slice s) {
+        b.putLong(s.offset()).putLong(0);
+        b.putInt(0);
+        b.putShort((short) 0).putShort((short) 0);
+        b.put((byte) 0).put((byte) 0).put((byte) 0).put((byte) 0);
+        b.put((byte) FLAG_MISSING).put((byte) 0).putShort((short) 0);
+        b.putDouble(0).putDouble(0).putDouble(0).putDouble(0);
+        putUid(b, s.meta().sopInstanceUid());
+        putUid(b, null);
+    }
+
+    private static void putUid(ByteBuffer b, String uid) {
+        byte[] v = uid == null ? new byte[0] : uid.getBytes(StandardCharsets.US_ASCII);
+        int n = Math.min(v.length, UID_FIELD);
+        b.put(v, 0, n);
+        for (int i = n; i < UID_FIELD; i++) b.put((byte) 0);
+    }
+
+    private static <T> T join(CompletableFuture<T> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            throw e;
+        }
+    }
+}
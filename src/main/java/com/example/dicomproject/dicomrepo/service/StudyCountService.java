@@ -0,0 +1,171 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.SearchConfig;
+import com.example.dicomproject.dicomrepo.dto.StudyFilter;
+import com.example.dicomproject.dicomrepo.dto.TotalCount;
+import com.example.dicomproject.dicomrepo.repository.StudyRepository;
+import com.example.dicomproject.dicomrepo.search.StudyTextIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Page 모드 검색의 전체 건수 전략.
+ * 1) 마지막 페이지면 offset + 행 수로 확정 (count 없음)
+ * 2) 정규화된 조건별 캐시 (TTL)
+ * 3) 환자/접수번호 조건이 있거나 기간이 짧으면 정확한 count
+ * 4) 넓은 조건은 STUDYTAB 통계(NUM_ROWS) 또는 SAMPLE BLOCK 표본으로 추정 - 표본이 너무 작으면 정확한 count
+ */
+@Slf4j
+@Service
+public class StudyCountService {
+
+    private static final DateTimeFormatter YYYYMMDD = DateTimeFormatter.BASIC_ISO_DATE;
+
+    public record Stats(long lastPage, long exact, long cached, long estimated,
+                        WeightedLruCache.Stats cache) {
+    }
+
+    private record Entry(long total, boolean exact, long expiresAt) {
+    }
+
+    private final StudyRepository repo;
+    private final SearchConfig.Count config;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final WeightedLruCache<StudyFilter, Entry> cache;
+
+    private final LongAdder lastPage = new LongAdder();
+    private final LongAdder exact = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+    private final LongAdder estimated = new LongAdder();
+
+    public StudyCountService(StudyRepository repo, SearchConfig config,
+                             @Qualifier("oracleDataSource") DataSource oracle) {
+        this.repo = repo;
+        this.config = config.getCount();
+        this.jdbc = new NamedParameterJdbcTemplate(oracle);
+        this.cache = new WeightedLruCache<>("study-count", this.config.getCacheEntries(), e -> 1);
+    }
+
+    /**
+     * @param cand       검색어 색인 후보 (null 이면 색인 미사용) - 있으면 PK 조회라 정확한 count 도 싸다
+     * @param rowsOnPage 이번 페이지 행 수
+     * @param hasNext    다음 페이지가 있는지 (Slice)
+     * @param forceExact 클라이언트가 정확한 값을 요구 (count=exact) - 추정/캐시된 추정은 쓰지 않음
+     */
+    public TotalCount total(StudyFilter f, StudyTextIndex.Candidates cand, Pageable pageable, int rowsOnPage, boolean hasNext, boolean forceExact) {
+        long seen = pageable.getOffset() + rowsOnPage;
+        if (!hasNext && (rowsOnPage > 0 || pageable.getOffset() == 0)) {
+            lastPage.increment();
+            put(f, seen, true);
+            return new TotalCount(seen, TotalCount.Mode.EXACT);
+        }
+        long atLeast = seen + (hasNext ? 1 : 0);
+
+        Entry e = cache.get(f);
+        if (e != null && e.expiresAt - System.nanoTime() > 0 && e.total >= atLeast && (e.exact || !forceExact)) {
+            cached.increment();
+            return new TotalCount(e.total, e.exact ? TotalCount.Mode.CACHED : TotalCount.Mode.ESTIMATED);
+        }
+
+        if (!forceExact && cand == null && isBroad(f)) {
+            Long est = estimate(f);
+            if (est != null) {
+                estimated.increment();
+                long total = Math.max(est, atLeast);
+                put(f, total, false);
+                return new TotalCount(total, TotalCount.Mode.ESTIMATED);
+            }
+        }
+
+        exact.increment();
+        long total = repo.countSearch(f.q(), f.accession(), f.studyDesc(), f.modalities(),
+                f.bodyPart(), f.fromDate(), f.toDate(),
+                cand != null ? cand.keys() : null, cand != null ? cand.indexedMaxKey() : null);
+        put(f, total, true);
+        return new TotalCount(total, TotalCount.Mode.EXACT);
+    }
+
+    public Stats stats() {
+        return new Stats(lastPage.sum(), exact.sum(), cached.sum(), estimated.sum(), cache.stats());
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private void put(StudyFilter f, long total, boolean isExact) {
+        cache.put(f, new Entry(total, isExact,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getCacheTtlMs())));
+    }
+
+    /** 환자/접수번호 조건이 없고 기간이 열려 있거나 exactMaxDays 보다 길면 넓은 조건 */
+    private boolean isBroad(StudyFilter f) {
+        if (f.q() != null || f.accession() != null) return false;
+        if (f.fromDate() == null || f.toDate() == null) return true;
+        try {
+            long days = ChronoUnit.DAYS.between(LocalDate.parse(f.fromDate(), YYYYMMDD), LocalDate.parse(f.toDate(), YYYYMMDD));
+            return days > config.getExactMaxDays();
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    /** 추정 건수, 추정이 믿을 만하지 않거나 실패하면 null */
+    private Long estimate(StudyFilter f) {
+        try {
+            if (f.studyDesc() == null && f.modalities() == null && f.bodyPart() == null
+                    && f.fromDate() == null && f.toDate() == null) {
+                Long rows = jdbc.queryForObject("""
+                        select sum(NUM_ROWS) from ALL_TABLES
+                        where TABLE_NAME = 'STUDYTAB' and OWNER = sys_context('USERENV', 'CURRENT_SCHEMA')
+                        """, new MapSqlParameterSource(), Long.class);
+                if (rows != null && rows > 0) return rows;
+            }
+            double pct = Math.max(0.000001, Math.min(99.99, config.getSamplePercent()));
+            StringBuilder sql = new StringBuilder("select count(*) from STUDYTAB sample block (")
+                    .append(String.format(Locale.ROOT, "%.6f", pct)).append(") s where 1 = 1");
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            if (f.studyDesc() != null) {
+                sql.append(" and s.STUDYDESC like '%' || :studyDesc || '%'");
+                params.addValue("studyDesc", f.studyDesc());
+            }
+            if (f.modalities() != null) {
+                sql.append(" and s.MODALITY in (:modalities)");
+                params.addValue("modalities", f.modalities());
+            }
+            if (f.bodyPart() != null) {
+                sql.append(" and s.BODYPART = :bodyPart");
+                params.addValue("bodyPart", f.bodyPart());
+            }
+            if (f.fromDate() != null) {
+                sql.append(" and s.STUDYDATE >= :fromDate");
+                params.addValue("fromDate", f.fromDate());
+            }
+            if (f.toDate() != null) {
+                sql.append(" and s.STUDYDATE <= :toDate");
+                params.addValue("toDate", f.toDate());
+            }
+            Long sampled = jdbc.queryForObject(sql.toString(), params, Long.class);
+            if (sampled == null || sampled < config.getMinSampleRows()) return null;
+            return Math.round(sampled * 100.0 / pct);
+        } catch (DataAccessException e) {
+            log.debug("검색 건수 추정 실패 → 정확한 count ({})", e.toString());
+            return null;
+        }
+    }
+}
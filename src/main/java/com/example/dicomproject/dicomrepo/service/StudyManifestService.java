@@ -0,0 +1,242 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.cache.WeightedLruCache;
+import com.example.dicomproject.config.ManifestConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.dicomrepo.repository.ImageRepository;
+import com.example.dicomproject.dicomrepo.service.StudyManifestWriter.Format;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 스터디 매니페스트 (뷰어가 여는 study → series → instances JSON).
+ * 직렬화된 JSON 바이트와 ETag 를 studyKey 별로 바이트 한도 LRU 에 보관하고, 적중하면 그대로 내보낸다.
+ * 버전 = STUDYTAB.IMAGECNT/SERIESCNT - 적중 시 revalidateMs 간격으로 PK 조회 한 번으로 확인하고,
+ * 바뀌었으면(인스턴스 추가/삭제) 버리고 다시 만든다. 같은 스터디 동시 미스는 한 번만 만든다 (single-flight).
+ * IMAGECNT 가 streamMinInstances 이상인 큰 스터디는 보관하지 않고 응답에 바로 스트리밍한다 (json == null → stream).
+ * 표현(v1 JSON / v2 JSON / v2 CBOR)마다 따로 보관한다.
+ */
+@Slf4j
+@Service
+public class StudyManifestService {
+
+    private static final String SELECT_VERSION = "select IMAGECNT, SERIESCNT from STUDYTAB where STUDYKEY = ?";
+
+    public enum Source { HIT, MISS, JOINED, STREAM, BYPASS }
+
+    /** STREAM/BYPASS 이면 json, etag 는 null - 호출 측이 stream(...) 으로 응답에 직접 쓴다 */
+    public record Manifest(byte[] json, String etag, Source source) {
+    }
+
+    public record Stats(boolean enabled, long hits, long misses, long joined, long invalidated, long streamed,
+                        long bypassed, double hitRatio, double avgBuildMs, WeightedLruCache.Stats cache) {
+    }
+
+    private record Key(long studyKey, Format format) {
+    }
+
+    /** STUDYTAB 건수 - 둘 중 하나라도 바뀌면 캐시 항목 무효 */
+    private record Version(Integer images, Integer series) {
+    }
+
+    private static final class Entry {
+        final byte[] json;
+        final String etag;
+        final Version version;
+        volatile long checkedAt;
+
+        Entry(byte[] json, Version version) {
+            this.json = json;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            this.version = version;
+            this.checkedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final ManifestConfig config;
+    private final ImageRepository imageRepository;
+    private final StudyPrefetchService prefetch;
+    private final StudyManifestWriter writer;
+    private final InstanceLocationIndex locations;
+    private final JdbcTemplate jdbc;
+    private final WeightedLruCache<Key, Entry> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder streamed = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    public StudyManifestService(ManifestConfig config, ImageRepository imageRepository,
+                                StudyPrefetchService prefetch, StudyManifestWriter writer,
+                                InstanceLocationIndex locations, @Qualifier("oracleDataSource") DataSource oracle) {
+        this.config = config;
+        this.imageRepository = imageRepository;
+        this.prefetch = prefetch;
+        this.writer = writer;
+        this.locations = locations;
+        this.jdbc = new JdbcTemplate(oracle);
+        this.cache = new WeightedLruCache<>("manifest", config.getCacheMaxBytes(), e -> e.json.length + 128L);
+    }
+
+    /**
+     * 매니페스트 JSON. 뷰어가 곧 요청할 파일 프리페치도 여기서 시작한다 (STREAM/BYPASS 는 stream 에서).
+     * 적중 시에는 프리페치가 실제로 필요할 때만 인스턴스 목록을 조회한다.
+     */
+    public Manifest manifest(long studyKey, Format format, String clientKey) {
+        if (!config.isEnabled()) {
+            bypassed.increment();
+            return new Manifest(null, null, Source.BYPASS);
+        }
+
+        Key key = new Key(studyKey, format);
+        Entry e = cache.get(key);
+        if (e != null && isCurrent(key, e)) {
+            hits.increment();
+            prefetch.start(clientKey, studyKey, () -> loadRows(studyKey));
+            return new Manifest(e.json, e.etag, Source.HIT);
+        }
+
+        // 버전을 먼저 읽는다 - 만드는 도중 건수가 바뀌면 다음 요청에서 불일치로 다시 만든다
+        Version version = version(studyKey);
+        if (version != null && version.images() != null && version.images() >= config.getStreamMinInstances()) {
+            streamed.increment();
+            return new Manifest(null, null, Source.STREAM);
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inflight.putIfAbsent(key, mine);
+        if (running != null) {
+            joined.increment();
+            Entry shared = join(running);
+            prefetch.start(clientKey, studyKey, () -> loadRows(studyKey));
+            return new Manifest(shared.json, shared.etag, Source.JOINED);
+        }
+        try {
+            misses.increment();
+            Entry loaded = build(studyKey, format, clientKey, version);
+            if (version != null) {
+                cache.put(key, loaded);
+            } else {
+                cache.invalidate(key); // 없는 스터디는 보관하지 않음
+            }
+            mine.complete(loaded);
+            return new Manifest(loaded.json, loaded.etag, Source.MISS);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    /** 캐시 없이 응답 스트림에 바로 쓴다 (Source.STREAM / BYPASS) */
+    public void stream(long studyKey, Format format, String clientKey, OutputStream out) throws IOException {
+        List<ImageMetaDto> rows = prefetch.wantsRows(clientKey, studyKey) ? new ArrayList<>() : null;
+        try {
+            write(studyKey, format, out, rows);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (rows != null) prefetch.start(clientKey, studyKey, rows);
+    }
+
+    public void invalidate(long studyKey) {
+        for (Format f : Format.values()) cache.invalidate(new Key(studyKey, f));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public Stats stats() {
+        long h = hits.sum(), m = misses.sum(), j = joined.sum(), b = builds.sum();
+        long total = h + m + j;
+        return new Stats(config.isEnabled(), h, m, j, invalidated.sum(), streamed.sum(), bypassed.sum(),
+                total == 0 ? 0 : (double) (h + j) / total,
+                b == 0 ? 0 : buildNanos.sum() / 1e6 / b,
+                cache.stats());
+    }
+
+    private boolean isCurrent(Key key, Entry e) {
+        long now = System.currentTimeMillis();
+        if (now - e.checkedAt < config.getRevalidateMs()) return true;
+        if (Objects.equals(version(key.studyKey()), e.version)) {
+            e.checkedAt = now;
+            return true;
+        }
+        invalidated.increment();
+        invalidate(key.studyKey());
+        log.debug("매니페스트 캐시 무효화: study {} (IMAGECNT/SERIESCNT 변경)", key.studyKey());
+        return false;
+    }
+
+    /** 스터디가 없으면 null */
+    private Version version(long studyKey) {
+        List<Version> rows = jdbc.query(SELECT_VERSION,
+                (rs, i) -> new Version(rs.getObject(1, Integer.class), rs.getObject(2, Integer.class)),
+                studyKey);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Entry build(long studyKey, Format format, String clientKey, Version version) {
+        List<ImageMetaDto> rows = prefetch.wantsRows(clientKey, studyKey) ? new ArrayList<>() : null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        write(studyKey, format, out, rows);
+        // 뷰어가 곧 요청할 파일들을 로컬 캐시로 미리 당겨옴 (비동기)
+        if (rows != null) prefetch.start(clientKey, studyKey, rows);
+        return new Entry(out.toByteArray(), version);
+    }
+
+    /** 캐시 적중 후 프리페치용 인스턴스 목록 - 위치 색인도 같이 채운다 */
+    private List<ImageMetaDto> loadRows(long studyKey) {
+        List<ImageMetaDto> rows = imageRepository.findAllByStudyKey(studyKey);
+        rows.forEach(locations::add);
+        return rows;
+    }
+
+    private void write(long studyKey, Format format, OutputStream out, List<ImageMetaDto> rows) {
+        long t0 = System.nanoTime();
+        try {
+            // 인스턴스 행은 위치 색인에도 채움 - 이후 파일 요청은 DB 를 거치지 않음
+            writer.write(studyKey, format, out, m -> {
+                locations.add(m);
+                if (rows != null) rows.add(m);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            builds.increment();
+            buildNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    private static Entry join(CompletableFuture<Entry> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
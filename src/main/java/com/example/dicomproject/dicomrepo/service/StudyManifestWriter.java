@@ -0,0 +1,242 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.ManifestConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 스터디 매니페스트 JSON 을 쿼리 한 번(study ⟕ series ⟕ image, 정렬된 forward-only 커서)으로 읽으면서
+ * Jackson 스트리밍 생성기로 바로 쓴다 - 행 목록/그룹 맵/레코드 트리를 만들지 않으므로 힙 사용량이
+ * 인스턴스 수와 무관하고, 첫 바이트는 첫 fetch 직후 나간다.
+ *
+ * 필드 순서: 건수/대표 모달리티는 다 읽어야 알 수 있으므로 series 배열 뒤에 study 객체를 쓰고,
+ * 시리즈의 numberOfInstances 도 instances 뒤에 쓴다 (JSON 객체라 클라이언트 파싱 결과는 같다).
+ *
+ * v2 (JSON / CBOR): 인스턴스마다 반복되던 URL·시리즈 UID·모달리티를 없앤 압축 스키마.
+ * <pre>
+ * { "version": 2, "instanceUrl": "/api/dicom/instances/{sopInstanceUID}/file",
+ *   "series": [ { "seriesInstanceUID", "modality", "seriesNumber", "seriesDescription",
+ *                 "uidRoot": "1.2.3.4", "instances": [".5", ".6", "1.2.9.9", "77"], "numberOfInstances" } ],
+ *   "study": { ... v1 과 같음 } }
+ * </pre>
+ * instances 원소가 '.' 으로 시작하면 uidRoot + 원소, 아니면 SOP UID 그대로 (DICOM UID 는 '.' 으로 시작할 수 없다).
+ * '.' 없는 원소도 전체 UID 다 - uidRoot 밖의 UID 를 잘못 붙이지 않도록 상대 표기를 명시한다 (compact / expand).
+ * uidRoot 는 시리즈 첫 SOP UID 의 마지막 구성요소 앞까지 - 한 번 읽고 바로 쓰므로 스트리밍을 깨지 않는다.
+ */
+@Component
+public class StudyManifestWriter {
+
+    private static final String SELECT = """
+            select st.STUDYINSUID, st.PNAME, st.STUDYDESC, st.STUDYDATE,
+                   se.SERIESKEY, se.SERIESINSUID, se.MODALITY, se.SERIESNUM, se.SERIESDESC,
+                   im.IMAGEKEY, im.SOPINSTANCEUID, im.SERIESINSUID, im.PATH, im.FNAME, im.STSTORAGEID
+            from STUDYTAB st
+            left join SERIESTAB se on se.STUDYKEY = st.STUDYKEY
+            left join IMAGETAB im on im.STUDYKEY = se.STUDYKEY and im.SERIESKEY = se.SERIESKEY
+            where st.STUDYKEY = ?
+            order by se.SERIESKEY, im.IMAGEKEY
+            """;
+
+    private static final String FILE_URL = "http://localhost:8080/api/dicom/instances/";
+    private static final String URL_TEMPLATE = "/api/dicom/instances/{sopInstanceUID}/file";
+
+    public enum Format { V1, V2, V2_CBOR }
+
+    /** v2 시리즈의 uidRoot - 마지막 구성요소 앞까지, '.' 이 없으면 null */
+    static String uidRoot(String sop) {
+        int dot = sop.lastIndexOf('.');
+        return dot > 0 ? sop.substring(0, dot) : null;
+    }
+
+    /** v2 instances 원소 - uidRoot 바로 아래 UID 는 '.' + 마지막 구성요소, 아니면 그대로 */
+    static String compact(String uidRoot, String sop) {
+        if (uidRoot == null) return sop;
+        int n = uidRoot.length();
+        boolean child = sop.length() > n + 1 && sop.charAt(n) == '.' && sop.startsWith(uidRoot)
+                && sop.indexOf('.', n + 1) < 0;
+        return child ? sop.substring(n) : sop;
+    }
+
+    /** compact 의 역 (클라이언트 해석 규칙과 같다) */
+    static String expand(String uidRoot, String entry) {
+        return uidRoot != null && entry.startsWith(".") ? uidRoot + entry : entry;
+    }
+
+    /** 쓴 결과 - 스터디가 없으면 found = false (빈 매니페스트) */
+    public record Summary(boolean found, int series, int instances) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CBORFactory cbor = new CBORFactory();
+    private final JdbcTemplate jdbc;
+
+    public StudyManifestWriter(ManifestConfig config, ObjectMapper objectMapper,
+                               @Qualifier("oracleDataSource") DataSource oracle) {
+        this.objectMapper = objectMapper;
+        this.jdbc = new JdbcTemplate(oracle);
+        this.jdbc.setFetchSize(config.getFetchSize());
+    }
+
+    /**
+     * @param onInstance 인스턴스 행마다 호출 (프리페치 등, 필요 없으면 null)
+     */
+    public Summary write(long studyKey, Format format, OutputStream out, Consumer<ImageMetaDto> onInstance)
+            throws IOException {
+        JsonFactory factory = format == Format.V2_CBOR ? cbor : objectMapper.getFactory();
+        try (JsonGenerator g = factory.createGenerator(out)) {
+            g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            State st = new State(studyKey, format != Format.V1, g, onInstance);
+            g.writeStartObject();
+            if (st.v2) {
+                g.writeNumberField("version", 2);
+                g.writeStringField("instanceUrl", URL_TEMPLATE);
+            }
+            g.writeArrayFieldStart("series");
+            try {
+                jdbc.query(SELECT, rs -> {
+                    try {
+                        st.row(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, studyKey);
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // 클라이언트 끊김 등
+            }
+            st.endSeries();
+            g.writeEndArray();
+            st.writeStudy();
+            g.writeEndObject();
+            return new Summary(st.found, st.seriesCount, st.instanceCount);
+        }
+    }
+
+    /** 현재 시리즈/스터디 누적값 - 행은 SERIESKEY, IMAGEKEY 순으로 들어온다 */
+    private static final class State {
+        final long studyKey;
+        final boolean v2;
+        final JsonGenerator g;
+        final Consumer<ImageMetaDto> onInstance;
+
+        boolean found;
+        String studyUid, patientName, studyDesc, studyDate, modality;
+        int seriesCount, instanceCount;
+
+        Long seriesKey;
+        String seriesModality;
+        String uidRoot;          // v2: 시리즈 첫 SOP UID 의 마지막 '.' 앞
+        int seriesInstances;
+
+        State(long studyKey, boolean v2, JsonGenerator g, Consumer<ImageMetaDto> onInstance) {
+            this.studyKey = studyKey;
+            this.v2 = v2;
+            this.g = g;
+            this.onInstance = onInstance;
+        }
+
+        void row(ResultSet rs) throws SQLException, IOException {
+            if (!found) {
+                found = true;
+                studyUid = rs.getString(1);
+                patientName = rs.getString(2);
+                studyDesc = rs.getString(3);
+                studyDate = rs.getString(4);
+            }
+            long sk = rs.getLong(5);
+            if (rs.wasNull()) return; // 시리즈 없는 스터디
+            if (!Objects.equals(seriesKey, sk)) {
+                endSeries();
+                startSeries(sk, rs);
+            }
+            String sop = rs.getString(11);
+            if (sop == null) return; // 빈 시리즈
+            String seriesUid = rs.getString(12);
+
+            if (v2) {
+                writeCompact(sop);
+            } else {
+                g.writeStartObject();
+                g.writeStringField("sopInstanceUid", sop);
+                g.writeStringField("seriesInstanceUID", seriesUid);
+                g.writeStringField("modality", seriesModality);
+                g.writeStringField("fileUrl", FILE_URL + sop + "/file");
+                g.writeEndObject();
+            }
+            seriesInstances++;
+            instanceCount++;
+
+            if (onInstance != null) {
+                long id = rs.getLong(15);
+                Long storageId = rs.wasNull() ? null : id;
+                onInstance.accept(new ImageMetaDto(studyKey, sk, rs.getLong(10), studyUid, seriesUid, sop,
+                        rs.getString(13), rs.getString(14), seriesModality, storageId));
+            }
+        }
+
+        /** v2 인스턴스 - uidRoot 아래 UID 는 '.' + 마지막 구성요소만 */
+        void writeCompact(String sop) throws IOException {
+            if (seriesInstances == 0) {
+                uidRoot = StudyManifestWriter.uidRoot(sop);
+                if (uidRoot != null) g.writeStringField("uidRoot", uidRoot);
+                g.writeArrayFieldStart("instances");
+            }
+            g.writeString(compact(uidRoot, sop));
+        }
+
+        void startSeries(long sk, ResultSet rs) throws SQLException, IOException {
+            seriesKey = sk;
+            seriesModality = rs.getString(7);
+            uidRoot = null;
+            seriesInstances = 0;
+            seriesCount++;
+            if (modality == null) modality = seriesModality;
+
+            int num = rs.getInt(8);
+            Integer seriesNumber = rs.wasNull() ? null : num;
+            g.writeStartObject();
+            g.writeStringField("seriesInstanceUID", rs.getString(6));
+            g.writeStringField("modality", seriesModality);
+            g.writeFieldName("seriesNumber");
+            if (seriesNumber == null) g.writeNull(); else g.writeNumber(seriesNumber);
+            g.writeStringField("seriesDescription", rs.getString(9));
+            // v2 는 첫 인스턴스에서 uidRoot 를 정한 뒤 배열을 연다
+            if (!v2) g.writeArrayFieldStart("instances");
+        }
+
+        void endSeries() throws IOException {
+            if (seriesKey == null) return;
+            if (v2 && seriesInstances == 0) g.writeArrayFieldStart("instances");
+            g.writeEndArray();
+            g.writeNumberField("numberOfInstances", seriesInstances);
+            g.writeEndObject();
+            seriesKey = null;
+        }
+
+        void writeStudy() throws IOException {
+            g.writeObjectFieldStart("study");
+            g.writeStringField("patientName", patientName != null ? patientName : "Anonymous");
+            g.writeStringField("studyDescription", studyDesc != null ? studyDesc : "");
+            g.writeStringField("studyDate", studyDate);    // YYYYMMDD 그대로
+            g.writeStringField("modality", modality);      // 대표 모달리티(없으면 null)
+            g.writeNumberField("numberOfSeries", seriesCount);
+            g.writeNumberField("numberOfInstances", instanceCount);
+            g.writeStringField("studyInstanceUID", studyUid);
+            g.writeEndObject();
+        }
+    }
+}
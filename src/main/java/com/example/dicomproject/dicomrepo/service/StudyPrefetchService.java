@@ -0,0 +1,195 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.PrefetchConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.storage.StoredFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 매니페스트 요청 시 스터디 전체 인스턴스를 SMB → 로컬 디스크 캐시로 미리 당겨오는 엔진.
+ * - 전역 동시성: 고정 크기 스레드 풀
+ * - 스터디별 동시성: 스터디마다 perStudyConcurrency 개의 워커만 제출
+ * - 순서: 매니페스트 순서(시리즈 → 이미지)대로 공유 커서에서 하나씩 가져감
+ * - 같은 클라이언트(로그인 사용자)가 다른 스터디를 열면 이전 작업 취소
+ * - 끝난(또는 취소된) 작업은 마지막 워커가 맵에서 지운다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudyPrefetchService {
+
+    private final PrefetchConfig config;
+    private final InstanceFileService files;
+
+    private ThreadPoolExecutor pool;
+    private final Map<String, Job> jobsByClient = new ConcurrentHashMap<>();
+
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public record Stats(
+            boolean enabled,
+            int activeJobs,
+            int activeWorkers,
+            int queuedWorkers,
+            long fetched,
+            long skipped,
+            long failed,
+            long cancelled
+    ) {}
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        pool = new ThreadPoolExecutor(
+                config.getGlobalConcurrency(), config.getGlobalConcurrency(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "dicom-prefetch-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobsByClient.values().forEach(Job::cancel);
+        pool.shutdownNow();
+    }
+
+    /**
+     * 스터디 프리페치 시작. 같은 클라이언트의 이전 스터디 작업은 취소한다.
+     * @param clientKey 클라이언트 식별자 (로그인 사용자, 없으면 요청마다 다른 값)
+     * @param rows      매니페스트 순서대로 정렬된 인스턴스 목록
+     */
+    public void start(String clientKey, long studyKey, List<ImageMetaDto> rows) {
+        if (!config.isEnabled() || !files.usesCache() || rows.isEmpty()) return;
+
+        List<ImageMetaDto> instances = rows.stream()
+                .filter(files::needsFetch)
+                .toList();
+
+        Job job = new Job(clientKey, studyKey, instances);
+        boolean[] kept = {false};
+        // 확인과 교체를 한 번에 - 같은 클라이언트의 동시 요청이 서로의 작업을 덮어쓰지 않도록
+        jobsByClient.compute(clientKey, (k, prev) -> {
+            if (prev != null && prev.studyKey == studyKey && !prev.isDone()) {
+                kept[0] = true;
+                return prev; // 같은 스터디 재요청(새로고침 등) → 진행 중인 작업 유지
+            }
+            if (prev != null) prev.cancel();
+            return instances.isEmpty() ? null : job;
+        });
+        if (kept[0] || instances.isEmpty()) return;
+
+        int workers = Math.min(config.getPerStudyConcurrency(), instances.size());
+        int submitted = 0;
+        for (; submitted < workers; submitted++) {
+            try {
+                pool.execute(() -> runWorker(job));
+            } catch (RejectedExecutionException e) {
+                log.debug("prefetch 대기열 가득 참 - study {} 워커 {}개만 실행", studyKey, submitted);
+                break;
+            }
+        }
+        if (submitted == 0) {
+            job.cancel();
+            jobsByClient.remove(clientKey, job);
+        }
+        log.debug("prefetch 시작: study {} ({} files) for {}", studyKey, instances.size(), clientKey);
+    }
+
+    /** 이 클라이언트/스터디로 새 작업이 시작될 수 있으면 true - 아니면 인스턴스 목록을 모을 필요가 없다 */
+    public boolean wantsRows(String clientKey, long studyKey) {
+        if (!config.isEnabled() || !files.usesCache()) return false;
+        Job prev = jobsByClient.get(clientKey);
+        return prev == null || prev.studyKey != studyKey || prev.isDone();
+    }
+
+    /**
+     * 인스턴스 목록을 아직 안 가진 호출 측(매니페스트 캐시 적중)용 - 프리페치가 꺼져 있거나
+     * 같은 스터디 작업이 진행 중이면 목록을 조회하지 않는다.
+     */
+    public void start(String clientKey, long studyKey, Supplier<List<ImageMetaDto>> rows) {
+        if (wantsRows(clientKey, studyKey)) start(clientKey, studyKey, rows.get());
+    }
+
+    public Stats stats() {
+        return new Stats(config.isEnabled() && files.usesCache(),
+                (int) jobsByClient.values().stream().filter(j -> !j.isDone()).count(),
+                pool.getActiveCount(), pool.getQueue().size(),
+                fetched.get(), skipped.get(), failed.get(), cancelled.get());
+    }
+
+    private void runWorker(Job job) {
+        job.workers.incrementAndGet();
+        try {
+            ImageMetaDto meta;
+            while ((meta = job.next()) != null) {
+                if (!files.needsFetch(meta)) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                // 끝까지 읽고 닫으면 DiskCache write-through 가 캐시에 등록
+                try (StoredFile f = files.open(meta)) {
+                    f.stream().transferTo(OutputStream.nullOutputStream());
+                    fetched.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.debug("prefetch 실패: {} ({})", meta.sopInstanceUid(), e.toString());
+                }
+            }
+            if (job.cancelled.get()) cancelled.incrementAndGet();
+        } finally {
+            job.workers.decrementAndGet();
+            if (job.isDone()) jobsByClient.remove(job.clientKey, job);
+        }
+    }
+
+    /** 스터디 하나의 프리페치 상태 - 워커들이 공유 커서에서 순서대로 가져감 */
+    private static final class Job {
+        final String clientKey;
+        final long studyKey;
+        final List<ImageMetaDto> instances;
+        final AtomicInteger cursor = new AtomicInteger();
+        final AtomicInteger workers = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Job(String clientKey, long studyKey, List<ImageMetaDto> instances) {
+            this.clientKey = clientKey;
+            this.studyKey = studyKey;
+            this.instances = instances;
+        }
+
+        ImageMetaDto next() {
+            if (cancelled.get()) return null;
+            int i = cursor.getAndIncrement();
+            return i < instances.size() ? instances.get(i) : null;
+        }
+
+        void cancel() {
+            cancelled.set(true);
+        }
+
+        boolean isDone() {
+            return cancelled.get() || (cursor.get() >= instances.size() && workers.get() == 0);
+        }
+    }
+}
@@ -54,7 +54,9 @@ public class SecurityConfig {
         cfg.setAllowedHeaders(List.of("*"));
 
         // 브라우저에서 읽게 할 응답 헤더(필요시)
-        cfg.setExposedHeaders(List.of("Authorization","Location","Content-Disposition"));
+        cfg.setExposedHeaders(List.of("Authorization","Location","Content-Disposition",
+                "ETag","Last-Modified","Content-Range","Accept-Ranges","Content-Length",
+                "X-Total-Count","X-Total-Count-Mode","X-Search-Cache","X-Manifest-Cache"));
 
         // Authorization 헤더만 쓸 거면 false 권장
         cfg.setAllowCredentials(true);
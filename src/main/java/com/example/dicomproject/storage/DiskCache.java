@@ -0,0 +1,459 @@
+package com.example.dicomproject.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * SMB 아카이브 앞단의 로컬 디스크 캐시 (LRU + 바이트 예산).
+ * - 키: 상대 경로의 SHA-256 → dir/ab/abcdef...dcm
+ * - 전체 크기가 maxBytes * highWatermark 를 넘으면 lowWatermark 까지 오래된 항목부터 삭제
+ * - 원격에서 읽는 스트림을 그대로 임시 파일에 기록(write-through)하고, 끝까지 읽힌 경우에만 등록
+ * - 임의 접근 미스는 구간만 읽으므로 write-through 가 안 된다 → fillAsync 로 뒤에서 전체를 한 번 받아 둔다
+ * - sendfile 은 응답 뒤에 Tomcat 이 경로로 파일을 여므로, 그 사이 축출돼도 남도록 하드 링크(.tmp-pin-*)를 넘긴다.
+ *   링크는 pinTtlMs 뒤 정리하고, 재시작 시에는 .tmp 임시 파일과 함께 지운다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiskCache {
+
+    private final DiskCacheConfig config;
+
+    // access-order LinkedHashMap = LRU. this 로 동기화
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(1024, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong fills = new AtomicLong();
+
+    /** 백그라운드 적재 중인 경로 - 같은 파일을 두 번 받지 않음 */
+    private final Set<String> filling = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor fillPool;
+
+    private record Pin(Path link, long createdAt) {}
+    private final ConcurrentLinkedQueue<Pin> pins = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pinSeq = new AtomicLong();
+
+    public record Stats(
+            boolean enabled,
+            String dir,
+            int entries,
+            long bytes,
+            long maxBytes,
+            long hits,
+            long misses,
+            long evictions,
+            long writes,
+            long fills,
+            int pins
+    ) {}
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!config.isEnabled()) return;
+        Path root = root();
+        Files.createDirectories(root);
+
+        // 재시작 시 기존 파일로 인덱스 복원 (생성시각 오름차순 = 먼저 들어온 것부터)
+        // 수정시각은 원본 파일 값으로 맞춰 두므로 순서 기준으로 쓰지 않는다
+        List<Path> files;
+        try (Stream<Path> s = Files.walk(root, 2)) {
+            files = s.filter(Files::isRegularFile).toList();
+        }
+        record Found(String key, long size, long created) {}
+        List<Found> found = new ArrayList<>();
+        for (Path f : files) {
+            String name = f.getFileName().toString();
+            if (name.startsWith(".tmp")) {
+                Files.deleteIfExists(f);
+                continue;
+            }
+            BasicFileAttributes a = Files.readAttributes(f, BasicFileAttributes.class);
+            found.add(new Found(stripExt(name), a.size(), a.creationTime().toMillis()));
+        }
+        found.sort(Comparator.comparingLong(Found::created));
+        synchronized (this) {
+            for (Found f : found) {
+                index.put(f.key(), f.size());
+                totalBytes += f.size();
+            }
+            evictIfNeeded();
+        }
+        log.info("disk cache ready: {} entries, {} bytes in {}", index.size(), totalBytes, root);
+
+        AtomicInteger seq = new AtomicInteger();
+        fillPool = new ThreadPoolExecutor(config.getFillThreads(), config.getFillThreads(), 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getFillQueueCapacity()), r -> {
+            Thread t = new Thread(r, "disk-cache-fill-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        fillPool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fillPool != null) fillPool.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /** 캐시에 있으면 로컬 파일로 연 StoredFile, 없으면 empty */
+    public Optional<StoredFile> lookup(String relativePath) throws IOException {
+        if (!config.isEnabled()) return Optional.empty();
+        String key = keyOf(relativePath);
+        Long size;
+        synchronized (this) {
+            size = index.get(key);
+        }
+        if (size == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        Path p = fileOf(key);
+        try {
+            InputStream in = Files.newInputStream(p);
+            hits.incrementAndGet();
+            return Optional.of(new StoredFile(in, size, Files.getLastModifiedTime(p).toMillis(), p));
+        } catch (NoSuchFileException e) {
+            // 인덱스와 디스크가 어긋난 경우(외부 삭제 등) → 미스로 처리
+            remove(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /** 캐시에 있으면 크기/수정시각 (파일은 열지 않음), 없으면 empty - 히트/미스 카운트에 포함하지 않음 */
+    public Optional<FileStat> stat(String relativePath) {
+        if (!config.isEnabled()) return Optional.empty();
+        String key = keyOf(relativePath);
+        Long size;
+        synchronized (this) {
+            size = index.get(key);
+        }
+        if (size == null) return Optional.empty();
+        try {
+            return Optional.of(new FileStat(size, Files.getLastModifiedTime(fileOf(key)).toMillis()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** 캐시에 있으면 임의 접근 핸들(FileChannel), 없으면 empty */
+    public Optional<RandomReadable> lookupRandomAccess(String relativePath) throws IOException {
+        if (!config.isEnabled()) return Optional.empty();
+        String key = keyOf(relativePath);
+        Long size;
+        synchronized (this) {
+            size = index.get(key);
+        }
+        if (size == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            RandomReadable r = new LocalRandomReadable(fileOf(key));
+            hits.incrementAndGet();
+            return Optional.of(r);
+        } catch (NoSuchFileException e) {
+            remove(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 캐시에 있으면 sendfile 용 경로 (히트로 집계), 없으면 empty.
+     * 캐시 파일 자체가 아니라 하드 링크를 돌려주므로 전송 전에 축출돼도 파일이 남는다 (pinTtlMs 뒤 sweepPins 가 정리).
+     * 링크를 만들 수 없는 파일시스템이면 empty - 호출 측은 열어서 스트리밍한다.
+     */
+    public Optional<Path> pin(String relativePath) {
+        if (!config.isEnabled()) return Optional.empty();
+        String key = keyOf(relativePath);
+        synchronized (this) {
+            if (index.get(key) == null) return Optional.empty();
+        }
+        Path target = fileOf(key);
+        Path link = target.resolveSibling(".tmp-pin-" + pinSeq.incrementAndGet() + "-" + key + ".dcm");
+        try {
+            Files.createLink(link, target);
+        } catch (NoSuchFileException e) {
+            remove(key); // 방금 축출됨 / 외부 삭제
+            return Optional.empty();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("disk cache pin 실패 (스트리밍으로 전송): {}", e.toString());
+            return Optional.empty();
+        }
+        pins.add(new Pin(link, System.currentTimeMillis()));
+        hits.incrementAndGet();
+        return Optional.of(link);
+    }
+
+    /** 오래된 sendfile 링크 삭제 - 원본이 이미 축출됐으면 이때 디스크에서 사라진다 */
+    @Scheduled(fixedDelayString = "${dicom.cache.disk.pin-sweep-ms:60000}")
+    public void sweepPins() {
+        long cutoff = System.currentTimeMillis() - config.getPinTtlMs();
+        Pin p;
+        while ((p = pins.peek()) != null && p.createdAt() <= cutoff) {
+            if (pins.remove(p)) deleteQuietly(p.link());
+        }
+    }
+
+    /**
+     * 캐시에 없는 파일을 뒤에서 통째로 받아 둔다 (Range/프레임 미스 후 다음 요청부터 로컬).
+     * 이미 받는 중이거나 대기열이 가득 차면 생략.
+     */
+    public void fillAsync(String relativePath, Callable<StoredFile> open) {
+        if (!config.isEnabled() || fillPool == null || contains(relativePath)) return;
+        if (!filling.add(relativePath)) return;
+        try {
+            fillPool.execute(() -> {
+                try {
+                    if (contains(relativePath)) return;
+                    // 끝까지 읽고 닫으면 write-through 가 등록
+                    try (StoredFile f = writeThrough(relativePath, open.call())) {
+                        f.stream().transferTo(OutputStream.nullOutputStream());
+                        fills.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    log.debug("disk cache 백그라운드 적재 실패: {} ({})", relativePath, e.toString());
+                } finally {
+                    filling.remove(relativePath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            filling.remove(relativePath);
+        }
+    }
+
+    public boolean contains(String relativePath) {
+        if (!config.isEnabled()) return false;
+        synchronized (this) {
+            return index.containsKey(keyOf(relativePath));
+        }
+    }
+
+    /**
+     * 원격 파일 스트림을 감싸서, 읽히는 바이트를 그대로 캐시 임시파일에 기록한다.
+     * 끝까지(=length) 읽히고 닫히면 캐시에 등록, 중간에 끊기거나 skip 되면 버린다.
+     */
+    public StoredFile writeThrough(String relativePath, StoredFile remote) {
+        if (!config.isEnabled()) return remote;
+        String key = keyOf(relativePath);
+        try {
+            Path target = fileOf(key);
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), ".tmp", null);
+            OutputStream sink = Files.newOutputStream(tmp);
+            var tee = new WriteThroughInputStream(remote.stream(), sink, tmp, key, remote.length(), remote.lastModified());
+            return new StoredFile(tee, remote.length(), remote.lastModified(), null);
+        } catch (IOException e) {
+            log.warn("disk cache write-through 준비 실패: {}", relativePath, e);
+            return remote;
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(config.isEnabled(), config.getDir(), index.size(), totalBytes, config.getMaxBytes(),
+                hits.get(), misses.get(), evictions.get(), writes.get(), fills.get(), pins.size());
+    }
+
+    /** 전체 비우기. 삭제한 항목 수 반환 */
+    public int purge() {
+        List<String> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(index.keySet());
+            index.clear();
+            totalBytes = 0;
+        }
+        for (String k : keys) deleteQuietly(fileOf(k));
+        return keys.size();
+    }
+
+    // ---------------------------------------------------------------------
+
+    private void commit(String key, Path tmp, long size, long lastModified) {
+        Path target = fileOf(key);
+        try {
+            // 원본 수정시각을 유지해야 캐시 히트/미스에서 같은 검증자(Last-Modified)가 나감
+            if (lastModified > 0) Files.setLastModifiedTime(tmp, FileTime.fromMillis(lastModified));
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("disk cache commit 실패: {}", target, e);
+            deleteQuietly(tmp);
+            return;
+        }
+        writes.incrementAndGet();
+        synchronized (this) {
+            Long prev = index.put(key, size);
+            if (prev != null) totalBytes -= prev;
+            totalBytes += size;
+            evictIfNeeded();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Long prev = index.remove(key);
+        if (prev != null) totalBytes -= prev;
+    }
+
+    // synchronized(this) 안에서 호출
+    private void evictIfNeeded() {
+        long high = (long) (config.getMaxBytes() * config.getHighWatermark());
+        if (totalBytes <= high) return;
+        long low = (long) (config.getMaxBytes() * config.getLowWatermark());
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalBytes > low && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            evictions.incrementAndGet();
+            // 삭제 중 열려 있는 파일은 OS가 닫힐 때까지 유지해 줌
+            deleteQuietly(fileOf(eldest.getKey()));
+        }
+    }
+
+    private Path root() {
+        return Paths.get(config.getDir());
+    }
+
+    private Path fileOf(String key) {
+        return root().resolve(key.substring(0, 2)).resolve(key + ".dcm");
+    }
+
+    private static String stripExt(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String keyOf(String relativePath) {
+        String norm = relativePath.replace('\\', '/');
+        if (norm.startsWith("/")) norm = norm.substring(1);
+        try {
+            byte[] h = MessageDigest.getInstance("SHA-256").digest(norm.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(h);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            log.debug("disk cache 파일 삭제 실패(다음 기동 시 정리): {}", p, e);
+        }
+    }
+
+    /** 읽는 대로 임시파일에 복사하는 스트림 */
+    private final class WriteThroughInputStream extends FilterInputStream {
+        private final OutputStream sink;
+        private final Path tmp;
+        private final String key;
+        private final long expected;
+        private final long lastModified;
+        private long written;
+        private boolean abandoned;
+        private boolean closed;
+
+        WriteThroughInputStream(InputStream in, OutputStream sink, Path tmp, String key,
+                                long expected, long lastModified) {
+            super(in);
+            this.sink = sink;
+            this.tmp = tmp;
+            this.key = key;
+            this.expected = expected;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0 && !abandoned) {
+                try {
+                    sink.write(b);
+                    written++;
+                } catch (IOException e) {
+                    abandon(e);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0 && !abandoned) {
+                try {
+                    sink.write(b, off, n);
+                    written += n;
+                } catch (IOException e) {
+                    abandon(e);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            abandoned = true; // 건너뛴 구간이 생기면 캐시 파일로 쓸 수 없음
+            return super.skip(n);
+        }
+
+        private void abandon(IOException e) {
+            abandoned = true;
+            log.debug("disk cache write-through 중단: {}", e.getMessage());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    abandoned = true;
+                }
+                if (!abandoned && written == expected) {
+                    commit(key, tmp, written, lastModified);
+                } else {
+                    deleteQuietly(tmp);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.dicomproject.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.cache.disk")
+public class DiskCacheConfig {
+    private boolean enabled = false;
+    private String dir = System.getProperty("java.io.tmpdir") + "/dicom-cache";
+    private long maxBytes = 10L * 1024 * 1024 * 1024;   // 10 GiB
+    private double highWatermark = 0.95;                // 이 비율을 넘으면 축출 시작
+    private double lowWatermark = 0.85;                 // 이 비율까지 내려갈 때까지 축출
+    private int fillThreads = 2;                        // 임의 접근(Range/프레임) 미스 후 백그라운드 전체 적재
+    private int fillQueueCapacity = 256;                // 넘치면 적재 생략 (다음 미스에서 다시)
+    private long pinTtlMs = 10 * 60 * 1000;             // sendfile 용 하드 링크 보관 시간 (전송이 끝날 만큼)
+}
@@ -0,0 +1,7 @@
+package com.example.dicomproject.storage;
+
+/** 파일을 열지 않고 얻은 크기/수정시각 (조건부 요청 검증용) */
+public record FileStat(
+        long length,
+        long lastModified   // epoch millis, 모르면 0
+) {}
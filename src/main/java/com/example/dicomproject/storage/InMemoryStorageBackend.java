@@ -0,0 +1,83 @@
+package com.example.dicomproject.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리 저장소 - 테스트/벤치마크에서 NAS 지연 없이 서빙 경로만 측정할 때 사용.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private record Entry(byte[] data, long lastModified) {
+    }
+
+    private final Map<String, Entry> files = new ConcurrentHashMap<>();
+
+    public void put(String relativePath, byte[] data) {
+        files.put(key(relativePath), new Entry(data, System.currentTimeMillis()));
+    }
+
+    public void remove(String relativePath) {
+        files.remove(key(relativePath));
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public StoredFile openFile(String relativePath) throws IOException {
+        Entry e = get(relativePath);
+        return new StoredFile(new ByteArrayInputStream(e.data()), e.data().length, e.lastModified(), null);
+    }
+
+    @Override
+    public RandomReadable openRandomAccess(String relativePath) throws IOException {
+        Entry e = get(relativePath);
+        return new RandomReadable() {
+            @Override
+            public long length() {
+                return e.data().length;
+            }
+
+            @Override
+            public long lastModified() {
+                return e.lastModified();
+            }
+
+            @Override
+            public int read(long position, byte[] buf, int off, int len) {
+                if (position >= e.data().length) return -1;
+                int n = (int) Math.min(len, e.data().length - position);
+                System.arraycopy(e.data(), (int) position, buf, off, n);
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public FileStat stat(String relativePath) throws IOException {
+        Entry e = get(relativePath);
+        return new FileStat(e.data().length, e.lastModified());
+    }
+
+    private Entry get(String relativePath) throws NoSuchFileException {
+        Entry e = files.get(key(relativePath));
+        if (e == null) throw new NoSuchFileException(relativePath);
+        return e;
+    }
+
+    private static String key(String relativePath) {
+        String r = relativePath.replace('\\', '/');
+        while (r.startsWith("/")) r = r.substring(1);
+        return r;
+    }
+}
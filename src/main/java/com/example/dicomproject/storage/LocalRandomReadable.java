@@ -0,0 +1,69 @@
+package com.example.dicomproject.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** 로컬 파일용 RandomReadable - FileChannel 위치 지정 읽기 / transferTo */
+public class LocalRandomReadable implements RandomReadable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long length;
+    private final long lastModified;
+
+    public LocalRandomReadable(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.length = channel.size();
+        this.lastModified = Files.getLastModifiedTime(path).toMillis();
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public int read(long position, byte[] buf, int off, int len) throws IOException {
+        return channel.read(ByteBuffer.wrap(buf, off, len), position);
+    }
+
+    @Override
+    public Path localPath() {
+        return path;
+    }
+
+    public FileChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void transferTo(long position, long len, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long pos = position, remaining = len;
+        while (remaining > 0) {
+            long n = channel.transferTo(pos, remaining, target);
+            if (n <= 0) throw new EOFException("예상보다 파일이 짧음: " + remaining + " bytes 부족");
+            pos += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dicomproject.storage;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * 로컬 디스크/NFS 마운트 저장소.
+ * StoredFile 에 localPath 를 채우므로 전체 응답은 sendfile, Range 는 FileChannel.transferTo 로 나간다.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String name() {
+        return "local:" + root;
+    }
+
+    @Override
+    public StoredFile openFile(String relativePath) throws IOException {
+        Path p = resolve(relativePath);
+        FileChannel ch = FileChannel.open(p, StandardOpenOption.READ);
+        try {
+            long lastModified = Files.getLastModifiedTime(p).toMillis();
+            return new StoredFile(Channels.newInputStream(ch), ch.size(), lastModified, p);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public RandomReadable openRandomAccess(String relativePath) throws IOException {
+        return new LocalRandomReadable(resolve(relativePath));
+    }
+
+    @Override
+    public FileStat stat(String relativePath) throws IOException {
+        BasicFileAttributes a = Files.readAttributes(resolve(relativePath), BasicFileAttributes.class);
+        return new FileStat(a.size(), a.lastModifiedTime().toMillis());
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Path localPath(String relativePath) throws IOException {
+        return resolve(relativePath);
+    }
+
+    @Override
+    public void probe() throws IOException {
+        BasicFileAttributes a = Files.readAttributes(root, BasicFileAttributes.class); // 없으면 NoSuchFileException
+        if (!a.isDirectory()) throw new NotDirectoryException(root.toString());
+    }
+
+    /** 루트 밖으로 나가는 경로(../)는 거부 */
+    private Path resolve(String relativePath) throws IOException {
+        String r = relativePath.replace('\\', '/');
+        while (r.startsWith("/")) r = r.substring(1);
+        Path p = root.resolve(r).normalize();
+        if (!p.startsWith(root)) throw new NoSuchFileException(relativePath);
+        return p;
+    }
+}
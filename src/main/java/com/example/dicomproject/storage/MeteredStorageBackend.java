@@ -0,0 +1,225 @@
+package com.example.dicomproject.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 저장소 하나에 대한 동시 핸들 한도 + 처리량/지연 메트릭 데코레이터.
+ * 핸들(openFile/openRandomAccess)은 닫힐 때까지 슬롯을 잡고, stat 은 슬롯 없이 지연만 기록한다.
+ * 로컬 sendfile 전송은 바이트를 볼 수 없으므로 open 시점에 파일 크기로 집계한다.
+ */
+public class MeteredStorageBackend implements StorageBackend {
+
+    public record Stats(String storageId, String backend, int maxConcurrent, int inFlight,
+                        long opens, long stats, long errors, long bytesRead,
+                        double avgOpenMs, double maxOpenMs, double avgStatMs, double bytesPerSecond) {
+    }
+
+    private final String storageId;
+    private final StorageBackend delegate;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder statCalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder openNanos = new LongAdder();
+    private final LongAdder statNanos = new LongAdder();
+    private final AtomicLong maxOpenNanos = new AtomicLong();
+
+    public MeteredStorageBackend(String storageId, StorageBackend delegate, int maxConcurrent, long acquireTimeoutMs) {
+        this.storageId = storageId;
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public StorageBackend delegate() {
+        return delegate;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public StoredFile openFile(String relativePath) throws IOException {
+        Slot slot = acquire();
+        long t0 = System.nanoTime();
+        try {
+            StoredFile f = delegate.openFile(relativePath);
+            recordOpen(t0);
+            if (f.isLocal()) bytesRead.add(f.length());
+            InputStream counted = new FilterInputStream(f.stream()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0 && !f.isLocal()) bytesRead.increment();
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0 && !f.isLocal()) bytesRead.add(n);
+                    return n;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        slot.release();
+                    }
+                }
+            };
+            return new StoredFile(counted, f.length(), f.lastModified(), f.localPath());
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            slot.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public RandomReadable openRandomAccess(String relativePath) throws IOException {
+        Slot slot = acquire();
+        long t0 = System.nanoTime();
+        RandomReadable r;
+        try {
+            r = delegate.openRandomAccess(relativePath);
+            recordOpen(t0);
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            slot.release();
+            throw e;
+        }
+        return new RandomReadable() {
+            @Override
+            public long length() {
+                return r.length();
+            }
+
+            @Override
+            public long lastModified() {
+                return r.lastModified();
+            }
+
+            @Override
+            public int read(long position, byte[] buf, int off, int len) throws IOException {
+                int n = r.read(position, buf, off, len);
+                if (n > 0) bytesRead.add(n);
+                return n;
+            }
+
+            @Override
+            public Path localPath() {
+                return r.localPath();
+            }
+
+            @Override
+            public void transferTo(long position, long len, OutputStream out) throws IOException {
+                r.transferTo(position, len, out); // 로컬이면 zero-copy 유지
+                bytesRead.add(len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    r.close();
+                } finally {
+                    slot.release();
+                }
+            }
+        };
+    }
+
+    @Override
+    public FileStat stat(String relativePath) throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            return delegate.stat(relativePath);
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            throw e;
+        } finally {
+            statCalls.increment();
+            statNanos.add(System.nanoTime() - t0);
+        }
+    }
+
+    @Override
+    public boolean isLocal() {
+        return delegate.isLocal();
+    }
+
+    @Override
+    public Path localPath(String relativePath) throws IOException {
+        return delegate.localPath(relativePath);
+    }
+
+    @Override
+    public void probe() throws IOException {
+        delegate.probe();
+    }
+
+    public Stats stats() {
+        long n = opens.sum(), ns = statCalls.sum();
+        double seconds = Math.max(1e-3, (System.nanoTime() - startedAt) / 1e9);
+        return new Stats(storageId, delegate.name(), maxConcurrent, inFlight.get(),
+                n, ns, errors.sum(), bytesRead.sum(),
+                n == 0 ? 0 : openNanos.sum() / 1e6 / n,
+                maxOpenNanos.get() / 1e6,
+                ns == 0 ? 0 : statNanos.sum() / 1e6 / ns,
+                bytesRead.sum() / seconds);
+    }
+
+    private void recordOpen(long t0) {
+        long dt = System.nanoTime() - t0;
+        opens.increment();
+        openNanos.add(dt);
+        maxOpenNanos.accumulateAndGet(dt, Math::max);
+    }
+
+    private Slot acquire() throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("저장소 " + storageId + " 동시 핸들 한도 대기 시간 초과");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("저장소 슬롯 대기 중 인터럽트");
+        }
+        inFlight.incrementAndGet();
+        return new Slot();
+    }
+
+    /** 한 번만 반납되는 슬롯 */
+    private final class Slot {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dicomproject.storage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * 임의 위치 읽기가 가능한 파일 핸들.
+ * Range 요청은 앞부분을 읽고 버리지 않고 바로 오프셋으로 이동해서 읽는다.
+ */
+public interface RandomReadable extends Closeable {
+
+    int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    long length();
+
+    /** epoch millis, 모르면 0 */
+    long lastModified();
+
+    /** position 위치에서 최대 len 바이트 읽기. 파일 끝이면 -1 */
+    int read(long position, byte[] buf, int off, int len) throws IOException;
+
+    /** 로컬 파일이면 경로(zero-copy 전송용), 원격이면 null */
+    default Path localPath() {
+        return null;
+    }
+
+    /** [position, position + len) 구간을 out 으로 복사 (고정 버퍼) */
+    default void transferTo(long position, long len, OutputStream out) throws IOException {
+        byte[] buf = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(len, 1))];
+        long pos = position, remaining = len;
+        while (remaining > 0) {
+            int n = read(pos, buf, 0, (int) Math.min(buf.length, remaining));
+            if (n < 0) throw new EOFException("예상보다 파일이 짧음: " + remaining + " bytes 부족");
+            out.write(buf, 0, n);
+            pos += n;
+            remaining -= n;
+        }
+    }
+}
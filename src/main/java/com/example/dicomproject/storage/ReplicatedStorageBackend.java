@@ -0,0 +1,464 @@
+package com.example.dicomproject.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.net.SocketTimeoutException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 같은 파일을 가진 여러 공유(주 저장소 + 복제본) 위의 hedged read / failover / circuit breaker.
+ * - 주 저장소가 최근 첫 바이트 지연의 p95(설정 분위수) 안에 응답하지 않으면 다음 복제본에 두 번째 요청을 보내고 먼저 온 쪽을 쓴다.
+ * - 오류면 기다리지 않고 바로 다음 복제본으로 넘어가고, 늦게 도착한 쪽 핸들은 닫는다.
+ * - 연속 실패가 쌓인 공유는 회로를 열어 openMs 동안 건너뛰고, 그 뒤 한 번 시험해서 복구 여부를 본다.
+ * openFile 은 open + 첫 버퍼 읽기까지를, openRandomAccess/stat 은 open(조회)까지를 한 번의 시도로 본다.
+ * 시도는 항상 hedge 실행기에서 돈다 - 실행기가 포화면 첫 시도는 IOException (호출 스레드에서 타임아웃 없이 돌리지 않는다).
+ * 파일 없음(NoSuchFileException)은 공유가 응답한 것이므로 실패로 세지 않는다 (옮겨진 파일 몇 건으로 회로가 열리지 않도록).
+ */
+@Slf4j
+public class ReplicatedStorageBackend implements StorageBackend {
+
+    private static final int PEEK_BYTES = 64 * 1024;
+    private static final int MIN_SAMPLES = 20;
+
+    public record Stats(String storageId, long requests, long hedged, long hedgeWins,
+                        long failovers, long timeouts, List<MemberStats> members) {
+    }
+
+    public record MemberStats(String backend, String circuit, int consecutiveFailures,
+                              long samples, double p95Ms, long wins, long failures) {
+    }
+
+    @FunctionalInterface
+    private interface IoCall<T> {
+        T call(StorageBackend backend) throws IOException;
+    }
+
+    private final String storageId;
+    private final List<Member> members;
+    private final StorageConfig.Hedge config;
+    private final ExecutorService executor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public ReplicatedStorageBackend(String storageId, List<? extends StorageBackend> backends,
+                                    StorageConfig.Hedge config, ExecutorService executor) {
+        this.storageId = storageId;
+        this.config = config;
+        this.executor = executor;
+        List<Member> list = new ArrayList<>();
+        for (StorageBackend b : backends) list.add(new Member(b, config));
+        this.members = List.copyOf(list);
+    }
+
+    @Override
+    public String name() {
+        String primary = members.get(0).backend.name();
+        return members.size() == 1 ? primary : primary + " (+" + (members.size() - 1) + " replicas)";
+    }
+
+    @Override
+    public StoredFile openFile(String relativePath) throws IOException {
+        return hedged(relativePath, b -> peek(b.openFile(relativePath)), ReplicatedStorageBackend::closeQuietly);
+    }
+
+    @Override
+    public RandomReadable openRandomAccess(String relativePath) throws IOException {
+        return hedged(relativePath, b -> b.openRandomAccess(relativePath), ReplicatedStorageBackend::closeQuietly);
+    }
+
+    @Override
+    public FileStat stat(String relativePath) throws IOException {
+        return hedged(relativePath, b -> b.stat(relativePath), s -> { });
+    }
+
+    @Override
+    public boolean isLocal() {
+        return members.stream().allMatch(m -> m.backend.isLocal());
+    }
+
+    @Override
+    public Path localPath(String relativePath) throws IOException {
+        return isLocal() ? members.get(0).backend.localPath(relativePath) : null;
+    }
+
+    /** 구성원 중 하나라도 접근되면 정상 (읽기가 그쪽으로 넘어가므로) */
+    @Override
+    public void probe() throws IOException {
+        IOException last = null;
+        for (Member m : members) {
+            try {
+                m.backend.probe();
+                return;
+            } catch (IOException e) {
+                last = e;
+            }
+        }
+        throw last;
+    }
+
+    public Stats stats() {
+        List<MemberStats> ms = members.stream().map(Member::stats).toList();
+        return new Stats(storageId, requests.sum(), hedged.sum(), hedgeWins.sum(),
+                failovers.sum(), timeouts.sum(), ms);
+    }
+
+    /**
+     * 시도 하나를 시작하고, 응답이 늦으면(hedge) 또는 실패하면(failover) 다음 후보를 시작한다.
+     * 첫 성공을 반환하고, 그 뒤에 끝나는 시도의 결과는 discard 로 정리한다.
+     */
+    private <T> T hedged(String path, IoCall<T> call, Consumer<T> discard) throws IOException {
+        requests.increment();
+        Race<T> race = new Race<>(discard);
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getReadTimeoutMs());
+        int next = 0;
+        int running = 0;
+        IOException last = null;
+        List<Attempt> started = new ArrayList<>();
+
+        Member first = acquire(next);
+        boolean acquired = first != null;
+        if (first == null) first = members.get(0); // 모두 open 이면 주 저장소라도 시도 (회로 상태는 건드리지 않음)
+        next = members.indexOf(first) + 1;
+        if (!start(race, first, acquired, call, started)) {
+            throw new IOException("저장소 " + storageId + " 읽기 실행기 포화: " + path);
+        }
+        running++;
+        // 첫 시도 시작 기준 - 마감에 닿으면 첫 시도는 항상 readTimeoutMs 를 다 쓴 것으로 센다
+        long deadline = started.get(0).startedAt + timeoutNanos;
+
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.increment();
+                    // 자기 자신이 readTimeoutMs 를 다 쓴 시도만 실패로 센다 (늦게 보낸 hedge 는 아직 기회가 남음)
+                    long now = System.nanoTime();
+                    for (Attempt a : started) {
+                        if (!race.finishedBy(a.member) && now - a.startedAt >= timeoutNanos && a.charge()) {
+                            a.member.breaker.onFailure();
+                        }
+                    }
+                    throw new SocketTimeoutException("저장소 " + storageId + " 응답 시간 초과 ("
+                            + config.getReadTimeoutMs() + "ms): " + path);
+                }
+                Member candidate = nextAllowed(next);
+                long wait = remaining;
+                if (candidate != null && config.isEnabled()) {
+                    wait = Math.min(remaining, hedgeDelayNanos(started.get(started.size() - 1).member));
+                }
+                Outcome<T> o = race.results.poll(wait, TimeUnit.NANOSECONDS);
+                if (o == null) {
+                    Member h = candidate != null && config.isEnabled() && System.nanoTime() < deadline
+                            ? acquire(next) : null;
+                    if (h != null) {
+                        hedged.increment();
+                        next = members.indexOf(h) + 1;
+                        if (start(race, h, true, call, started)) running++;
+                    }
+                    continue;
+                }
+                running--;
+                if (o.error == null) {
+                    race.finish();
+                    o.member.wins.increment();
+                    if (o.member != started.get(0).member) hedgeWins.increment();
+                    return o.value;
+                }
+                last = o.error;
+                Member f = candidate != null ? acquire(next) : null;
+                if (f != null) {
+                    failovers.increment();
+                    log.debug("storage {} failover: {} → {} ({})", storageId,
+                            o.member.backend.name(), f.backend.name(), o.error.toString());
+                    next = members.indexOf(f) + 1;
+                    if (start(race, f, true, call, started)) running++;
+                }
+                if (running == 0) throw last;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("저장소 응답 대기 중 인터럽트");
+        } finally {
+            race.finish();
+        }
+    }
+
+    /** from 이후에서 회로가 시도를 허용하는 첫 후보 (상태는 바꾸지 않음 - hedge 대기 시간 계산용) */
+    private Member nextAllowed(int from) {
+        for (int i = from; i < members.size(); i++) {
+            if (members.get(i).breaker.isAvailable()) return members.get(i);
+        }
+        return null;
+    }
+
+    /** from 이후에서 회로 허가를 실제로 얻은 첫 후보 - half-open 시험 자리는 한 요청만 얻는다 */
+    private Member acquire(int from) {
+        for (int i = from; i < members.size(); i++) {
+            if (members.get(i).breaker.tryAcquire()) return members.get(i);
+        }
+        return null;
+    }
+
+    private long hedgeDelayNanos(Member m) {
+        long ms = m.latency.count() < MIN_SAMPLES
+                ? config.getMaxDelayMs()
+                : Math.max(config.getMinDelayMs(), Math.min(config.getMaxDelayMs(), m.latency.quantileMs(config.getQuantile())));
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    /**
+     * 실행기에 넣지 못하면 false (호출 스레드에서 돌리면 readTimeoutMs 가 적용되지 않음).
+     * acquired = 회로 허가를 얻은 시도 - 넣지 못하면 허가를 돌려준다.
+     */
+    private <T> boolean start(Race<T> race, Member m, boolean acquired, IoCall<T> call, List<Attempt> started) {
+        Attempt a = new Attempt(m, System.nanoTime());
+        Runnable attempt = () -> {
+            try {
+                T value = call.call(m.backend);
+                m.latency.record(System.nanoTime() - a.startedAt);
+                m.breaker.onSuccess();
+                race.offer(new Outcome<>(m, value, null));
+            } catch (NoSuchFileException e) {
+                m.breaker.onSuccess();              // 공유는 응답함 - half-open 시험이면 여기서 닫힌다
+                race.offer(new Outcome<>(m, null, e));
+            } catch (IOException | RuntimeException e) {
+                m.failures.increment();
+                if (a.charge()) m.breaker.onFailure(); // 타임아웃으로 이미 셌으면 다시 세지 않음
+                race.offer(new Outcome<>(m, null, e instanceof IOException io ? io : new IOException(e)));
+            }
+        };
+        try {
+            executor.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            if (acquired) m.breaker.abortAttempt(); // hedge 면 생략, 첫 시도면 호출 측이 IOException
+            return false;
+        }
+        started.add(a);
+        return true;
+    }
+
+    /** 원격 스트림의 첫 버퍼를 미리 읽어 첫 바이트 도착까지를 시도에 포함시킴 */
+    private static StoredFile peek(StoredFile f) throws IOException {
+        if (f.isLocal()) return f;
+        byte[] head = new byte[PEEK_BYTES];
+        int n;
+        try {
+            n = f.stream().read(head);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(f);
+            throw e;
+        }
+        if (n <= 0) return f;
+        InputStream joined = new SequenceInputStream(new ByteArrayInputStream(head, 0, n), f.stream());
+        return new StoredFile(joined, f.length(), f.lastModified(), null);
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ignored) {
+            // 진 쪽 핸들 정리
+        }
+    }
+
+    private record Outcome<T>(Member member, T value, IOException error) {
+    }
+
+    /** 시작한 시도 하나 - 회로 실패는 타임아웃/오류 중 먼저 온 쪽에서 한 번만 센다 */
+    private static final class Attempt {
+        final Member member;
+        final long startedAt;
+        private final AtomicBoolean charged = new AtomicBoolean();
+
+        Attempt(Member member, long startedAt) {
+            this.member = member;
+            this.startedAt = startedAt;
+        }
+
+        /** 처음 부를 때만 true */
+        boolean charge() {
+            return charged.compareAndSet(false, true);
+        }
+    }
+
+    /** 한 요청의 시도들 - 끝난 뒤 도착한 성공 결과는 정리 */
+    private static final class Race<T> {
+        final BlockingQueue<Outcome<T>> results = new LinkedBlockingQueue<>();
+        private final Consumer<T> discard;
+        private final List<Member> completed = new ArrayList<>();
+        private boolean finished;
+
+        Race(Consumer<T> discard) {
+            this.discard = discard;
+        }
+
+        void offer(Outcome<T> o) {
+            synchronized (this) {
+                completed.add(o.member);
+                if (!finished) {
+                    results.add(o);
+                    return;
+                }
+            }
+            if (o.value != null) discard.accept(o.value);
+        }
+
+        synchronized boolean finishedBy(Member m) {
+            return completed.contains(m);
+        }
+
+        void finish() {
+            List<Outcome<T>> late = new ArrayList<>();
+            synchronized (this) {
+                if (finished) return;
+                finished = true;
+                results.drainTo(late);
+            }
+            for (Outcome<T> o : late) {
+                if (o.value != null) discard.accept(o.value);
+            }
+        }
+    }
+
+    private static final class Member {
+        final StorageBackend backend;
+        final CircuitBreaker breaker;
+        final LatencyWindow latency = new LatencyWindow(256);
+        final LongAdder wins = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        Member(StorageBackend backend, StorageConfig.Hedge config) {
+            this.backend = backend;
+            this.breaker = new CircuitBreaker(backend.name(), config.getFailureThreshold(), config.getOpenMs());
+        }
+
+        MemberStats stats() {
+            return new MemberStats(backend.name(), breaker.state().name(), breaker.consecutiveFailures(),
+                    latency.count(), latency.count() == 0 ? 0 : latency.quantileMs(0.95),
+                    wins.sum(), failures.sum());
+        }
+    }
+
+    /** 최근 N개 첫 바이트 지연 - 16개 기록마다 정렬본을 다시 만든다 */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private long count;
+        private volatile long[] sorted = new long[0];
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (count++ % samples.length)] = nanos;
+            if (count <= MIN_SAMPLES || count % 16 == 0) {
+                long[] copy = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+                Arrays.sort(copy);
+                sorted = copy;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        long quantileMs(double q) {
+            long[] s = sorted;
+            if (s.length == 0) return 0;
+            int i = (int) Math.min(s.length - 1, Math.ceil(q * s.length) - 1);
+            return TimeUnit.NANOSECONDS.toMillis(s[Math.max(0, i)]);
+        }
+    }
+
+    /** closed → (연속 실패 threshold) open → (openMs 경과) half-open: 시도 하나만 허용 → 성공 closed / 실패 open */
+    static final class CircuitBreaker {
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final String name;
+        private final int threshold;
+        private final long openNanos;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+
+        CircuitBreaker(String name, int threshold, long openMs) {
+            this.name = name;
+            this.threshold = Math.max(1, threshold);
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        }
+
+        /** 지금 시도를 보낼 수 있는지 (상태는 바꾸지 않음) */
+        synchronized boolean isAvailable() {
+            return switch (state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false; // 시험 요청이 끝날 때까지 대기
+                case OPEN -> System.nanoTime() - openedAt >= openNanos;
+            };
+        }
+
+        /**
+         * 시도를 보내도 되는지 확인하고 허가를 얻는다 (확인과 전이를 한 번에).
+         * open 기간이 지났으면 처음 부른 쪽만 half-open 시험 요청이 되고, 나머지는 false.
+         */
+        synchronized boolean tryAcquire() {
+            return switch (state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false;
+                case OPEN -> {
+                    if (System.nanoTime() - openedAt < openNanos) yield false;
+                    state = State.HALF_OPEN;
+                    yield true;
+                }
+            };
+        }
+
+        /** 보내지 못한 시험 요청 - 다음 요청이 다시 시험할 수 있게 open 으로 되돌림 */
+        synchronized void abortAttempt() {
+            if (state == State.HALF_OPEN) state = State.OPEN;
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) log.info("storage {} 회로 닫힘 (복구)", name);
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+                log.warn("storage {} 회로 열림 (연속 실패 {})", name, consecutiveFailures);
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized int consecutiveFailures() {
+            return consecutiveFailures;
+        }
+    }
+}
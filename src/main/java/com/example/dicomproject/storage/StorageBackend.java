@@ -0,0 +1,53 @@
+package com.example.dicomproject.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 인스턴스 파일 저장소 SPI.
+ * 경로는 항상 저장소 루트 기준 상대 경로 (DicomService.relativePath).
+ * 구현: SMB(jcifs), 로컬/NFS 마운트(NIO), 메모리(테스트/벤치마크).
+ */
+public interface StorageBackend {
+
+    /** 로그/메트릭용 이름 */
+    String name();
+
+    /** 순차 읽기 스트림 + 크기/수정시각 (한 번의 조회) */
+    StoredFile openFile(String relativePath) throws IOException;
+
+    /** Range/프레임 읽기용 임의 접근 핸들 */
+    RandomReadable openRandomAccess(String relativePath) throws IOException;
+
+    /** 핸들을 열지 않고 크기/수정시각만 */
+    FileStat stat(String relativePath) throws IOException;
+
+    default InputStream open(String relativePath) throws IOException {
+        return openFile(relativePath).stream();
+    }
+
+    default long length(String relativePath) throws IOException {
+        return stat(relativePath).length();
+    }
+
+    /**
+     * 로컬 파일시스템 위에 있어 zero-copy 전송이 가능한지.
+     * true 면 앞단 디스크 캐시를 거치지 않는다 (로컬 → 로컬 복사는 이득이 없음).
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /** 로컬 파일시스템 경로 (sendfile 용, 파일을 열지 않음) - 원격이면 null */
+    default Path localPath(String relativePath) throws IOException {
+        return null;
+    }
+
+    /**
+     * 헬스 체크용 - 저장소 루트에 접근할 수 있는지 확인 (파일을 열지 않음). 접근할 수 없으면 IOException.
+     * 기본은 확인할 것이 없는 저장소 (메모리).
+     */
+    default void probe() throws IOException {
+    }
+}
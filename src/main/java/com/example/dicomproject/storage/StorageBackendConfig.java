@@ -0,0 +1,28 @@
+package com.example.dicomproject.storage;
+
+import com.example.dicomproject.config.SmbStorage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class StorageBackendConfig {
+
+    /** dicom.storage.type 으로 기본 저장소 선택 (SmbStorage 빈 자체는 항상 존재하므로 destroy 는 중복 호출하지 않음) */
+    @Bean(destroyMethod = "")
+    @Primary
+    public StorageBackend storageBackend(StorageConfig config, SmbStorage smb) {
+        return switch (config.getType()) {
+            case "local" -> {
+                if (config.getLocalRoot() == null || config.getLocalRoot().isBlank()) {
+                    throw new IllegalStateException("dicom.storage.local-root 가 필요합니다 (type=local)");
+                }
+                yield new LocalStorageBackend(Paths.get(config.getLocalRoot()));
+            }
+            case "memory" -> new InMemoryStorageBackend();
+            default -> smb;
+        };
+    }
+}
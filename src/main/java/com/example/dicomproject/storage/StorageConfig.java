@@ -0,0 +1,54 @@
+package com.example.dicomproject.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "dicom.storage")
+public class StorageConfig {
+    private String type = "smb";       // smb | local | memory
+    private String localRoot;          // type=local 일 때 아카이브 마운트 경로 (예: /mnt/pacs)
+    private int defaultMaxConcurrent = 64;     // archives 에 없는 STSTORAGEID(기본 저장소)의 동시 핸들 한도
+    private long acquireTimeoutMs = 30_000;    // 저장소 동시 핸들 슬롯 대기 한도
+
+    /** IMAGETAB.STSTORAGEID → 아카이브 (예: dicom.storage.archives.2.base-path=smb://nas2/sts/) */
+    private Map<Long, Archive> archives = new LinkedHashMap<>();
+
+    /** 기본 저장소의 복제본 (같은 상대 경로로 같은 파일을 가진 공유) */
+    private List<Archive> replicas = new ArrayList<>();
+
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Archive {
+        private String type = "smb";   // smb | local
+        private String basePath;       // smb URL (type=smb)
+        private String localRoot;      // 마운트 경로 (type=local)
+        private String domain;         // 비우면 smb.* 공통 계정 사용
+        private String username;
+        private String password;
+        private int maxConcurrent = 64;
+        private List<Archive> replicas = new ArrayList<>();  // 복제본 (replicas 안의 replicas 는 무시)
+    }
+
+    /** 복제본이 있는 저장소의 hedged read / failover / circuit breaker */
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+        private double quantile = 0.95;        // 첫 바이트 지연의 이 분위수를 넘기면 복제본에 두 번째 요청
+        private long minDelayMs = 50;
+        private long maxDelayMs = 2_000;
+        private long readTimeoutMs = 30_000;   // 모든 후보가 이 시간 안에 첫 바이트를 못 주면 실패 (단일 공유는 smb.response-timeout-ms)
+        private int failureThreshold = 5;      // 연속 실패/타임아웃 이 횟수면 회로 open
+        private long openMs = 30_000;          // open 유지 시간 후 half-open 으로 한 번 시험
+        private int threads = 64;              // hedge 시도용 스레드 한도
+        private int queueCapacity = 64;        // 스레드가 모두 바쁠 때 대기 한도 - 넘치면 첫 시도는 IOException, hedge 는 생략
+    }
+}
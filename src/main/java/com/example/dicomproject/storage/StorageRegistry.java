@@ -0,0 +1,154 @@
+package com.example.dicomproject.storage;
+
+import com.example.dicomproject.config.SmbConfig;
+import com.example.dicomproject.config.SmbStorage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IMAGETAB.STSTORAGEID → 저장소.
+ * dicom.storage.archives 에 정의된 ID 는 각자 백엔드(SMB 면 별도 CIFSContext = 별도 커넥션 풀)와 동시 한도를 갖고,
+ * 정의되지 않은 ID(또는 null)는 기본 저장소(smb.* / dicom.storage.type)로 간다.
+ * replicas 가 있으면 ReplicatedStorageBackend 로 감싸 느린/죽은 공유를 우회한다.
+ * 복제본이 없는 공유는 감싸지 않는다 - 읽기 타임아웃은 SMB 자체 응답/소켓 타임아웃(smb.response-timeout-ms, so-timeout-ms).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageRegistry {
+
+    private final StorageConfig config;
+    private final SmbConfig smbConfig;
+    private final StorageBackend defaultBackend;
+
+    private final Map<Long, StorageBackend> archives = new LinkedHashMap<>();
+    private final List<MeteredStorageBackend> metered = new ArrayList<>();
+    private final List<ReplicatedStorageBackend> replicated = new ArrayList<>();
+    private final List<SmbStorage> ownedSmb = new ArrayList<>();
+    private StorageBackend fallback;
+    private ThreadPoolExecutor hedgeExecutor;
+
+    @PostConstruct
+    void init() {
+        fallback = withReplicas("default",
+                metered("default", defaultBackend, config.getDefaultMaxConcurrent()), config.getReplicas());
+        config.getArchives().forEach((id, a) -> {
+            StorageBackend backend = backend(a);
+            archives.put(id, withReplicas(String.valueOf(id),
+                    metered(String.valueOf(id), backend, a.getMaxConcurrent()), a.getReplicas()));
+            log.info("storage {} → {}", id, backend.name());
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (hedgeExecutor != null) hedgeExecutor.shutdownNow();
+        ownedSmb.forEach(SmbStorage::shutdown);
+    }
+
+    public StorageBackend backendFor(Long storageId) {
+        StorageBackend b = storageId == null ? null : archives.get(storageId);
+        return b != null ? b : fallback;
+    }
+
+    /**
+     * 디스크 캐시 키. 별도 아카이브는 같은 상대 경로가 겹칠 수 있으므로 ID 를 앞에 붙이고,
+     * 기본 저장소는 기존 키(상대 경로)를 그대로 쓴다.
+     */
+    public String cacheKey(Long storageId, String relativePath) {
+        return storageId != null && archives.containsKey(storageId)
+                ? "storage-" + storageId + "/" + relativePath
+                : relativePath;
+    }
+
+    public List<MeteredStorageBackend.Stats> stats() {
+        return metered.stream().map(MeteredStorageBackend::stats).toList();
+    }
+
+    /** 복제본이 있는 저장소의 hedge/failover/회로 상태 */
+    public List<ReplicatedStorageBackend.Stats> replicaStats() {
+        return replicated.stream().map(ReplicatedStorageBackend::stats).toList();
+    }
+
+    private MeteredStorageBackend metered(String id, StorageBackend backend, int maxConcurrent) {
+        MeteredStorageBackend m = new MeteredStorageBackend(id, backend, maxConcurrent, config.getAcquireTimeoutMs());
+        metered.add(m);
+        return m;
+    }
+
+    /**
+     * 복제본이 있으면 주 저장소 + 복제본(각자 동시 한도/메트릭) 위에 hedged read 를 씌움.
+     * 없으면 그대로 - 대안이 없는 시도를 hedge 실행기에 넣으면 실행기 포화가 곧 읽기 실패가 된다.
+     */
+    private StorageBackend withReplicas(String id, MeteredStorageBackend primary, List<StorageConfig.Archive> replicas) {
+        if (replicas.isEmpty()) return primary;
+        List<StorageBackend> members = new ArrayList<>();
+        members.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            StorageConfig.Archive r = replicas.get(i);
+            StorageBackend backend = backend(r);
+            members.add(metered(id + "/replica-" + (i + 1), backend, r.getMaxConcurrent()));
+            log.info("storage {} replica {} → {}", id, i + 1, backend.name());
+        }
+        ReplicatedStorageBackend b = new ReplicatedStorageBackend(id, members, config.getHedge(), hedgeExecutor());
+        replicated.add(b);
+        return b;
+    }
+
+    private ExecutorService hedgeExecutor() {
+        if (hedgeExecutor == null) {
+            AtomicInteger seq = new AtomicInteger();
+            // 스레드 한도 + 작은 대기열 - 넘치면 hedge 는 생략, 첫 시도는 IOException (호출 스레드에서 타임아웃 없이 돌리지 않음)
+            int threads = config.getHedge().getThreads();
+            hedgeExecutor = new ThreadPoolExecutor(threads, threads,
+                    60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, config.getHedge().getQueueCapacity())),
+                    r -> {
+                        Thread t = new Thread(r, "storage-hedge-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            hedgeExecutor.allowCoreThreadTimeOut(true);
+        }
+        return hedgeExecutor;
+    }
+
+    private StorageBackend backend(StorageConfig.Archive a) {
+        return "local".equals(a.getType())
+                ? new LocalStorageBackend(Paths.get(a.getLocalRoot()))
+                : smb(a);
+    }
+
+    /** 공통 smb.* 설정(타임아웃/풀)을 복사하고 경로/계정만 아카이브 값으로 덮어씀 */
+    private StorageBackend smb(StorageConfig.Archive a) {
+        SmbConfig c = new SmbConfig();
+        c.setBasePath(a.getBasePath());
+        c.setDomain(a.getUsername() != null ? a.getDomain() : smbConfig.getDomain());
+        c.setUsername(a.getUsername() != null ? a.getUsername() : smbConfig.getUsername());
+        c.setPassword(a.getUsername() != null ? a.getPassword() : smbConfig.getPassword());
+        c.setMaxOpenFilesPerServer(smbConfig.getMaxOpenFilesPerServer());
+        c.setAcquireTimeoutMs(smbConfig.getAcquireTimeoutMs());
+        c.setMaxMpxCount(smbConfig.getMaxMpxCount());
+        c.setConnectTimeoutMs(smbConfig.getConnectTimeoutMs());
+        c.setResponseTimeoutMs(smbConfig.getResponseTimeoutMs());
+        c.setSoTimeoutMs(smbConfig.getSoTimeoutMs());
+        c.setSessionTimeoutMs(smbConfig.getSessionTimeoutMs());
+        c.setAttrCacheMs(smbConfig.getAttrCacheMs());
+        SmbStorage s = new SmbStorage(c);
+        ownedSmb.add(s);
+        return s;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.dicomproject.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 한 번의 조회로 얻은 파일 핸들 + 크기/수정시각.
+ * 닫으면 원본 스트림(및 연결된 자원)이 함께 정리된다.
+ */
+public record StoredFile(
+        InputStream stream,
+        long length,
+        long lastModified,  // epoch millis, 모르면 0
+        Path localPath      // 로컬 디스크에 있으면 경로(zero-copy 전송용), 원격이면 null
+) implements Closeable {
+
+    public boolean isLocal() {
+        return localPath != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
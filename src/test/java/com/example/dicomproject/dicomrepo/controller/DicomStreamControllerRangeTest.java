@@ -0,0 +1,64 @@
+package com.example.dicomproject.dicomrepo.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DicomStreamControllerRangeTest {
+
+    @Test
+    void singleClosedRange() {
+        List<long[]> r = DicomStreamController.parseRanges("bytes=0-99", 1000);
+        assertThat(r).hasSize(1);
+        assertThat(r.get(0)).containsExactly(0, 99);
+    }
+
+    @Test
+    void openEndedAndSuffixRanges() {
+        List<long[]> r = DicomStreamController.parseRanges("bytes=900-, -50", 1000);
+        assertThat(r).hasSize(2);
+        assertThat(r.get(0)).containsExactly(900, 999);
+        assertThat(r.get(1)).containsExactly(950, 999);
+    }
+
+    @Test
+    void endIsClampedToFileLength() {
+        List<long[]> r = DicomStreamController.parseRanges("bytes=500-5000", 1000);
+        assertThat(r.get(0)).containsExactly(500, 999);
+    }
+
+    @Test
+    void suffixLongerThanFileCoversWholeFile() {
+        List<long[]> r = DicomStreamController.parseRanges("bytes=-5000", 1000);
+        assertThat(r.get(0)).containsExactly(0, 999);
+    }
+
+    @Test
+    void unitIsCaseInsensitive() {
+        assertThat(DicomStreamController.parseRanges("Bytes=0-0", 10)).hasSize(1);
+    }
+
+    @Test
+    void unsatisfiableRangesGiveEmptyList() {
+        assertThat(DicomStreamController.parseRanges("bytes=1000-1100", 1000)).isEmpty();
+        assertThat(DicomStreamController.parseRanges("bytes=-0", 1000)).isEmpty();
+        assertThat(DicomStreamController.parseRanges("bytes=-10", 0)).isEmpty();
+    }
+
+    @Test
+    void syntaxErrorsGiveNull() {
+        assertThat(DicomStreamController.parseRanges("items=0-10", 1000)).isNull();
+        assertThat(DicomStreamController.parseRanges("bytes=10", 1000)).isNull();
+        assertThat(DicomStreamController.parseRanges("bytes=20-10", 1000)).isNull();
+        assertThat(DicomStreamController.parseRanges("bytes=a-b", 1000)).isNull();
+        assertThat(DicomStreamController.parseRanges("bytes=-", 1000)).isNull();
+    }
+
+    @Test
+    void tooManyRangesAreIgnored() {
+        String header = "bytes=" + String.join(",", java.util.Collections.nCopies(17, "0-0"));
+        assertThat(DicomStreamController.parseRanges(header, 1000)).isNull();
+    }
+}
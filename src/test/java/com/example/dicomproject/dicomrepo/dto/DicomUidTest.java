@@ -0,0 +1,66 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DicomUidTest {
+
+    @Test
+    void packedUidRoundTrips() {
+        String uid = "1.2.840.113619.2.55.3.604688119.971.1239282434.26";
+
+        DicomUid u = DicomUid.of(uid);
+
+        assertThat(u.toString()).isEqualTo(uid);
+        assertThat(u.length()).isEqualTo(uid.length());
+    }
+
+    @Test
+    void equalUidsAreEqualAndHashAlike() {
+        DicomUid a = DicomUid.of("1.2.3.4.5");
+        DicomUid b = DicomUid.of(new String("1.2.3.4.5"));
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a.hashCode()).isEqualTo(b.hashCode());
+        assertThat(a).isNotEqualTo(DicomUid.of("1.2.3.4.6"));
+        assertThat(a).isNotEqualTo(DicomUid.of("1.2.3.4.50"));
+    }
+
+    @Test
+    void zeroDigitsAreNotTreatedAsEnd() {
+        DicomUid u = DicomUid.of("1.0.0");
+
+        assertThat(u.toString()).isEqualTo("1.0.0");
+        assertThat(u).isNotEqualTo(DicomUid.of("1"));
+    }
+
+    @Test
+    void maximumLengthUidIsPacked() {
+        String uid = "1." + "2".repeat(60) + ".3"; // 64자
+
+        DicomUid u = DicomUid.of(uid);
+
+        assertThat(uid).hasSize(64);
+        assertThat(u.toString()).isEqualTo(uid);
+        assertThat(u.length()).isEqualTo(64);
+        assertThat(u).isEqualTo(DicomUid.of(uid));
+    }
+
+    @Test
+    void nonConformingValuesAreKeptAsIs() {
+        String tooLong = "1." + "2".repeat(70);
+        String letters = "1.2.abc";
+
+        assertThat(DicomUid.of(tooLong).toString()).isEqualTo(tooLong);
+        assertThat(DicomUid.of(letters).toString()).isEqualTo(letters);
+        assertThat(DicomUid.of(letters)).isEqualTo(DicomUid.of(letters));
+        assertThat(DicomUid.of(letters)).isNotEqualTo(DicomUid.of("1.2"));
+    }
+
+    @Test
+    void emptyUid() {
+        assertThat(DicomUid.of("").toString()).isEmpty();
+        assertThat(DicomUid.of("").length()).isZero();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dicomproject.dicomrepo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudyCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        StudyCursor c = new StudyCursor("20240131", "235959", 123456789L);
+
+        String token = c.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(StudyCursor.decode(token)).isEqualTo(c);
+    }
+
+    @Test
+    void nullDateAndTimeUseSortDefaults() {
+        StudySummaryDto last = new StudySummaryDto(7L, "1.2.3", null, null, null, null, null, null, "P1", "홍길동");
+
+        StudyCursor c = StudyCursor.after(last);
+
+        assertThat(c).isEqualTo(new StudyCursor(StudyCursor.NULL_DATE, StudyCursor.NULL_TIME, 7L));
+        assertThat(StudyCursor.decode(c.encode())).isEqualTo(c);
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThatThrownBy(() -> StudyCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StudyCursor.decode(base64("20240101|000000")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StudyCursor.decode(base64("20240101|000000|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String base64(String raw) {
+        return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.example.dicomproject.storage.RandomReadable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/** 테스트용 DICOM 바이트 생성기 (Little Endian, 태그 오름차순으로 호출) */
+final class DicomBytes {
+
+    static final String JPEG_BASELINE = "1.2.840.10008.1.2.4.50";
+
+    private static final Set<String> LONG_VRS = Set.of(
+            "OB", "OD", "OF", "OL", "OV", "OW", "SQ", "SV", "UC", "UN", "UR", "UT", "UV");
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private boolean explicit;
+
+    private DicomBytes(boolean explicit) {
+        this.explicit = explicit;
+    }
+
+    /** 프리앰블 + "DICM" + (0002,0010) - 이후 요소는 전송 구문에 맞게 */
+    static DicomBytes part10(String transferSyntaxUid) {
+        DicomBytes b = new DicomBytes(true);
+        b.out.writeBytes(new byte[128]);
+        b.out.writeBytes("DICM".getBytes(StandardCharsets.US_ASCII));
+        b.element(0x00020010, "UI", uid(transferSyntaxUid));
+        b.explicit = !DicomHeader.IMPLICIT_LE.equals(transferSyntaxUid);
+        return b;
+    }
+
+    /** 프리앰블 없는 Implicit VR Little Endian 데이터셋 */
+    static DicomBytes rawImplicit() {
+        return new DicomBytes(false);
+    }
+
+    DicomBytes us(int tag, int value) {
+        return element(tag, "US", new byte[]{(byte) value, (byte) (value >>> 8)});
+    }
+
+    DicomBytes string(int tag, String vr, String value) {
+        byte[] v = value.getBytes(StandardCharsets.US_ASCII);
+        if (v.length % 2 != 0) v = (value + " ").getBytes(StandardCharsets.US_ASCII);
+        return element(tag, vr, v);
+    }
+
+    /** 정의되지 않은 길이의 SQ - 아이템 하나에 UI 요소 하나 */
+    DicomBytes sequenceWithUid(int tag, int uidTag, String uid) {
+        header(tag, "SQ", 0xFFFFFFFFL);
+        item(0xFFFEE000, 0xFFFFFFFFL);
+        element(uidTag, "UI", uid(uid));
+        item(0xFFFEE00D, 0);
+        item(0xFFFEE0DD, 0);
+        return this;
+    }
+
+    DicomBytes nativePixelData(byte[] pixels) {
+        return element(0x7FE00010, "OW", pixels);
+    }
+
+    /** 정의되지 않은 길이의 Pixel Data - 첫 item 은 BOT(offsets), 이어서 조각들 */
+    DicomBytes encapsulatedPixelData(long[] bot, byte[]... fragments) {
+        header(0x7FE00010, "OB", 0xFFFFFFFFL);
+        item(0xFFFEE000, bot.length * 4L);
+        for (long o : bot) u32(o);
+        for (byte[] f : fragments) {
+            item(0xFFFEE000, f.length);
+            out.writeBytes(f);
+        }
+        item(0xFFFEE0DD, 0);
+        return this;
+    }
+
+    /** 각 조각이 차지하는 item 오프셋 (첫 조각 item 태그 기준, BOT 값) */
+    static long[] itemOffsets(byte[]... fragments) {
+        long[] out = new long[fragments.length];
+        long pos = 0;
+        for (int i = 0; i < fragments.length; i++) {
+            out[i] = pos;
+            pos += 8 + fragments[i].length;
+        }
+        return out;
+    }
+
+    int size() {
+        return out.size();
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    RandomReadable readable() {
+        return readable(toByteArray());
+    }
+
+    static RandomReadable readable(byte[] data) {
+        return new RandomReadable() {
+            @Override
+            public long length() {
+                return data.length;
+            }
+
+            @Override
+            public long lastModified() {
+                return 0;
+            }
+
+            @Override
+            public int read(long position, byte[] buf, int off, int len) {
+                if (position >= data.length) return -1;
+                int n = (int) Math.min(len, data.length - position);
+                System.arraycopy(data, (int) position, buf, off, n);
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private DicomBytes element(int tag, String vr, byte[] value) {
+        header(tag, vr, value.length);
+        out.writeBytes(value);
+        return this;
+    }
+
+    private void header(int tag, String vr, long length) {
+        u16(tag >>> 16);
+        u16(tag & 0xFFFF);
+        if (!explicit) {
+            u32(length);
+            return;
+        }
+        out.writeBytes(vr.getBytes(StandardCharsets.US_ASCII));
+        if (LONG_VRS.contains(vr)) {
+            u16(0);
+            u32(length);
+        } else {
+            u16((int) length);
+        }
+    }
+
+    private void item(int tag, long length) {
+        u16(tag >>> 16);
+        u16(tag & 0xFFFF);
+        u32(length);
+    }
+
+    private void u16(int v) {
+        out.write(v & 0xFF);
+        out.write((v >>> 8) & 0xFF);
+    }
+
+    private void u32(long v) {
+        u16((int) (v & 0xFFFF));
+        u16((int) ((v >>> 16) & 0xFFFF));
+    }
+
+    private static byte[] uid(String uid) {
+        byte[] v = uid.getBytes(StandardCharsets.US_ASCII);
+        return v.length % 2 == 0 ? v : (uid + "\0").getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DicomHeaderParserTest {
+
+    private static final int SOP_INSTANCE_UID = 0x00080018;
+    private static final int REFERENCED_SERIES = 0x00081115;
+    private static final int SERIES_INSTANCE_UID = 0x0020000E;
+
+    @Test
+    void explicitLittleEndianStopsAtPixelData() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .string(SOP_INSTANCE_UID, "UI", "1.2.3.4")
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .us(PixelInfo.ROWS, 2)
+                .us(PixelInfo.COLUMNS, 3)
+                .string(PixelInfo.WINDOW_CENTER, "DS", "40\\80");
+        int pixelValueOffset = b.size() + 12; // tag(4) + VR(2) + 예약(2) + 길이(4)
+        b.nativePixelData(new byte[24]);
+
+        DicomHeader h = DicomHeaderParser.parse(b.readable());
+
+        assertThat(h.transferSyntaxUid()).isEqualTo(DicomHeader.EXPLICIT_LE);
+        assertThat(h.explicitVr()).isTrue();
+        assertThat(h.bigEndian()).isFalse();
+        assertThat(h.string(SOP_INSTANCE_UID)).isEqualTo("1.2.3.4");
+        assertThat(h.intValue(PixelInfo.ROWS, 0)).isEqualTo(2);
+        assertThat(h.intValue(PixelInfo.COLUMNS, 0)).isEqualTo(3);
+        assertThat(h.intValue(PixelInfo.NUMBER_OF_FRAMES, 1)).isEqualTo(2);
+        assertThat(h.strings(PixelInfo.WINDOW_CENTER)).containsExactly("40", "80");
+        assertThat(h.pixelDataOffset()).isEqualTo(pixelValueOffset);
+        assertThat(h.pixelDataLength()).isEqualTo(24);
+        assertThat(h.isEncapsulated()).isFalse();
+    }
+
+    @Test
+    void rawImplicitDatasetWithoutPreamble() throws IOException {
+        DicomBytes b = DicomBytes.rawImplicit()
+                .string(SOP_INSTANCE_UID, "UI", "1.2.3.4.5")
+                .us(PixelInfo.ROWS, 4)
+                .us(PixelInfo.COLUMNS, 4)
+                .nativePixelData(new byte[32]);
+
+        DicomHeader h = DicomHeaderParser.parse(b.readable());
+
+        assertThat(h.transferSyntaxUid()).isEqualTo(DicomHeader.IMPLICIT_LE);
+        assertThat(h.explicitVr()).isFalse();
+        assertThat(h.fileMeta()).isEmpty();
+        assertThat(h.string(SOP_INSTANCE_UID)).isEqualTo("1.2.3.4.5");
+        assertThat(h.intValue(PixelInfo.ROWS, 0)).isEqualTo(4);
+        assertThat(h.pixelDataLength()).isEqualTo(32);
+    }
+
+    @Test
+    void undefinedLengthSequenceIsParsedAndFollowingElementsKept() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .sequenceWithUid(REFERENCED_SERIES, SERIES_INSTANCE_UID, "9.8.7")
+                .us(PixelInfo.ROWS, 5)
+                .nativePixelData(new byte[2]);
+
+        DicomHeader h = DicomHeaderParser.parse(b.readable());
+
+        DicomElement sq = h.find(REFERENCED_SERIES);
+        assertThat(sq).isNotNull();
+        assertThat(sq.isSequence()).isTrue();
+        assertThat(sq.items()).hasSize(1);
+        assertThat(sq.items().get(0)).extracting(DicomElement::tag).containsExactly(SERIES_INSTANCE_UID);
+        assertThat(h.intValue(PixelInfo.ROWS, 0)).isEqualTo(5);
+    }
+
+    @Test
+    void encapsulatedPixelDataHasUndefinedLength() throws IOException {
+        byte[] frame = {(byte) 0xFF, (byte) 0xD8, 1, 2};
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .us(PixelInfo.ROWS, 1)
+                .encapsulatedPixelData(new long[0], frame);
+
+        DicomHeader h = DicomHeaderParser.parse(b.readable());
+
+        assertThat(h.hasPixelData()).isTrue();
+        assertThat(h.isEncapsulated()).isTrue();
+        assertThat(h.pixelDataLength()).isEqualTo(-1);
+    }
+
+    @Test
+    void deflatedTransferSyntaxIsRejected() {
+        DicomBytes b = DicomBytes.part10(DicomHeader.DEFLATED_LE);
+
+        assertThatThrownBy(() -> DicomHeaderParser.parse(b.readable())).isInstanceOf(IOException.class);
+    }
+}
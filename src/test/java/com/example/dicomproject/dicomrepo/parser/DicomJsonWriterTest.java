@@ -0,0 +1,58 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DicomJsonWriterTest {
+
+    private static final int SOP_INSTANCE_UID = 0x00080018;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void nativePixelDataIsWrittenWithVrOnly() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .string(SOP_INSTANCE_UID, "UI", "1.2.3.4")
+                .us(PixelInfo.ROWS, 2)
+                .us(PixelInfo.COLUMNS, 2)
+                .us(PixelInfo.BITS_ALLOCATED, 16)
+                .nativePixelData(new byte[8]);
+
+        JsonNode json = toJson(b);
+
+        assertThat(json.path("00080018").path("Value").get(0).asText()).isEqualTo("1.2.3.4");
+        assertThat(json.has("00020010")).isFalse();
+        JsonNode pixels = json.path("7FE00010");
+        assertThat(pixels.path("vr").asText()).isEqualTo("OW");
+        assertThat(pixels.has("Value")).isFalse();
+        assertThat(pixels.has("InlineBinary")).isFalse();
+    }
+
+    @Test
+    void encapsulatedPixelDataIsOb() throws IOException {
+        byte[] frame = {1, 2, 3, 4};
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .us(PixelInfo.BITS_ALLOCATED, 16)
+                .encapsulatedPixelData(DicomBytes.itemOffsets(frame), frame);
+
+        assertThat(toJson(b).path("7FE00010").path("vr").asText()).isEqualTo("OB");
+    }
+
+    @Test
+    void noPixelDataElementWithoutPixelData() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .string(SOP_INSTANCE_UID, "UI", "1.2.3.4");
+
+        assertThat(toJson(b).has("7FE00010")).isFalse();
+    }
+
+    private JsonNode toJson(DicomBytes b) throws IOException {
+        DicomHeader h = DicomHeaderParser.parse(b.readable());
+        return mapper.readTree(DicomJsonWriter.toJson(h, mapper.getFactory()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.dicomproject.dicomrepo.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FrameIndexBuilderTest {
+
+    private static final byte[] JPEG_A = {(byte) 0xFF, (byte) 0xD8, 1, 2};
+    private static final byte[] JPEG_B = {(byte) 0xFF, (byte) 0xD8, 3, 4, 5, 6};
+    private static final byte[] CONTINUATION = {7, 8};
+
+    @Test
+    void nativeFramesAreContiguous() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "3")
+                .us(PixelInfo.ROWS, 2)
+                .us(PixelInfo.COLUMNS, 2)
+                .us(PixelInfo.BITS_ALLOCATED, 16);
+        long pixelOffset = b.size() + 12;
+        b.nativePixelData(new byte[24]);
+
+        FrameIndex idx = FrameIndexBuilder.build(b.readable());
+
+        assertThat(idx.encapsulated()).isFalse();
+        assertThat(idx.frameCount()).isEqualTo(3);
+        assertThat(idx.fragmentOffsets()).containsExactly(pixelOffset, pixelOffset + 8, pixelOffset + 16);
+        assertThat(idx.frameLength(2)).isEqualTo(8);
+    }
+
+    @Test
+    void nativePixelDataShorterThanFramesIsRejected() {
+        DicomBytes b = DicomBytes.part10(DicomHeader.EXPLICIT_LE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "4")
+                .us(PixelInfo.ROWS, 2)
+                .us(PixelInfo.COLUMNS, 2)
+                .us(PixelInfo.BITS_ALLOCATED, 16)
+                .nativePixelData(new byte[24]);
+
+        assertThatThrownBy(() -> FrameIndexBuilder.build(b.readable())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void basicOffsetTableDefinesFrames() throws IOException {
+        byte[][] fragments = {JPEG_A, CONTINUATION, JPEG_B};
+        long[] items = DicomBytes.itemOffsets(fragments);
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .encapsulatedPixelData(new long[]{items[0], items[2]}, fragments);
+
+        FrameIndex idx = FrameIndexBuilder.build(b.readable());
+
+        assertThat(idx.encapsulated()).isTrue();
+        assertThat(idx.frameStarts()).containsExactly(0, 2, 3);
+        assertThat(idx.frameLength(0)).isEqualTo(JPEG_A.length + CONTINUATION.length);
+        assertThat(idx.frameLength(1)).isEqualTo(JPEG_B.length);
+    }
+
+    @Test
+    void emptyOffsetTableWithOneFragmentPerFrame() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .encapsulatedPixelData(new long[0], JPEG_A, JPEG_B);
+
+        FrameIndex idx = FrameIndexBuilder.build(b.readable());
+
+        assertThat(idx.frameStarts()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void emptyOffsetTableFallsBackToJpegMarkers() throws IOException {
+        byte[] data = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .encapsulatedPixelData(new long[0], JPEG_A, CONTINUATION, JPEG_B)
+                .toByteArray();
+
+        FrameIndex idx = FrameIndexBuilder.build(DicomBytes.readable(data));
+
+        assertThat(idx.frameStarts()).containsExactly(0, 2, 3);
+        // 조각 오프셋은 값(item 헤더 뒤) 위치
+        int first = (int) idx.fragmentOffsets()[0];
+        assertThat(data[first] & 0xFF).isEqualTo(0xFF);
+        assertThat(data[first + 1] & 0xFF).isEqualTo(0xD8);
+    }
+
+    @Test
+    void singleFrameUsesAllFragments() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .encapsulatedPixelData(new long[0], JPEG_A, CONTINUATION);
+
+        FrameIndex idx = FrameIndexBuilder.build(b.readable());
+
+        assertThat(idx.frameCount()).isEqualTo(1);
+        assertThat(idx.frameLength(0)).isEqualTo(JPEG_A.length + CONTINUATION.length);
+    }
+
+    @Test
+    void offsetTableNotOnFragmentBoundaryIsRejected() {
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .encapsulatedPixelData(new long[]{0, 5}, JPEG_A, JPEG_B);
+
+        assertThatThrownBy(() -> FrameIndexBuilder.build(b.readable())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void frameIndexRoundTrip() throws IOException {
+        DicomBytes b = DicomBytes.part10(DicomBytes.JPEG_BASELINE)
+                .string(PixelInfo.NUMBER_OF_FRAMES, "IS", "2")
+                .us(PixelInfo.ROWS, 16)
+                .us(PixelInfo.COLUMNS, 8)
+                .encapsulatedPixelData(new long[0], JPEG_A, CONTINUATION, JPEG_B);
+        FrameIndex idx = FrameIndexBuilder.build(b.readable());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            idx.writeTo(out);
+        }
+        FrameIndex read = FrameIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.transferSyntaxUid()).isEqualTo(idx.transferSyntaxUid());
+        assertThat(read.fileLength()).isEqualTo(idx.fileLength());
+        assertThat(read.pixel()).isEqualTo(idx.pixel());
+        assertThat(read.fragmentOffsets()).containsExactly(idx.fragmentOffsets());
+        assertThat(read.fragmentLengths()).containsExactly(idx.fragmentLengths());
+        assertThat(read.frameStarts()).containsExactly(idx.frameStarts());
+    }
+}
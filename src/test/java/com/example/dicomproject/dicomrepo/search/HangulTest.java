@@ -0,0 +1,49 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HangulTest {
+
+    @Test
+    void choseongOfSyllables() {
+        assertThat(Hangul.choseong('홍')).isEqualTo('ㅎ');
+        assertThat(Hangul.choseong('길')).isEqualTo('ㄱ');
+        assertThat(Hangul.choseong('뚱')).isEqualTo('ㄸ');
+        assertThat(Hangul.choseong('A')).isEqualTo('a');
+    }
+
+    @Test
+    void choseongIndexAcceptsSyllablesAndLoneConsonants() {
+        assertThat(Hangul.choseongIndex('가')).isZero();
+        assertThat(Hangul.choseongIndex('ㄱ')).isZero();
+        assertThat(Hangul.choseongIndex('하')).isEqualTo(18);
+        assertThat(Hangul.choseongIndex('ㅏ')).isEqualTo(-1);
+        assertThat(Hangul.choseongIndex('x')).isEqualTo(-1);
+    }
+
+    @Test
+    void compoundVowelsAndFinalsAreSplitInTypingOrder() {
+        assertThat(Hangul.jamo('한')).isEqualTo("ㅎㅏㄴ");
+        assertThat(Hangul.jamo('과')).isEqualTo("ㄱㅗㅏ");
+        assertThat(Hangul.jamo('닭')).isEqualTo("ㄷㅏㄹㄱ");
+        assertThat(Hangul.jamo('Q')).isEqualTo("q");
+    }
+
+    @Test
+    void classification() {
+        assertThat(Hangul.isSyllable('가')).isTrue();
+        assertThat(Hangul.isSyllable('ㄱ')).isFalse();
+        assertThat(Hangul.isChoseong('ㄱ')).isTrue();
+        assertThat(Hangul.isChoseong('ㄳ')).isFalse();
+        assertThat(Hangul.containsHangul("HONG^ㄱ")).isTrue();
+        assertThat(Hangul.containsHangul("HONG^GILDONG")).isFalse();
+        assertThat(Hangul.containsHangul(null)).isFalse();
+    }
+
+    @Test
+    void normalizeNameDropsPersonNameDelimiters() {
+        assertThat(Hangul.normalizeName("Hong^Gil Dong=홍길동")).isEqualTo("honggildong홍길동");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.dicomproject.dicomrepo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private static TrigramIndex index(String... texts) {
+        TrigramIndex idx = new TrigramIndex();
+        for (int doc = 0; doc < texts.length; doc++) idx.add(doc, texts[doc]);
+        return idx;
+    }
+
+    @Test
+    void candidatesContainEveryDocumentWithTheSubstring() {
+        TrigramIndex idx = index("CT CHEST", "MR BRAIN", "CT ABDOMEN CHEST", "XR HAND");
+
+        assertThat(idx.candidates("chest")).containsExactly(0, 2);
+        assertThat(idx.candidates("BRA")).containsExactly(1);
+    }
+
+    @Test
+    void candidatesMaySupersetButNeverMiss() {
+        // trigram 교집합이라 부분 문자열이 아닌 문서도 후보일 수 있다 - 실제 like 는 DB 가 다시 확인
+        TrigramIndex idx = index("abcabx", "xyz", "cababc");
+
+        assertThat(idx.candidates("abcab")).contains(0);
+        assertThat(idx.candidates("abcab")).doesNotContain(1);
+    }
+
+    @Test
+    void shortQueryCannotBeNarrowed() {
+        TrigramIndex idx = index("CT CHEST");
+
+        assertThat(idx.candidates("ct")).isNull();
+        assertThat(idx.candidates("  c ")).isNull();
+    }
+
+    @Test
+    void unknownTrigramGivesNoCandidates() {
+        TrigramIndex idx = index("CT CHEST", "MR BRAIN");
+
+        assertThat(idx.candidates("knee")).isEmpty();
+    }
+
+    @Test
+    void nullTextIsIgnored() {
+        TrigramIndex idx = index(null, "MR BRAIN");
+
+        assertThat(idx.candidates("brain")).containsExactly(1);
+        assertThat(idx.grams()).isPositive();
+    }
+}
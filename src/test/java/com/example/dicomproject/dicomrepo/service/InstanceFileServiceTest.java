@@ -0,0 +1,117 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import com.example.dicomproject.storage.DiskCache;
+import com.example.dicomproject.storage.DiskCacheConfig;
+import com.example.dicomproject.storage.InMemoryStorageBackend;
+import com.example.dicomproject.storage.RandomReadable;
+import com.example.dicomproject.storage.StorageRegistry;
+import com.example.dicomproject.storage.StoredFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InstanceFileServiceTest {
+
+    private static final byte[] DATA = "DICM-instance-bytes".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path dir;
+
+    private final InMemoryStorageBackend remote = new InMemoryStorageBackend();
+    private DiskCache cache;
+    private InstanceFileService files;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DiskCacheConfig config = new DiskCacheConfig();
+        config.setEnabled(true);
+        config.setDir(dir.toString());
+        cache = new DiskCache(config);
+        lifecycle("init");
+
+        StorageRegistry storages = mock(StorageRegistry.class);
+        when(storages.backendFor(any())).thenReturn(remote);
+        when(storages.cacheKey(any(), anyString())).thenAnswer(i -> i.getArgument(1));
+        files = new InstanceFileService(storages, cache);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lifecycle("shutdown");
+    }
+
+    @Test
+    void openWritesThroughThenServesFromCache() throws Exception {
+        remote.put("dir/a.dcm", DATA);
+        try (StoredFile f = files.open(meta("a.dcm"))) {
+            assertThat(f.isLocal()).isFalse();
+            f.stream().transferTo(OutputStream.nullOutputStream());
+        }
+        remote.remove("dir/a.dcm");
+
+        try (StoredFile f = files.open(meta("a.dcm"))) {
+            assertThat(f.isLocal()).isTrue();
+            assertThat(f.stream().readAllBytes()).isEqualTo(DATA);
+        }
+        assertThat(files.stat(meta("a.dcm")).length()).isEqualTo(DATA.length);
+        assertThat(files.needsFetch(meta("a.dcm"))).isFalse();
+    }
+
+    @Test
+    void headerReadDoesNotFillCache() throws Exception {
+        remote.put("dir/a.dcm", DATA);
+
+        try (RandomReadable r = files.openRandomAccess(meta("a.dcm"), false)) {
+            assertThat(r.localPath()).isNull();
+            assertThat(r.length()).isEqualTo(DATA.length);
+        }
+
+        assertThat(files.needsFetch(meta("a.dcm"))).isTrue();
+        assertThat(cache.stats().fills()).isZero();
+    }
+
+    @Test
+    void rangeReadFillsCacheInBackground() throws Exception {
+        remote.put("dir/a.dcm", DATA);
+
+        try (RandomReadable r = files.openRandomAccess(meta("a.dcm"), true)) {
+            byte[] head = new byte[4];
+            assertThat(r.read(0, head, 0, 4)).isEqualTo(4);
+            assertThat(head).isEqualTo("DICM".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (files.needsFetch(meta("a.dcm")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(files.needsFetch(meta("a.dcm"))).isFalse();
+        try (RandomReadable r = files.openRandomAccess(meta("a.dcm"), true)) {
+            assertThat(r.localPath()).isNotNull();
+        }
+        assertThat(files.localPath(meta("a.dcm"))).isNotNull();
+    }
+
+    /** init/shutdown 은 컨테이너 수명주기용 package-private */
+    private void lifecycle(String name) throws Exception {
+        Method m = DiskCache.class.getDeclaredMethod(name);
+        m.setAccessible(true);
+        m.invoke(cache);
+    }
+
+    private static ImageMetaDto meta(String fname) {
+        return new ImageMetaDto(1L, 2L, 3L, "1.2", "1.2.3", "1.2.3.4", "dir", fname, "CT", 1L);
+    }
+}
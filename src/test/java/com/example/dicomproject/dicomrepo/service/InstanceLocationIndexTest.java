@@ -0,0 +1,80 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import com.example.dicomproject.config.LocationIndexConfig;
+import com.example.dicomproject.dicomrepo.dto.ImageMetaDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InstanceLocationIndexTest {
+
+    private static final String SOP = "1.2.3.4.5";
+
+    private DicomService dicom;
+    private InstanceLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        dicom = mock(DicomService.class);
+        index = new InstanceLocationIndex(new LocationIndexConfig(), dicom);
+    }
+
+    @Test
+    void movedFileIsRelocatedFromDb() throws Exception {
+        index.add(meta("old/dir", 1L));
+        when(dicom.getInstanceMeta(SOP)).thenReturn(meta("new/dir", 2L));
+        List<String> tried = new ArrayList<>();
+
+        var located = index.locate(SOP, m -> {
+            String path = DicomService.relativePath(m);
+            tried.add(path);
+            if (path.startsWith("old/")) throw new NoSuchFileException(path);
+            return path;
+        });
+
+        assertThat(tried).containsExactly("old/dir/a.dcm", "new/dir/a.dcm");
+        assertThat(located.value()).isEqualTo("new/dir/a.dcm");
+        assertThat(located.meta().storageId()).isEqualTo(2L);
+        assertThat(index.stats().relocated()).isEqualTo(1);
+        // 다음 조회는 새 위치로 바로 적중
+        assertThat(DicomService.relativePath(index.locate(SOP))).isEqualTo("new/dir/a.dcm");
+        verify(dicom, times(1)).getInstanceMeta(SOP);
+    }
+
+    @Test
+    void missingFileAtSameLocationIsRethrown() {
+        index.add(meta("dir", 1L));
+        when(dicom.getInstanceMeta(SOP)).thenReturn(meta("dir", 1L));
+
+        assertThatThrownBy(() -> index.locate(SOP, m -> {
+            throw new NoSuchFileException(DicomService.relativePath(m));
+        })).isInstanceOf(NoSuchFileException.class);
+        assertThat(index.stats().relocated()).isZero();
+    }
+
+    @Test
+    void evictDropsEntry() {
+        index.add(meta("dir", 1L));
+        index.evict(SOP);
+        when(dicom.getInstanceMeta(SOP)).thenReturn(meta("dir", 1L));
+
+        index.locate(SOP);
+
+        verify(dicom).getInstanceMeta(SOP);
+        assertThat(index.stats().misses()).isEqualTo(1);
+    }
+
+    private static ImageMetaDto meta(String dir, Long storageId) {
+        return new ImageMetaDto(null, null, null, null, null, SOP, dir, "a.dcm", null, storageId);
+    }
+}
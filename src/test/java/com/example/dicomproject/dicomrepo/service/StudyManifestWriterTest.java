@@ -0,0 +1,52 @@
+package com.example.dicomproject.dicomrepo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudyManifestWriterTest {
+
+    @Test
+    void uidRootIsEverythingBeforeLastComponent() {
+        assertThat(StudyManifestWriter.uidRoot("1.2.3.4.5")).isEqualTo("1.2.3.4");
+        assertThat(StudyManifestWriter.uidRoot("12345")).isNull();
+    }
+
+    @Test
+    void childrenOfRootAreWrittenWithLeadingDot() {
+        assertThat(StudyManifestWriter.compact("1.2.3.4", "1.2.3.4.5")).isEqualTo(".5");
+        assertThat(StudyManifestWriter.compact("1.2.3.4", "1.2.3.4.5.6")).isEqualTo("1.2.3.4.5.6");
+        assertThat(StudyManifestWriter.compact("1.2.3.4", "1.2.3.45")).isEqualTo("1.2.3.45");
+        assertThat(StudyManifestWriter.compact("1.2.3.4", "1.2.3.4")).isEqualTo("1.2.3.4");
+    }
+
+    @Test
+    void dotlessUidOutsideRootIsNotExpanded() {
+        String written = StudyManifestWriter.compact("1.2.3.4", "77");
+        assertThat(written).isEqualTo("77");
+        assertThat(StudyManifestWriter.expand("1.2.3.4", written)).isEqualTo("77");
+    }
+
+    @Test
+    void seriesRoundTrip() {
+        List<String> sops = List.of("1.2.3.4.5", "1.2.3.4.6", "1.2.9.9", "77", "1.2.3.45", "1.2.3.4.5.6", "1.2.3.4");
+        String root = StudyManifestWriter.uidRoot(sops.get(0));
+        List<String> decoded = sops.stream()
+                .map(s -> StudyManifestWriter.compact(root, s))
+                .map(e -> StudyManifestWriter.expand(root, e))
+                .toList();
+        assertThat(decoded).isEqualTo(sops);
+    }
+
+    @Test
+    void seriesWithoutRootKeepsFullUids() {
+        List<String> sops = List.of("12345", "67", "1.2.3");
+        String root = StudyManifestWriter.uidRoot(sops.get(0));
+        assertThat(root).isNull();
+        for (String s : sops) {
+            assertThat(StudyManifestWriter.expand(root, StudyManifestWriter.compact(root, s))).isEqualTo(s);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.dicomproject.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final InMemoryStorageBackend remote = new InMemoryStorageBackend();
+    private DiskCacheConfig config;
+    private DiskCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = new DiskCacheConfig();
+        config.setEnabled(true);
+        config.setDir(dir.toString());
+        config.setMaxBytes(300);
+        config.setHighWatermark(0.95);
+        config.setLowWatermark(0.7);
+        cache = new DiskCache(config);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void missThenWriteThroughThenHit() throws IOException {
+        remote.put("a/1.dcm", bytes(100, 1));
+        assertThat(cache.lookup("a/1.dcm")).isEmpty();
+
+        readAll(cache.writeThrough("a/1.dcm", remote.openFile("a/1.dcm")));
+
+        Optional<StoredFile> hit = cache.lookup("a/1.dcm");
+        assertThat(hit).isPresent();
+        try (StoredFile f = hit.get()) {
+            assertThat(f.isLocal()).isTrue();
+            assertThat(f.lastModified() / 1000).isEqualTo(remote.stat("a/1.dcm").lastModified() / 1000);
+            assertThat(f.stream().readAllBytes()).isEqualTo(bytes(100, 1));
+        }
+        DiskCache.Stats s = cache.stats();
+        assertThat(s.hits()).isEqualTo(1);
+        assertThat(s.misses()).isEqualTo(1);
+        assertThat(s.writes()).isEqualTo(1);
+        assertThat(s.bytes()).isEqualTo(100);
+    }
+
+    @Test
+    void partialReadIsNotCached() throws IOException {
+        remote.put("a/1.dcm", bytes(100, 1));
+
+        try (StoredFile f = cache.writeThrough("a/1.dcm", remote.openFile("a/1.dcm"))) {
+            f.stream().readNBytes(10);
+        }
+
+        assertThat(cache.contains("a/1.dcm")).isFalse();
+        assertThat(cache.stats().writes()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPastHighWatermark() throws IOException {
+        for (String p : new String[]{"a", "b", "c"}) remote.put(p, bytes(100, p.charAt(0)));
+        readAll(cache.writeThrough("a", remote.openFile("a")));
+        readAll(cache.writeThrough("b", remote.openFile("b")));
+        readAll(cache.lookup("a").orElseThrow()); // a 가 최근 사용 → b 가 가장 오래됨
+
+        readAll(cache.writeThrough("c", remote.openFile("c")));
+
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        assertThat(cache.contains("c")).isTrue();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        assertThat(cache.stats().bytes()).isEqualTo(200);
+    }
+
+    @Test
+    void fillAsyncLoadsWholeFileInBackground() throws Exception {
+        remote.put("a/1.dcm", bytes(100, 1));
+
+        cache.fillAsync("a/1.dcm", () -> remote.openFile("a/1.dcm"));
+
+        awaitContains("a/1.dcm");
+        try (RandomReadable r = cache.lookupRandomAccess("a/1.dcm").orElseThrow()) {
+            assertThat(r.localPath()).isNotNull();
+            assertThat(r.length()).isEqualTo(100);
+        }
+        assertThat(cache.stats().fills()).isEqualTo(1);
+    }
+
+    @Test
+    void pinnedLinkSurvivesPurge() throws IOException {
+        remote.put("a/1.dcm", bytes(100, 1));
+        readAll(cache.writeThrough("a/1.dcm", remote.openFile("a/1.dcm")));
+
+        Path link = cache.pin("a/1.dcm").orElseThrow();
+        cache.purge();
+
+        assertThat(cache.contains("a/1.dcm")).isFalse();
+        assertThat(Files.readAllBytes(link)).isEqualTo(bytes(100, 1));
+        assertThat(cache.stats().pins()).isEqualTo(1);
+    }
+
+    @Test
+    void restartRestoresIndexAndDropsTempFiles() throws IOException {
+        remote.put("a/1.dcm", bytes(100, 1));
+        readAll(cache.writeThrough("a/1.dcm", remote.openFile("a/1.dcm")));
+        Path link = cache.pin("a/1.dcm").orElseThrow();
+        cache.shutdown();
+
+        cache = new DiskCache(config);
+        cache.init();
+
+        assertThat(cache.contains("a/1.dcm")).isTrue();
+        assertThat(cache.stats().bytes()).isEqualTo(100);
+        assertThat(link).doesNotExist();
+    }
+
+    private void awaitContains(String path) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!cache.contains(path) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.contains(path)).as("filled: %s", path).isTrue();
+    }
+
+    private static void readAll(StoredFile f) throws IOException {
+        try (f) {
+            f.stream().transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    static byte[] bytes(int n, int seed) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) b[i] = (byte) (seed + i);
+        return b;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.dicomproject.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicatedStorageBackendTest {
+
+    private static final String PATH = "a/1.dcm";
+
+    private final ScriptedBackend primary = new ScriptedBackend("primary");
+    private final ScriptedBackend replica = new ScriptedBackend("replica");
+    private final StorageConfig.Hedge config = new StorageConfig.Hedge();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        primary.memory.put(PATH, "primary".getBytes(StandardCharsets.US_ASCII));
+        replica.memory.put(PATH, "replica".getBytes(StandardCharsets.US_ASCII));
+        config.setMinDelayMs(20);
+        config.setMaxDelayMs(20);
+        config.setReadTimeoutMs(5_000);
+        config.setFailureThreshold(2);
+        config.setOpenMs(60_000);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedToReplica() throws IOException {
+        primary.delayMs = 3_000;
+        ReplicatedStorageBackend storage = storage();
+
+        long started = System.currentTimeMillis();
+        assertThat(read(storage)).isEqualTo("replica");
+        assertThat(System.currentTimeMillis() - started).isLessThan(2_000);
+
+        ReplicatedStorageBackend.Stats s = storage.stats();
+        assertThat(s.hedged()).isEqualTo(1);
+        assertThat(s.hedgeWins()).isEqualTo(1);
+        assertThat(s.failovers()).isZero();
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() throws IOException {
+        ReplicatedStorageBackend storage = storage();
+
+        assertThat(read(storage)).isEqualTo("primary");
+
+        assertThat(storage.stats().hedged()).isZero();
+        assertThat(replica.calls.get()).isZero();
+    }
+
+    @Test
+    void failingPrimaryFailsOverToReplica() throws IOException {
+        primary.failure = new IOException("share down");
+        ReplicatedStorageBackend storage = storage();
+
+        assertThat(read(storage)).isEqualTo("replica");
+
+        ReplicatedStorageBackend.Stats s = storage.stats();
+        assertThat(s.failovers()).isEqualTo(1);
+        assertThat(s.hedged()).isZero();
+        assertThat(s.members().get(0).failures()).isEqualTo(1);
+    }
+
+    @Test
+    void circuitOpensAfterThresholdAndSkipsPrimary() throws IOException {
+        primary.failure = new IOException("share down");
+        ReplicatedStorageBackend storage = storage();
+
+        read(storage);
+        read(storage);
+        assertThat(storage.stats().members().get(0).circuit()).isEqualTo("OPEN");
+
+        assertThat(read(storage)).isEqualTo("replica");
+        assertThat(primary.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void missingFileDoesNotOpenCircuit() throws IOException {
+        primary.memory.remove(PATH);
+        ReplicatedStorageBackend storage = storage();
+
+        for (int i = 0; i < 3; i++) assertThat(read(storage)).isEqualTo("replica");
+
+        ReplicatedStorageBackend.MemberStats m = storage.stats().members().get(0);
+        assertThat(m.circuit()).isEqualTo("CLOSED");
+        assertThat(m.consecutiveFailures()).isZero();
+    }
+
+    @Test
+    void missingEverywhereIsNoSuchFile() {
+        primary.memory.remove(PATH);
+        replica.memory.remove(PATH);
+        ReplicatedStorageBackend storage = storage();
+
+        assertThatThrownBy(() -> storage.stat(PATH)).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void noAnswerWithinReadTimeoutFails() {
+        primary.delayMs = 3_000;
+        replica.delayMs = 3_000;
+        config.setReadTimeoutMs(200);
+        ReplicatedStorageBackend storage = storage();
+
+        assertThatThrownBy(() -> storage.openRandomAccess(PATH)).isInstanceOf(SocketTimeoutException.class);
+
+        ReplicatedStorageBackend.Stats s = storage.stats();
+        assertThat(s.timeouts()).isEqualTo(1);
+        // 주 저장소만 readTimeoutMs 를 다 썼다 - 늦게 보낸 hedge 는 실패로 세지 않음
+        assertThat(s.members().get(0).consecutiveFailures()).isEqualTo(1);
+        assertThat(s.members().get(1).consecutiveFailures()).isZero();
+    }
+
+    private ReplicatedStorageBackend storage() {
+        return new ReplicatedStorageBackend("1", List.of(primary, replica), config, executor);
+    }
+
+    private static String read(StorageBackend storage) throws IOException {
+        try (StoredFile f = storage.openFile(PATH)) {
+            return new String(f.stream().readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    /** 메모리 저장소 + 지연/오류 주입 */
+    private static final class ScriptedBackend implements StorageBackend {
+        final InMemoryStorageBackend memory = new InMemoryStorageBackend();
+        final AtomicInteger calls = new AtomicInteger();
+        private final String name;
+        volatile long delayMs;
+        volatile IOException failure;
+
+        ScriptedBackend(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public StoredFile openFile(String relativePath) throws IOException {
+            before();
+            return memory.openFile(relativePath);
+        }
+
+        @Override
+        public RandomReadable openRandomAccess(String relativePath) throws IOException {
+            before();
+            return memory.openRandomAccess(relativePath);
+        }
+
+        @Override
+        public FileStat stat(String relativePath) throws IOException {
+            before();
+            return memory.stat(relativePath);
+        }
+
+        private void before() throws IOException {
+            calls.incrementAndGet();
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+}